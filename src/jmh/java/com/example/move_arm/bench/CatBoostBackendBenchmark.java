@@ -0,0 +1,143 @@
+package com.example.move_arm.bench;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.move_arm.service.ObliviousTreeEvaluator;
+
+import ai.catboost.CatBoostModel;
+import ai.catboost.CatBoostPredictions;
+
+/**
+ * Сравнение бэкендов инференса на одной и той же модели: JNI по aim_catboost_model.cbm
+ * и ObliviousTreeEvaluator по ее JSON-экспорту aim_catboost_model.json
+ * (model.save_model("aim_catboost_model.json", format="json") из того же .cbm).
+ * Оба файла должны лежать в ресурсах пакета model.
+ *
+ * Пакет — 288 строк, как в NeuralTripletGenerator (все кандидаты на одно событие).
+ * Перед замером setUp сверяет предсказания бэкендов на этом пакете и падает при расхождении.
+ *
+ * Запуск: mvn -P benchmark package exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatBoostBackendBenchmark {
+
+    private static final String MODEL_DIR = "/com/example/move_arm/model/";
+    private static final int BATCH_ROWS = 288;
+    private static final int CELLS = 96;
+    private static final double MAX_DIFF = 1e-3;
+
+    private CatBoostModel jniModel;
+    private ObliviousTreeEvaluator javaModel;
+
+    private float[][] num;
+    private String[][] cat;
+    private float[][] singleNum;
+    private String[][] singleCat;
+    private final double[] out = new double[BATCH_ROWS];
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jniModel = loadJniModel();
+        javaModel = new ObliviousTreeEvaluator(readResource("aim_catboost_model.json"));
+
+        // Строки в диапазонах признаков генератора: ячейки 0..95, дистанции и углы сетки 12x8
+        Random random = new Random(42);
+        num = new float[BATCH_ROWS][javaModel.getFloatFeatureCount()];
+        cat = new String[BATCH_ROWS][javaModel.getCatFeatureCount()];
+        for (int r = 0; r < BATCH_ROWS; r++) {
+            for (int f = 0; f < num[r].length; f++) {
+                num[r][f] = random.nextFloat() * 12f;
+            }
+            for (int f = 0; f < cat[r].length; f++) {
+                cat[r][f] = String.valueOf(random.nextInt(CELLS));
+            }
+        }
+        singleNum = new float[][] {num[0]};
+        singleCat = new String[][] {cat[0]};
+
+        CatBoostPredictions expected = jniModel.predict(num, cat);
+        javaModel.predictBatch(cat, num, BATCH_ROWS, out);
+        for (int r = 0; r < BATCH_ROWS; r++) {
+            double diff = Math.abs(expected.get(r, 0) - out[r]);
+            if (diff > MAX_DIFF) {
+                throw new IllegalStateException("CatBoostBackendBenchmark: бэкенды расходятся в строке " + r
+                        + ": JNI " + expected.get(r, 0) + ", Java " + out[r]);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (jniModel != null) jniModel.close();
+    }
+
+    @Benchmark
+    public double jniSingle() throws Exception {
+        CatBoostPredictions p = jniModel.predict(singleNum, singleCat);
+        return p.get(0, 0);
+    }
+
+    @Benchmark
+    public double jniBatch() throws Exception {
+        CatBoostPredictions p = jniModel.predict(num, cat);
+        return p.get(BATCH_ROWS - 1, 0);
+    }
+
+    @Benchmark
+    public double javaSingle() {
+        return javaModel.predict(cat[0], num[0]);
+    }
+
+    @Benchmark
+    public double javaBatch() {
+        javaModel.predictBatch(cat, num, BATCH_ROWS, out);
+        return out[BATCH_ROWS - 1];
+    }
+
+    private static CatBoostModel loadJniModel() throws Exception {
+        try (InputStream in = openResource("aim_catboost_model.cbm")) {
+            File tmp = File.createTempFile("aim_catboost_model", ".cbm");
+            tmp.deleteOnExit();
+            Files.copy(in, tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return CatBoostModel.loadModel(tmp.getAbsolutePath());
+        }
+    }
+
+    private static String readResource(String name) throws Exception {
+        try (InputStream in = openResource(name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static InputStream openResource(String name) {
+        InputStream in = CatBoostBackendBenchmark.class.getResourceAsStream(MODEL_DIR + name);
+        if (in == null) {
+            throw new IllegalStateException("CatBoostBackendBenchmark: " + name + " не найден в ресурсах");
+        }
+        return in;
+    }
+}
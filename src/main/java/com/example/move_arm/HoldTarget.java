@@ -35,7 +35,6 @@ public class HoldTarget extends Pane {
         // 🎯 Основной круг
         baseCircle = new Circle(radius, radius, radius);
         baseCircle.setFill(circleColor);
-        baseCircle.setPickOnBounds(true);
         baseCircle.setStroke(Color.WHITE);
         baseCircle.setStrokeWidth(1);
 
@@ -56,6 +55,8 @@ public class HoldTarget extends Pane {
         progressArc.setMouseTransparent(true);
 
         getChildren().addAll(baseCircle, progressArc);
+        // Наведение определяет HitDetector поля по геометрии круга и вызывает pointerEntered/pointerExited
+        setMouseTransparent(true);
 
         // ⏱ Таймер удержания: 0 → -360
         holdTimeline = new Timeline(
@@ -73,24 +74,24 @@ public class HoldTarget extends Pane {
         holdTimeline.setOnFinished(e -> {
             if (completed) return;
             completed = true;
-            baseCircle.setMouseTransparent(true);
             if (onHoldComplete != null) {
                 onHoldComplete.run();
             }
         });
 
-        // 🖱 Наведение
-        baseCircle.setOnMouseEntered(e -> {
-            if (!completed && holdTimeline.getStatus() != Timeline.Status.RUNNING) {
-                holdTimeline.playFromStart();
-            }
-        });
+    }
 
-        baseCircle.setOnMouseExited(e -> {
-            if (completed) return;
-            holdTimeline.stop();
-            progressArc.setLength(0); // ❗ снова исчезает
-        });
+    // 🖱 Наведение
+    public void pointerEntered() {
+        if (!completed && holdTimeline.getStatus() != Timeline.Status.RUNNING) {
+            holdTimeline.playFromStart();
+        }
+    }
+
+    public void pointerExited() {
+        if (completed) return;
+        holdTimeline.stop();
+        progressArc.setLength(0); // ❗ снова исчезает
     }
 
     public double getRadius() {
@@ -1,5 +1,10 @@
 package com.example.move_arm.app;
 
+import com.example.move_arm.database.DatabaseManager;
+import com.example.move_arm.service.GameService;
+import com.example.move_arm.service.PersistenceService;
+import com.example.move_arm.service.RetentionService;
+import com.example.move_arm.service.SettingsService;
 import com.example.move_arm.ui.SceneManager;
 import com.example.move_arm.util.AppLogger;
 
@@ -21,6 +26,11 @@ public class HelloApplication extends Application {
         AppLogger.info("HelloApplication: start() - запуск JavaFX приложения");
 
         try {
+            // 0. Дописываем в БД игры, оборванные падением прошлого запуска (в фоне)
+            GameService.getInstance().recoverUnfinishedSessions();
+            // и в отдельном потоке уносим в архив подробные данные старых игр
+            RetentionService.getInstance().startCompaction();
+
             // 1. Инициализируем SceneManager
             SceneManager.init(stage);
 
@@ -61,6 +71,10 @@ public class HelloApplication extends Application {
     @Override
     public void stop() {
         AppLogger.info("HelloApplication: stop() - приложение завершает работу");
+        // Сначала дописываем отложенные настройки и очередь фоновых сохранений, потом закрываем пул соединений
+        SettingsService.getInstance().flush();
+        PersistenceService.getInstance().shutdown();
+        DatabaseManager.getInstance().shutdown();
     }
 
     public static void main(String[] args) {
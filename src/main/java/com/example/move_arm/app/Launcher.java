@@ -5,6 +5,11 @@ import javafx.application.Application;
 
 public class Launcher {
     public static void main(String[] args) {
+        // Безголовый режим: выгрузка обучающих данных без запуска окна
+        if (TripletExportCommand.isRequested(args)) {
+            System.exit(TripletExportCommand.run(args));
+        }
+
         try {
             // Можно установить уровень логирования через аргументы командной строки
             if (args.length > 0 && args[0].equals("--debug")) {
@@ -0,0 +1,86 @@
+package com.example.move_arm.app;
+
+import java.nio.file.Path;
+
+import com.example.move_arm.database.DatabaseManager;
+import com.example.move_arm.service.TripletExportService;
+import com.example.move_arm.util.AppLogger;
+
+/**
+ * Выгрузка target_triplets из командной строки, без запуска JavaFX:
+ * <pre>
+ * --export-triplets &lt;файл&gt; [--format csv|bin] [--user &lt;id&gt;] [--from &lt;сек&gt;] [--to &lt;сек&gt;]
+ * </pre>
+ * Формат по умолчанию — по расширению файла (.csv — CSV, иначе бинарный колоночный).
+ * --from включительно, --to не включительно, в секундах Unix-времени (как target_triplets.timestamp).
+ */
+final class TripletExportCommand {
+
+    static final String FLAG = "--export-triplets";
+
+    private TripletExportCommand() {}
+
+    static boolean isRequested(String[] args) {
+        for (String arg : args) {
+            if (FLAG.equals(arg)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return код завершения процесса
+     */
+    static int run(String[] args) {
+        Path target = null;
+        TripletExportService.Format format = null;
+        Integer userId = null;
+        Long fromTs = null;
+        Long toTs = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case FLAG -> target = Path.of(value(args, ++i));
+                    case "--format" -> format = switch (value(args, ++i).toLowerCase()) {
+                        case "csv" -> TripletExportService.Format.CSV;
+                        case "bin", "binary" -> TripletExportService.Format.BINARY;
+                        default -> throw new IllegalArgumentException("неизвестный формат: " + args[i]);
+                    };
+                    case "--user" -> userId = Integer.parseInt(value(args, ++i));
+                    case "--from" -> fromTs = Long.parseLong(value(args, ++i));
+                    case "--to" -> toTs = Long.parseLong(value(args, ++i));
+                    case "--debug" -> AppLogger.setLevel(AppLogger.Level.DEBUG);
+                    default -> throw new IllegalArgumentException("неизвестный аргумент: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ошибка: " + e.getMessage());
+            System.err.println("Использование: " + FLAG + " <файл> [--format csv|bin] [--user <id>] [--from <сек>] [--to <сек>]");
+            return 2;
+        }
+
+        if (format == null) {
+            format = target.toString().toLowerCase().endsWith(".csv")
+                    ? TripletExportService.Format.CSV
+                    : TripletExportService.Format.BINARY;
+        }
+
+        try {
+            long rows = new TripletExportService().export(target, format, userId, fromTs, toTs);
+            System.out.println("Выгружено строк: " + rows + " → " + target);
+            return 0;
+        } catch (Exception e) {
+            AppLogger.error("TripletExportCommand: выгрузка не удалась", e);
+            return 1;
+        } finally {
+            DatabaseManager.getInstance().shutdown();
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("не хватает значения после " + args[i - 1]);
+        }
+        return args[i];
+    }
+}
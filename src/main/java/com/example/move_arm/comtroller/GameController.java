@@ -4,18 +4,19 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
-import com.example.move_arm.model.ClickData;
+import com.example.move_arm.model.ClickBuffer;
 import com.example.move_arm.model.User;
 import com.example.move_arm.model.settings.HoverGameSettings;
 import com.example.move_arm.service.AnimationService;
+import com.example.move_arm.service.GameClock;
 import com.example.move_arm.service.GameService;
 import com.example.move_arm.service.LevelGeneratorService;
 import com.example.move_arm.service.SettingsService;
 import com.example.move_arm.ui.SceneManager;
+import com.example.move_arm.ui.view.CursorSampler;
+import com.example.move_arm.ui.view.HitDetector;
 import com.example.move_arm.util.AppLogger;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.BooleanBinding;
@@ -27,7 +28,6 @@ import javafx.scene.layout.Pane;
 import javafx.scene.media.AudioClip;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
-import javafx.util.Duration;
 
 /**
  * Исправленная версия GameController: безопасный fallback для sceneManager == null.
@@ -43,7 +43,6 @@ public class GameController {
 
     private int score = 0;
     private int activeCircles = 0;
-    private int remainingTime;
 
     private HoverGameSettings settings;
     private final Random random = new Random();
@@ -51,16 +50,19 @@ public class GameController {
     private boolean sceneReady = false;
     private boolean gameActive = false;
 
-    private final List<ClickData> clickData = new ArrayList<>();
-    private Timeline timer;
+    private final ClickBuffer clickData = new ClickBuffer();
+    // Время игры: конец раунда, таймер в HUD и метки кликов
+    private final GameClock clock = new GameClock(1000,
+            remainingMs -> timeLabel.setText("Время: " + GameClock.toSeconds(remainingMs)), this::endGame);
 
-    private long gameStartTimeNs = 0L;
     private SceneManager sceneManager; // может быть null — используем fallback
     private final GameService gameService = GameService.getInstance();
     private AudioClip hoverSound;
     private final LevelGeneratorService levelGenerator = LevelGeneratorService.getInstance();
     private double[] lastCircle = new double[2];
     private boolean hasLastCircle = false;
+    private HitDetector<Circle> hitDetector;
+    private CursorSampler cursorSampler;
 
     @FXML
     public void initialize() {
@@ -77,6 +79,9 @@ public class GameController {
         topPanel.setSpacing(18);
         topPanel.getChildren().addAll(scoreLabel, timeLabel, userLabel);
 
+        hitDetector = new HitDetector<>(gameRoot, this::onCircleHit);
+        cursorSampler = new CursorSampler(gameRoot);
+
         settings = SettingsService.getInstance().getHoverSettings();
 
         try {
@@ -149,19 +154,18 @@ public class GameController {
         hasLastCircle = false;
         clickData.clear();
 
-        remainingTime = settings.getDurationSeconds();
         scoreLabel.setText("Очки: " + score);
-        timeLabel.setText("Время: " + remainingTime);
+        timeLabel.setText("Время: " + settings.getDurationSeconds());
         updateUserLabel();
 
         gameRoot.getChildren().clear();
-        gameStartTimeNs = System.nanoTime();
+        hitDetector.clear();
 
         // === ОСНОВНОЕ ИСПРАВЛЕНИЕ ===
         if (gameRoot.getWidth() > 100 && gameRoot.getHeight() > 100) {
             AppLogger.info("Размеры уже готовы — начинаем спавн");
-            spawnInitialTargets();
             startTimer();
+            spawnInitialTargets();
         } else {
             AppLogger.info("Размеры ещё нулевые. Ждём 100мс и запускаем...");
 
@@ -172,8 +176,8 @@ public class GameController {
                     public void run() {
                         Platform.runLater(() -> {
                             AppLogger.info("После задержки размеры: " + gameRoot.getWidth() + " x " + gameRoot.getHeight());
-                            spawnInitialTargets();
                             startTimer();
+                            spawnInitialTargets();
                         });
                     }
                 }, 100); // 100 миллисекунд
@@ -181,34 +185,29 @@ public class GameController {
         }
     }
     private void startTimer() {
-        if (timer != null) timer.stop();
-
-        timer = new Timeline(new KeyFrame(Duration.seconds(1), event -> {
-            remainingTime--;
-            timeLabel.setText("Время: " + remainingTime);
-            if (remainingTime <= 0) endGame();
-        }));
-        timer.setCycleCount(settings.getDurationSeconds());
-        timer.play();
+        // Часы раньше целей: время кликов отсчитывается от их старта
+        clock.start(settings.getDurationSeconds() * 1000L);
+        cursorSampler.start(clock);
     }
 
     private void endGame() {
         gameActive = false;
-        if (timer != null) timer.stop();
+        clock.stop();
 
         gameRoot.getChildren().removeIf(node -> node instanceof Circle);
+        hitDetector.clear();
         activeCircles = 0;
 
-        // сохраняем результат — GameService сохраняет в БД и хранит lastGameClicks
+        // сохраняем результат — GameService хранит lastGameClicks и пишет в БД в фоне
         try {
-            int savedId = gameService.addGameClicks(
+            gameService.addGameClicks(
                     settings.getRadius(),
                     settings.getGeneratorType(),
                     settings.getSeed(),
                     settings.getDifficulty(),
-                    new ArrayList<>(clickData)
-            );
-            AppLogger.info("GameController: Результат сохранён в БД (id=" + savedId + ")");
+                    clickData.copy(),
+                    cursorSampler.stop()
+            ).thenAccept(savedId -> AppLogger.info("GameController: Результат сохранён в БД (id=" + savedId + ")"));
         } catch (Exception e) {
             AppLogger.error("GameController: Ошибка сохранения результата", e);
         }
@@ -262,43 +261,46 @@ public class GameController {
         circle.setFill(Color.rgb(random.nextInt(256), random.nextInt(256), random.nextInt(256), 0.85));
         circle.setStroke(Color.WHITE);
         circle.setStrokeWidth(2);
+        // Попадание определяет hitDetector по геометрии, сам круг события мыши не ловит
+        circle.setMouseTransparent(true);
 
-        circle.setOnMouseEntered(event -> {
-            if (!gameActive) return;
+        hitDetector.add(circle, x, y, radius);
+        gameRoot.getChildren().add(circle);
+        activeCircles++;
+    }
 
-            if (hoverSound != null) hoverSound.play();
+    private void onCircleHit(Circle circle, double cursorX, double cursorY) {
+        if (!gameActive) return;
 
-            lastCircle[0] = circle.getCenterX();
-            lastCircle[1] = circle.getCenterY();
-            hasLastCircle = true;
+        if (hoverSound != null) hoverSound.play();
 
-            gameRoot.getChildren().remove(circle);
-            activeCircles--;
+        lastCircle[0] = circle.getCenterX();
+        lastCircle[1] = circle.getCenterY();
+        hasLastCircle = true;
 
-            score++;
-            scoreLabel.setText("Очки: " + score);
+        hitDetector.remove(circle);
+        gameRoot.getChildren().remove(circle);
+        activeCircles--;
 
-            int targetRadius = (int) circle.getRadius();
+        score++;
+        scoreLabel.setText("Очки: " + score);
 
-            long relNs = System.nanoTime() - gameStartTimeNs;
-            double cursorX = event.getX();
-            double cursorY = event.getY();
-            clickData.add(new ClickData(relNs, cursorX, cursorY, x, y, targetRadius));
+        int targetRadius = (int) circle.getRadius();
 
-            if (activeCircles < settings.getMaxCirclesCount()) spawnRandomTarget();
+        long relNs = clock.elapsedNs();
+        clickData.add(relNs, cursorX, cursorY, circle.getCenterX(), circle.getCenterY(), targetRadius);
 
-            try { AnimationService.playDestructionAnimation(gameRoot, circle, null); } catch (Exception ignored) {}
-        });
+        if (activeCircles < settings.getMaxCirclesCount()) spawnRandomTarget();
 
-        gameRoot.getChildren().add(circle);
-        activeCircles++;
+        try { AnimationService.playDestructionAnimation(gameRoot, circle, null); } catch (Exception ignored) {}
     }
 
 
     @FXML
     private void handleToMenu() {
-        if (timer != null) timer.stop();
+        clock.stop();
         gameActive = false;
+        cursorSampler.cancel();
 
         SceneManager mgr = this.sceneManager;
         if (mgr == null) {
@@ -310,7 +312,7 @@ public class GameController {
 
     @FXML
     private void handleRestart() {
-        if (timer != null) timer.stop();
+        clock.stop();
         gameActive = false;
 
         // безопасный restart: если SceneManager доступен, попросим его перезапустить сцену, иначе просто startGame()
@@ -332,15 +334,15 @@ public class GameController {
         hasLastCircle = false;
         clickData.clear();
 
-        if (timer != null) {
-            timer.stop();
-            timer = null;
-        }
+        clock.stop();
 
         // Важно: очищаем визуальные элементы
         if (gameRoot != null) {
             gameRoot.getChildren().clear();
         }
+        if (hitDetector != null) {
+            hitDetector.clear();
+        }
 
         gameService.clear();
     }
@@ -51,14 +51,23 @@ public class MoreResultsController {
         movementSpeedChart.getData().clear();
         normalizedDeviationChart.getData().clear();
 
-        List<GameResult> results = gameService.getResultsForCurrentUser();
-        if (results == null || results.isEmpty()) {
+        // Последняя игра может еще записываться в фоне — ждем ее без блокировки FX-потока
+        gameService.getLatestResultForCurrentGame().whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                AppLogger.error("MoreResultsController: не удалось загрузить последний результат", error);
+                summaryTable.add(new Label("Нет данных"), 0, 0);
+                return;
+            }
+            showLatest(result.orElse(null));
+        }));
+    }
+
+    private void showLatest(GameResult last) {
+        if (last == null) {
             summaryTable.add(new Label("Нет данных"), 0, 0);
             return;
         }
 
-        GameResult last = results.get(0);
-
         if ("neural".equalsIgnoreCase(gameService.getCurrentGameTypeString())) {
             modeLabel.setText("Режим: Neural");
             showHoverResults(last);
@@ -76,7 +85,7 @@ public class MoreResultsController {
     private void showHoverResults(GameResult last) {
         int resultId = last.getId();
 
-        List<ClickData> clicks = clickDao.readClicksForResult(resultId);
+        List<ClickData> clicks = clickDao.readClicksForResult(resultId).asList();
         if (clicks == null || clicks.isEmpty()) {
             summaryTable.add(new Label("Нет кликов для этого результата"), 0, 0);
             return;
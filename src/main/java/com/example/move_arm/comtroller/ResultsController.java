@@ -12,6 +12,7 @@ import com.example.move_arm.service.GameService; // Не забудь импор
 import com.example.move_arm.ui.SceneManager;
 import com.example.move_arm.util.AppLogger;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -36,6 +37,23 @@ public class ResultsController {
 
     public void setSceneManager(SceneManager manager) { this.sceneManager = manager; }
     private boolean isNeuralMode = false;
+    private boolean fromCache = false;
+
+    private GameResult cachedResultForCurrentGame() {
+        GameResult cached = gameService.getLastGameResult();
+        if (cached == null) return null;
+        if (cached.getUserId() != gameService.getCurrentUser().getId()) return null;
+        if (cached.getGameTypeId() != gameService.getCurrentGameTypeDbId()) return null;
+        return cached;
+    }
+
+    private List<ClickData> clicksFor(GameResult result) {
+        return fromCache ? gameService.getLastGameClicks() : clickDao.readClicksForResult(result.getId()).asList();
+    }
+
+    private List<HoldAttempt> attemptsFor(GameResult result) {
+        return fromCache ? gameService.getLastHoldAttempts() : holdAttemptDao.readAttemptsForResult(result.getId());
+    }
 
     @FXML
     public void initialize() {
@@ -48,14 +66,29 @@ public class ResultsController {
         statsGrid.getChildren().clear();
         scoreChart.getData().clear();
 
-        List<GameResult> results = gameService.getResultsForCurrentUser();
-        if (results == null || results.isEmpty()) {
-            statsGrid.add(new Label("Нет данных для отображения."), 0, 0);
+        // Итог только что завершенной игры берем из памяти: запись в БД идет в фоне
+        GameResult last = cachedResultForCurrentGame();
+        fromCache = last != null;
+        if (last != null) {
+            showResult(last);
             return;
         }
 
-        GameResult last = results.get(0);
+        // Иначе читаем из БД после фоновой записи, не блокируя FX-поток
+        gameService.getLatestResultForCurrentGame().whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                AppLogger.error("ResultsController: не удалось загрузить последний результат", error);
+            }
+            GameResult saved = error == null ? result.orElse(null) : null;
+            if (saved == null) {
+                statsGrid.add(new Label("Нет данных для отображения."), 0, 0);
+                return;
+            }
+            showResult(saved);
+        }));
+    }
 
+    private void showResult(GameResult last) {
         // ПРОВЕРКА РЕЖИМА: 
         // Здесь мы решаем, какой метод отрисовки вызвать
         if ("neural".equalsIgnoreCase(gameService.getCurrentGameTypeString())) {
@@ -71,7 +104,7 @@ public class ResultsController {
 
     // --- МЕТОД ДЛЯ ОБЫЧНОГО РЕЖИМА (КЛИКИ) ---
     private void showClickResults(GameResult last) {
-        List<ClickData> clicks = clickDao.readClicksForResult(last.getId());
+        List<ClickData> clicks = clicksFor(last);
         useAutoLegend();
         if (clicks == null || clicks.isEmpty()) {
             statsGrid.add(new Label("Нет кликов для последней игры."), 0, 0);
@@ -96,7 +129,7 @@ public class ResultsController {
     // Neural клики сохраняются в ту же структуру (clicks) через ClickGameService,
     // поэтому отображение должно быть как у Hover (обычный режим кликов).
     private void showNeuralResults(GameResult last) {
-        List<ClickData> clicks = clickDao.readClicksForResult(last.getId());
+        List<ClickData> clicks = clicksFor(last);
         useAutoLegend();
         if (clicks == null || clicks.isEmpty()) {
             statsGrid.add(new Label("Нет кликов для последней игры."), 0, 0);
@@ -123,7 +156,7 @@ public class ResultsController {
     }
 
     private void showHoldResults(GameResult last) {
-        List<HoldAttempt> attempts = holdAttemptDao.readAttemptsForResult(last.getId());
+        List<HoldAttempt> attempts = attemptsFor(last);
         if (attempts == null || attempts.isEmpty()) return;
 
         useManualLegend();
@@ -120,7 +120,7 @@ public class StartWindowController {
         }
 
         User createdUser = userDao.createUser(username);
-        settingsService.ensureDefaultsSaved(createdUser.getId());
+        settingsService.saveDefaults(createdUser.getId());
         refreshUsersList();
         setMessage("Пользователь создан", false);
         configureFormMode(false);
@@ -2,13 +2,15 @@ package com.example.move_arm.comtroller;
 
 import com.example.move_arm.ui.SceneManager;
 import com.example.move_arm.database.GameResultDao;
-import com.example.move_arm.model.GameResult;
 import com.example.move_arm.model.GeneratorType;
+import com.example.move_arm.model.ResultAggregate;
+import com.example.move_arm.model.ResultPage;
 import com.example.move_arm.model.TrajectoryDifficulty;
 import com.example.move_arm.model.settings.HoverGameSettings;
 import com.example.move_arm.service.GameService;
 import com.example.move_arm.service.SettingsService;
 import com.example.move_arm.util.AppLogger;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
@@ -17,12 +19,15 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.layout.StackPane;
 
+import java.util.ArrayList;
 import java.util.List;
 
+
 public class StatisticsController {
 
     @FXML private Slider radiusSlider;
@@ -42,12 +47,21 @@ public class StatisticsController {
     private TrajectoryDifficulty difficulty = TrajectoryDifficulty.MEDIUM;
     private GeneratorType generatorType = GeneratorType.ADAPTIVE;
 
+    private static final int CHART_PAGE_SIZE = 500;
+
     private SceneManager sceneManager;
     private final GameService gameService = GameService.getInstance();
     private final SettingsService settingsService = SettingsService.getInstance();
     private final GameResultDao gameResultDao = new GameResultDao();
     private final HoverGeneratorOptionsBinder generatorOptionsBinder = new HoverGeneratorOptionsBinder();
     private int radius = 50;
+    // Номер последнего запроса статистики: ответы на устаревшие (слайдер двигали дальше) отбрасываются
+    private int statisticsRequest = 0;
+
+    // Состояние графика: следующая страница очков подгружается прокруткой колеса над графиком
+    private XYChart.Series<Number, Number> scoreSeries;
+    private int chartAfterId;
+    private boolean chartHasMore;
 
     public void setSceneManager(SceneManager sm) {
         this.sceneManager = sm;
@@ -156,6 +170,11 @@ public class StatisticsController {
 
         backButton.setOnAction(e -> sceneManager.showMenu());
 
+        // Прокрутка вниз над графиком догружает следующую страницу истории
+        scoresChart.addEventHandler(ScrollEvent.SCROLL, e -> {
+            if (e.getDeltaY() < 0) loadNextScorePage();
+        });
+
         // начальная загрузка
         updateStatistics();
     }
@@ -163,20 +182,30 @@ public class StatisticsController {
     private void updateStatistics() {
         statsGrid.getChildren().clear();
         scoresChart.getData().clear();
+        scoreSeries = null;
+        chartHasMore = false;
+
+        int request = ++statisticsRequest;
+        // Проверка идет после фоновой записи последней игры, без блокировки FX-потока
+        gameService.hasResultsForCurrentUser().whenComplete((hasResults, error) -> Platform.runLater(() -> {
+            if (request != statisticsRequest) return;
+            if (error != null) {
+                AppLogger.error("StatisticsController: не удалось проверить наличие результатов", error);
+            }
+            if (error != null || !hasResults) {
+                statsGrid.add(new Label("Нет данных"), 0, 0);
+                return;
+            }
+            showStatistics();
+        }));
+    }
 
-        String currentGameType = gameService.getCurrentGameTypeString();
-
-        List<GameResult> results = gameService.getResultsForCurrentUser();
-        if (results == null || results.isEmpty()) {
-            statsGrid.add(new Label("Нет данных"), 0, 0);
-            return;
-        }
-
-        List<Integer> ScoresList = gameResultDao.findListScoresByGeneratorSettings(gameService.getCurrentUser().getId(), gameService.getCurrentGameTypeId(), radius, generatorType, seed, difficulty);
-        List<Double> intervals = gameResultDao.findListAvgTimesByGeneratorSettings(gameService.getCurrentUser().getId(), gameService.getCurrentGameTypeId(), radius, generatorType, seed, difficulty);
-        double avgIntervalMs = intervals.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-        double avgScore = ScoresList.stream().mapToDouble(Integer::doubleValue).average().orElse(0.0);
-        int bestScore = gameResultDao.findRecordScoreByGeneratorSettings(gameService.getCurrentUser().getId(), gameService.getCurrentGameTypeId(), radius, generatorType, seed, difficulty);
+    private void showStatistics() {
+        // Рекорд и средние — одна строка сводки
+        ResultAggregate aggregate = gameResultDao.findAggregateByGeneratorSettings(gameService.getCurrentUser().getId(), gameService.getCurrentGameTypeId(), radius, generatorType, seed, difficulty);
+        double avgIntervalMs = aggregate.getAvgIntervalMs();
+        double avgScore = aggregate.getAvgScore();
+        int bestScore = aggregate.getBestScore();
 
         statsGrid.add(new Label("Рекорд:"), 0, 0);
         statsGrid.add(new Label(String.valueOf(bestScore)), 1, 0);
@@ -187,18 +216,34 @@ public class StatisticsController {
         statsGrid.add(new Label("Среднее время между кликами (мс):"), 0, 2);
         statsGrid.add(new Label(String.format("%.2f", avgIntervalMs)), 1, 2);
 
-        XYChart.Series<Number, Number> series = new XYChart.Series<>();
-        series.setName("Очки по играм");
-        int i = 1;
-        for (int r : ScoresList) {
-            series.getData().add(new XYChart.Data<>(i++, r));
-        }
-        scoresChart.getData().add(series);
-    
+        // На графике сначала только первая страница очков; остальные — по прокрутке (loadNextScorePage)
+        scoreSeries = new XYChart.Series<>();
+        chartAfterId = 0;
+        chartHasMore = true;
+        loadNextScorePage();
+        scoresChart.getData().add(scoreSeries);
 
         NumberAxis xAxis = (NumberAxis) scoresChart.getXAxis();
         NumberAxis yAxis = (NumberAxis) scoresChart.getYAxis();
         xAxis.setAutoRanging(true);
         yAxis.setAutoRanging(true);
     }
+
+    /**
+     * Дописывает в график следующую keyset-страницу очков (CHART_PAGE_SIZE игр), если она есть.
+     */
+    private void loadNextScorePage() {
+        if (scoreSeries == null || !chartHasMore) return;
+        ResultPage<Integer> page = gameResultDao.findScorePageByGeneratorSettings(gameService.getCurrentUser().getId(), gameService.getCurrentGameTypeId(), radius, generatorType, seed, difficulty, chartAfterId, CHART_PAGE_SIZE);
+        int i = scoreSeries.getData().size() + 1;
+        List<XYChart.Data<Number, Number>> points = new ArrayList<>(page.getItems().size());
+        for (int r : page.getItems()) {
+            points.add(new XYChart.Data<>(i++, r));
+        }
+        // Одним addAll — одна перерисовка графика на страницу
+        scoreSeries.getData().addAll(points);
+        chartAfterId = page.getLastId();
+        chartHasMore = page.hasMore();
+        scoreSeries.setName(chartHasMore ? "Очки по играм (прокрутите вниз — еще)" : "Очки по играм");
+    }
 }
@@ -1,8 +1,8 @@
 package com.example.move_arm.database;
 
-import com.example.move_arm.model.ClickData;
+import com.example.move_arm.model.ClickBuffer;
 import com.example.move_arm.model.TrajectoryDifficulty;
-import javafx.geometry.Point2D;
+import com.example.move_arm.util.AppLogger;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -10,31 +10,84 @@ import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Клики игр. Основной формат — одна строка click_streams на игру с упакованным потоком
+ * (см. ClickStreamCodec). Старый построчный формат таблицы clicks продолжает читаться,
+ * а писать в него можно, запустив приложение с -Dmovearm.clicks.storage=rows.
+ */
 public class ClickDao {
+    private static final String STORAGE_PROPERTY = "movearm.clicks.storage";
+
     private final DatabaseManager db = DatabaseManager.getInstance();
+    private final boolean rowStorage = "rows".equalsIgnoreCase(System.getProperty(STORAGE_PROPERTY, "blob"));
+
+    public void insertClicks(int resultId, ClickBuffer clicks) {
+        try (Connection c = db.getConnection()) {
+            insertClicks(c, resultId, clicks);
+        } catch (Exception e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Вставка на переданном соединении — для записи внутри внешней транзакции (GameSessionWriter).
+     */
+    void insertClicks(Connection c, int resultId, ClickBuffer clicks) {
+        if (rowStorage) {
+            insertClickRows(c, resultId, clicks);
+        } else {
+            insertClickStream(c, resultId, clicks);
+        }
+    }
+
+    static void insertClickStream(Connection c, int resultId, ClickBuffer clicks) {
+        if (clicks.isEmpty()) return;
+        String sql = """
+            INSERT OR REPLACE INTO click_streams(result_id, click_count, radius, first_time_ns, last_time_ns, data)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, resultId);
+            ps.setInt(2, clicks.size());
+            ps.setInt(3, clicks.radius(0));
+            ps.setLong(4, clicks.timeNs(0));
+            ps.setLong(5, clicks.timeNs(clicks.size() - 1));
+            ps.setBytes(6, ClickStreamCodec.encode(clicks));
+            ps.executeUpdate();
+        } catch (Exception e) { throw new RuntimeException(e); }
+    }
 
-    public void insertClicks(int resultId, List<ClickData> clicks) {
+    private void insertClickRows(Connection c, int resultId, ClickBuffer clicks) {
         String sql = "INSERT INTO clicks(result_id, click_index, time_ns, cursor_x, cursor_y, center_x, center_y, radius) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            int idx = 0;
-            for (ClickData cd : clicks) {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int i = 0; i < clicks.size(); i++) {
                 ps.setInt(1, resultId);
-                ps.setInt(2, idx++);
-                ps.setLong(3, cd.getClickTimeNs());
-                ps.setDouble(4, cd.getCursor().getX());
-                ps.setDouble(5, cd.getCursor().getY());
-                ps.setDouble(6, cd.getCenter().getX());
-                ps.setDouble(7, cd.getCenter().getY());
-                ps.setInt(8, cd.getRadius());
+                ps.setInt(2, i);
+                ps.setLong(3, clicks.timeNs(i));
+                ps.setDouble(4, clicks.cursorX(i));
+                ps.setDouble(5, clicks.cursorY(i));
+                ps.setDouble(6, clicks.centerX(i));
+                ps.setDouble(7, clicks.centerY(i));
+                ps.setInt(8, clicks.radius(i));
                 ps.addBatch();
             }
             ps.executeBatch();
         } catch (Exception e) { throw new RuntimeException(e); }
     }
 
-    public List<ClickData> readClicksForResult(int resultId) {
-        List<ClickData> out = new ArrayList<>();
+    public ClickBuffer readClicksForResult(int resultId) {
+        String streamSql = "SELECT data FROM click_streams WHERE result_id = ?";
+        try (Connection c = db.getConnection();
+             PreparedStatement ps = c.prepareStatement(streamSql)) {
+            ps.setInt(1, resultId);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return ClickStreamCodec.decode(rs.getBytes("data"));
+            }
+        } catch (Exception e) { throw new RuntimeException(e); }
+        return readClickRowsForResult(resultId);
+    }
+
+    private ClickBuffer readClickRowsForResult(int resultId) {
+        ClickBuffer out = new ClickBuffer();
         String sql = "SELECT click_index, time_ns, cursor_x, cursor_y, center_x, center_y, radius FROM clicks WHERE result_id = ? ORDER BY click_index ASC";
         try (Connection c = db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
@@ -47,66 +100,106 @@ public class ClickDao {
                 double centerX = rs.getDouble("center_x");
                 double centerY = rs.getDouble("center_y");
                 int radius = rs.getInt("radius");
-                out.add(new ClickData(timeNs, cursorX, cursorY, centerX, centerY, radius));
+                out.add(timeNs, cursorX, cursorY, centerX, centerY, radius);
             }
         } catch (Exception e) { throw new RuntimeException(e); }
         return out;
     }
 
     public int getMaxClicksForUserAndRadius(int userId, int radius) {
-        String sql = "SELECT COUNT(*) AS clicks " +
+        String sql = "SELECT MAX(clicks) AS clicks FROM (" +
+                "SELECT s.click_count AS clicks " +
+                "FROM click_streams s " +
+                "JOIN game_results g ON s.result_id = g.id " +
+                "WHERE g.user_id = ? AND s.radius = ? " +
+                "UNION ALL " +
+                "SELECT COUNT(*) AS clicks " +
                 "FROM clicks c " +
                 "JOIN game_results g ON c.result_id = g.id " +
                 "WHERE g.user_id = ? AND c.radius = ? " +
                 "GROUP BY c.result_id " +
-                "ORDER BY clicks DESC " +
-                "LIMIT 1";
+                "UNION ALL " +
+                "SELECT a.click_count AS clicks " +
+                "FROM game_summaries a " +
+                "JOIN game_results g ON a.result_id = g.id " +
+                "WHERE g.user_id = ? AND a.radius = ? AND a.click_count > 0)";
 
         try (Connection c = db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setInt(1, userId);
             ps.setInt(2, radius);
+            ps.setInt(3, userId);
+            ps.setInt(4, radius);
+            ps.setInt(5, userId);
+            ps.setInt(6, radius);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
                 return rs.getInt("clicks");
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            AppLogger.error("ClickDao: ошибка запроса getMaxClicksForUserAndRadius", e);
         }
         return 0;
     }
 
     public int getMaxClicksForUserRadiusAndDifficulty(int userId, int radius, TrajectoryDifficulty difficulty) {
-        String sql = "SELECT COUNT(*) AS clicks " +
+        String sql = "SELECT MAX(clicks) AS clicks FROM (" +
+                "SELECT s.click_count AS clicks " +
+                "FROM click_streams s " +
+                "JOIN game_results g ON s.result_id = g.id " +
+                "WHERE g.user_id = ? AND s.radius = ? AND g.difficulty = ? " +
+                "UNION ALL " +
+                "SELECT COUNT(*) AS clicks " +
                 "FROM clicks c " +
                 "JOIN game_results g ON c.result_id = g.id " +
                 "WHERE g.user_id = ? AND c.radius = ? AND g.difficulty = ? " +
                 "GROUP BY c.result_id " +
-                "ORDER BY clicks DESC " +
-                "LIMIT 1";
+                "UNION ALL " +
+                "SELECT a.click_count AS clicks " +
+                "FROM game_summaries a " +
+                "JOIN game_results g ON a.result_id = g.id " +
+                "WHERE g.user_id = ? AND a.radius = ? AND g.difficulty = ? AND a.click_count > 0)";
 
         try (Connection c = db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
+            String difficultyName = (difficulty == null ? TrajectoryDifficulty.MEDIUM : difficulty).name();
             ps.setInt(1, userId);
             ps.setInt(2, radius);
-            ps.setString(3, (difficulty == null ? TrajectoryDifficulty.MEDIUM : difficulty).name());
+            ps.setString(3, difficultyName);
+            ps.setInt(4, userId);
+            ps.setInt(5, radius);
+            ps.setString(6, difficultyName);
+            ps.setInt(7, userId);
+            ps.setInt(8, radius);
+            ps.setString(9, difficultyName);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
                 return rs.getInt("clicks");
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            AppLogger.error("ClickDao: ошибка запроса getMaxClicksForUserRadiusAndDifficulty", e);
         }
         return 0;
     }
 
     public List<Integer> getAvgClicksListForUserAndRadius(int userId, int radius) {
         String sql = """
-        SELECT COUNT(*) AS clicks
+        SELECT s.result_id, s.click_count AS clicks
+        FROM click_streams s
+        JOIN game_results g ON s.result_id = g.id
+        WHERE g.user_id = ? AND s.radius = ?
+        UNION ALL
+        SELECT c.result_id, COUNT(*) AS clicks
         FROM clicks c
         JOIN game_results g ON c.result_id = g.id
         WHERE g.user_id = ? AND c.radius = ?
         GROUP BY c.result_id
+        UNION ALL
+        SELECT a.result_id, a.click_count AS clicks
+        FROM game_summaries a
+        JOIN game_results g ON a.result_id = g.id
+        WHERE g.user_id = ? AND a.radius = ? AND a.click_count > 0
+        ORDER BY 1
     """;
 
         List<Integer> avgClicksList = new ArrayList<>();
@@ -114,23 +207,52 @@ public class ClickDao {
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setInt(1, userId);
             ps.setInt(2, radius);
+            ps.setInt(3, userId);
+            ps.setInt(4, radius);
+            ps.setInt(5, userId);
+            ps.setInt(6, radius);
             ResultSet rs = ps.executeQuery();
             while (rs.next()) {
                 avgClicksList.add(rs.getInt("clicks"));
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            AppLogger.error("ClickDao: ошибка запроса getAvgClicksListForUserAndRadius", e);
         }
         return avgClicksList;
     }
 
+    /**
+     * Средний интервал между кликами для каждой игры пользователя с данным радиусом (в порядке игр).
+     * Все считается в SQLite: для построчных кликов — LAG по click_index внутри игры,
+     * для упакованных и архивных — по колонкам-сводкам click_streams / game_summaries.
+     * Через JDBC идет одна строка на игру.
+     */
     public List<Double> getAvgClickIntervalsForUserAndRadius(int userId, int radius) {
+        // Среднее последовательных интервалов = (t_last - t_first) / (n - 1),
+        // поэтому для упакованных игр хватает колонок-сводок
         String sql = """
-        SELECT c.result_id, c.time_ns
-        FROM clicks c
-        JOIN game_results g ON c.result_id = g.id
-        WHERE g.user_id = ? AND c.radius = ?
-        ORDER BY c.result_id, c.click_index ASC
+        WITH row_intervals AS (
+            SELECT c.result_id,
+                   c.time_ns - LAG(c.time_ns) OVER (PARTITION BY c.result_id ORDER BY c.click_index) AS delta_ns
+            FROM clicks c
+            JOIN game_results g ON c.result_id = g.id
+            WHERE g.user_id = ? AND c.radius = ?
+        )
+        SELECT result_id, AVG(delta_ns) / 1000000.0 AS avg_interval_ms
+        FROM row_intervals
+        WHERE delta_ns IS NOT NULL
+        GROUP BY result_id
+        UNION ALL
+        SELECT s.result_id, (s.last_time_ns - s.first_time_ns) / 1000000.0 / (s.click_count - 1)
+        FROM click_streams s
+        JOIN game_results g ON s.result_id = g.id
+        WHERE g.user_id = ? AND s.radius = ? AND s.click_count > 1
+        UNION ALL
+        SELECT a.result_id, (a.last_time_ns - a.first_time_ns) / 1000000.0 / (a.click_count - 1)
+        FROM game_summaries a
+        JOIN game_results g ON a.result_id = g.id
+        WHERE g.user_id = ? AND a.radius = ? AND a.click_count > 1
+        ORDER BY 1
     """;
 
         List<Double> avgIntervalsList = new ArrayList<>();
@@ -138,42 +260,16 @@ public class ClickDao {
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, userId);
             ps.setInt(2, radius);
+            ps.setInt(3, userId);
+            ps.setInt(4, radius);
+            ps.setInt(5, userId);
+            ps.setInt(6, radius);
             ResultSet rs = ps.executeQuery();
-
-            int currentResultId = -1;
-            Long prevTimeNs = null;
-            List<Double> intervalsForCurrent = new ArrayList<>();
-
             while (rs.next()) {
-                int resultId = rs.getInt("result_id");
-                long timeNs = rs.getLong("time_ns");
-
-                if (resultId != currentResultId) {
-                    // если это новая игра — сохраняем среднее предыдущей
-                    if (!intervalsForCurrent.isEmpty()) {
-                        double avg = intervalsForCurrent.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-                        avgIntervalsList.add(avg);
-                    }
-                    currentResultId = resultId;
-                    prevTimeNs = null;
-                    intervalsForCurrent.clear();
-                }
-
-                if (prevTimeNs != null) {
-                    double intervalMs = (timeNs - prevTimeNs) / 1_000_000.0;
-                    intervalsForCurrent.add(intervalMs);
-                }
-                prevTimeNs = timeNs;
-            }
-
-            // сохраняем среднее последней игры
-            if (!intervalsForCurrent.isEmpty()) {
-                double avg = intervalsForCurrent.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-                avgIntervalsList.add(avg);
+                avgIntervalsList.add(rs.getDouble("avg_interval_ms"));
             }
-
         } catch (Exception e) {
-            e.printStackTrace();
+            AppLogger.error("ClickDao: ошибка запроса getAvgClickIntervalsForUserAndRadius", e);
         }
         return avgIntervalsList;
     }
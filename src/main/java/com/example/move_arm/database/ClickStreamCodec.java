@@ -0,0 +1,136 @@
+package com.example.move_arm.database;
+
+import java.io.ByteArrayOutputStream;
+
+import com.example.move_arm.model.ClickBuffer;
+
+/**
+ * Компактный бинарный формат кликов одной игры для click_streams.data.
+ *
+ * Формат (версия 1):
+ * <pre>
+ * byte    версия формата
+ * varint  количество кликов
+ * для каждого клика — zigzag-varint разности с предыдущим кликом (у первого — с нулем):
+ *   time_ns, cursor_x, cursor_y, center_x, center_y, radius
+ * </pre>
+ * Координаты хранятся в сотых долях пикселя (округление до 0.01 px), время — точно.
+ * Соседние клики близки по времени и положению, поэтому разности занимают 1–3 байта
+ * вместо 8 байт REAL/INTEGER на колонку плюс накладные расходы строки и индекса.
+ */
+public final class ClickStreamCodec {
+
+    public static final int FORMAT_VERSION = 1;
+
+    /** Шаг квантования координат: 1/100 пикселя. */
+    private static final double COORD_SCALE = 100.0;
+
+    private ClickStreamCodec() {}
+
+    public static byte[] encode(ClickBuffer clicks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + clicks.size() * 12);
+        out.write(FORMAT_VERSION);
+        writeVarint(out, clicks.size());
+
+        long prevTime = 0;
+        long prevCursorX = 0, prevCursorY = 0, prevCenterX = 0, prevCenterY = 0;
+        long prevRadius = 0;
+
+        for (int i = 0; i < clicks.size(); i++) {
+            long time = clicks.timeNs(i);
+            long cursorX = quantize(clicks.cursorX(i));
+            long cursorY = quantize(clicks.cursorY(i));
+            long centerX = quantize(clicks.centerX(i));
+            long centerY = quantize(clicks.centerY(i));
+            long radius = clicks.radius(i);
+
+            writeSigned(out, time - prevTime);
+            writeSigned(out, cursorX - prevCursorX);
+            writeSigned(out, cursorY - prevCursorY);
+            writeSigned(out, centerX - prevCenterX);
+            writeSigned(out, centerY - prevCenterY);
+            writeSigned(out, radius - prevRadius);
+
+            prevTime = time;
+            prevCursorX = cursorX;
+            prevCursorY = cursorY;
+            prevCenterX = centerX;
+            prevCenterY = centerY;
+            prevRadius = radius;
+        }
+        return out.toByteArray();
+    }
+
+    public static ClickBuffer decode(byte[] data) {
+        Reader in = new Reader(data);
+        int version = data[in.pos++];
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("ClickStreamCodec: неизвестная версия формата " + version);
+        }
+        int count = (int) in.readVarint();
+        ClickBuffer out = new ClickBuffer(count);
+
+        long time = 0;
+        long cursorX = 0, cursorY = 0, centerX = 0, centerY = 0;
+        long radius = 0;
+
+        for (int i = 0; i < count; i++) {
+            time += in.readSigned();
+            cursorX += in.readSigned();
+            cursorY += in.readSigned();
+            centerX += in.readSigned();
+            centerY += in.readSigned();
+            radius += in.readSigned();
+            out.add(time,
+                    cursorX / COORD_SCALE, cursorY / COORD_SCALE,
+                    centerX / COORD_SCALE, centerY / COORD_SCALE,
+                    (int) radius);
+        }
+        return out;
+    }
+
+    private static long quantize(double coordinate) {
+        return Math.round(coordinate * COORD_SCALE);
+    }
+
+    private static void writeSigned(ByteArrayOutputStream out, long value) {
+        // zigzag: маленькие по модулю отрицательные числа тоже кодируются коротко
+        writeVarint(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int pos;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        long readVarint() {
+            long result = 0;
+            int shift = 0;
+            while (true) {
+                if (pos >= data.length) {
+                    throw new IllegalArgumentException("ClickStreamCodec: поток кликов обрезан");
+                }
+                byte b = data[pos++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+                shift += 7;
+            }
+        }
+
+        long readSigned() {
+            long raw = readVarint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.move_arm.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.example.move_arm.util.AppLogger;
+
+/**
+ * Небольшой пул долгоживущих SQLite-соединений.
+ *
+ * DAO продолжают писать try (Connection c = db.getConnection(); PreparedStatement ps = c.prepareStatement(sql)),
+ * но получают прокси: close() у соединения возвращает его в пул, а close() у PreparedStatement
+ * только сбрасывает параметры — сам statement остается в кеше соединения по тексту SQL.
+ */
+class ConnectionPool {
+
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    private static final String[] PRAGMAS = {
+            "PRAGMA journal_mode=WAL",
+            "PRAGMA synchronous=NORMAL",
+            "PRAGMA cache_size=-16384",      // 16 MB страничного кеша
+            "PRAGMA mmap_size=268435456",    // 256 MB memory-mapped I/O
+            "PRAGMA temp_store=MEMORY",
+            "PRAGMA busy_timeout=5000"
+    };
+
+    private final String url;
+    private final BlockingQueue<PooledConnection> idle;
+    private final List<PooledConnection> all = new ArrayList<>();
+    private volatile boolean shutdown = false;
+
+    ConnectionPool(String url, int size) {
+        this.url = url;
+        this.idle = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            PooledConnection pc = open(false);
+            all.add(pc);
+            idle.add(pc);
+        }
+    }
+
+    Connection borrow() throws SQLException {
+        if (shutdown) throw new SQLException("ConnectionPool: пул закрыт");
+        PooledConnection pc = idle.poll();
+        if (pc == null) {
+            // Все соединения заняты (например, вложенные вызовы DAO) — не блокируемся, открываем временное
+            AppLogger.warn("ConnectionPool: пул исчерпан, открываем временное соединение");
+            pc = open(true);
+        }
+        return pc.lease();
+    }
+
+    /**
+     * VACUUM на отдельном временном соединении: на соединениях пула висят закешированные
+     * выражения, и SQLite отказывает в VACUUM с "SQL statements in progress".
+     */
+    void vacuum() {
+        PooledConnection pc = open(true);
+        try (Statement s = pc.physical.createStatement()) {
+            // Режим auto_vacuum меняется только полным VACUUM. INCREMENTAL нужен DetailArchiveDao:
+            // место после переноса старых данных возвращается PRAGMA incremental_vacuum без перезаписи файла
+            s.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            s.execute("VACUUM");
+            AppLogger.info("ConnectionPool: файл БД сжат (VACUUM)");
+        } catch (SQLException e) {
+            // Не критично: освободившиеся страницы все равно переиспользуются новыми записями
+            AppLogger.warn("ConnectionPool: VACUUM не выполнен: " + e.getMessage());
+        } finally {
+            pc.closePhysical();
+        }
+    }
+
+    synchronized void closeAll() {
+        shutdown = true;
+        for (PooledConnection pc : all) {
+            try (Statement s = pc.physical.createStatement()) {
+                s.execute("PRAGMA optimize");
+            } catch (SQLException ignored) {
+            }
+            pc.closePhysical();
+        }
+        all.clear();
+        idle.clear();
+    }
+
+    private PooledConnection open(boolean temporary) {
+        try {
+            Connection physical = DriverManager.getConnection(url);
+            try (Statement s = physical.createStatement()) {
+                for (String pragma : PRAGMAS) {
+                    s.execute(pragma);
+                }
+            }
+            return new PooledConnection(physical, temporary);
+        } catch (SQLException e) {
+            throw new RuntimeException("ConnectionPool: не удалось открыть соединение с БД", e);
+        }
+    }
+
+    private void release(PooledConnection pc) {
+        try {
+            if (!pc.physical.getAutoCommit()) {
+                // DAO забыл завершить транзакцию — не отдаем ее следующему пользователю
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            AppLogger.error("ConnectionPool: не удалось сбросить состояние соединения", e);
+        }
+        if (pc.temporary || shutdown) {
+            pc.closePhysical();
+        } else {
+            idle.offer(pc);
+        }
+    }
+
+    /**
+     * Физическое соединение и его кеш подготовленных выражений.
+     */
+    private final class PooledConnection {
+        final Connection physical;
+        final boolean temporary;
+        final Map<String, PreparedStatement> statements = new LinkedHashMap<>(32, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= STATEMENT_CACHE_SIZE) return false;
+                closeQuietly(((CachedStatement) Proxy.getInvocationHandler(eldest.getValue())).real);
+                return true;
+            }
+        };
+
+        PooledConnection(Connection physical, boolean temporary) {
+            this.physical = physical;
+            this.temporary = temporary;
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Lease(this));
+        }
+
+        PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+            String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+            PreparedStatement cached = statements.get(key);
+            if (cached == null) {
+                PreparedStatement real = physical.prepareStatement(sql, autoGeneratedKeys);
+                cached = (PreparedStatement) Proxy.newProxyInstance(
+                        PreparedStatement.class.getClassLoader(),
+                        new Class<?>[]{PreparedStatement.class},
+                        new CachedStatement(real));
+                statements.put(key, cached);
+            }
+            return cached;
+        }
+
+        void closePhysical() {
+            for (PreparedStatement ps : statements.values()) {
+                closeQuietly(((CachedStatement) Proxy.getInvocationHandler(ps)).real);
+            }
+            statements.clear();
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Выданное DAO "соединение". После close() пользоваться им нельзя.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pc;
+        private boolean released = false;
+
+        Lease(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pc.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pc.physical + "]";
+                default:
+                    break;
+            }
+            if (released) throw new SQLException("ConnectionPool: соединение уже возвращено в пул");
+
+            if ("prepareStatement".equals(name) && args.length == 1) {
+                return pc.prepare((String) args[0], Statement.NO_GENERATED_KEYS);
+            }
+            if ("prepareStatement".equals(name) && args.length == 2 && args[1] instanceof Integer keys) {
+                return pc.prepare((String) args[0], keys);
+            }
+            return invokeReal(pc.physical, method, args);
+        }
+    }
+
+    /**
+     * Закешированный PreparedStatement: close() сбрасывает параметры и закрывает последний ResultSet.
+     */
+    private static final class CachedStatement implements InvocationHandler {
+        final PreparedStatement real;
+        private ResultSet lastResultSet;
+
+        CachedStatement(PreparedStatement real) {
+            this.real = real;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    closeQuietly(lastResultSet);
+                    lastResultSet = null;
+                    real.clearParameters();
+                    real.clearBatch();
+                    return null;
+                case "isClosed":
+                    return false;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result = invokeReal(real, method, args);
+            if ("executeQuery".equals(method.getName())) {
+                lastResultSet = (ResultSet) result;
+            }
+            return result;
+        }
+    }
+
+    private static Object invokeReal(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) return;
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+        }
+    }
+}
@@ -3,10 +3,7 @@ package com.example.move_arm.database;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.Statement;
 
 public class DatabaseManager {
 
@@ -17,11 +14,20 @@ public class DatabaseManager {
 
     private static final String URL = "jdbc:sqlite:" + DB_FILE;
 
+    // Архив сырых данных старых игр (DetailArchiveDao), подключается через ATTACH только на время переноса
+    private static final String ARCHIVE_FILE = DB_DIR + "/movearm_archive.db";
+
+    // Соединений немного: SQLite все равно сериализует запись, а WAL позволяет читать параллельно.
+    // По одному на FX-поток и фоновые потоки db-writer, db-compactor и settings-writer
+    private static final int POOL_SIZE = 4;
+
     private static DatabaseManager instance;
 
+    private final ConnectionPool pool;
+
     private DatabaseManager() {
         initDbFile();
-        initSchema();
+        pool = new ConnectionPool(URL, POOL_SIZE);
         migrateSchema();
     }
 
@@ -43,192 +49,33 @@ public class DatabaseManager {
         }
     }
 
-    private void initSchema() {
-        try (Connection c = getConnection(); Statement s = c.createStatement()) {
-
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS users (
-                  id INTEGER PRIMARY KEY AUTOINCREMENT,
-                  username TEXT NOT NULL UNIQUE
-                );
-                """);
-
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS game_types (
-                  id INTEGER PRIMARY KEY AUTOINCREMENT,
-                  name TEXT NOT NULL UNIQUE,
-                  description TEXT
-                );
-                """);
-
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS game_results (
-                  id INTEGER PRIMARY KEY AUTOINCREMENT,
-                  user_id INTEGER,
-                  game_type_id INTEGER,
-                  radius INTEGER,
-                  generator_type TEXT NOT NULL DEFAULT 'ADAPTIVE',
-                  seed INTEGER,
-                  difficulty TEXT NOT NULL DEFAULT 'MEDIUM',
-                  score INTEGER,
-                  duration_ms INTEGER,
-                  timestamp INTEGER,
-                  hit_rate REAL,
-                  avg_interval_ms REAL,
-                  avg_distance_px REAL,
-                  avg_speed REAL,
-                  FOREIGN KEY(user_id) REFERENCES users(id),
-                  FOREIGN KEY(game_type_id) REFERENCES game_types(id)
-                );
-                """);
-
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS clicks (
-                  id INTEGER PRIMARY KEY AUTOINCREMENT,
-                  result_id INTEGER,
-                  click_index INTEGER,
-                  time_ns INTEGER,
-                  cursor_x REAL,
-                  cursor_y REAL,
-                  center_x REAL,
-                  center_y REAL,
-                  radius INTEGER,
-                  FOREIGN KEY(result_id) REFERENCES game_results(id)
-                );
-                """);
-
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS app_meta (
-                  key TEXT PRIMARY KEY,
-                  value TEXT
-                );
-                """);
-
-            s.execute("""
-                INSERT OR IGNORE INTO game_types(name, description)
-                VALUES ('hover', 'Move Arm hover game');
-                """);
-
-            s.execute("""
-                INSERT OR IGNORE INTO game_types(name, description)
-                VALUES ('hold', 'Move Arm hold game');
-                """);
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS holds(
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                result_id INTEGER NOT NULL,
-                attempt_index INTEGER NOT NULL,   -- Порядковый номер контакта в игре (1, 2, 3...)
-                start_time_ns INTEGER NOT NULL,
-                end_time_ns INTEGER NOT NULL,
-                actual_hold_ms INTEGER NOT NULL,
-                success INTEGER NOT NULL,         -- 1 (успех), 0 (срыв)
-                target_center_x REAL NOT NULL,    -- Координата X центра круга
-                target_center_y REAL NOT NULL,    -- Координата Y центра круга
-                FOREIGN KEY(result_id) REFERENCES game_results(id)
-                );
-                """);
-            
-            s.execute("""
-                    CREATE TABLE IF NOT EXISTS global_settings (
-                    user_id INTEGER PRIMARY KEY,
-                    animation_type TEXT NOT NULL,
-                    FOREIGN KEY(user_id) REFERENCES users(id)
-                    );
-                    """);
-            s.execute("""
-                    CREATE TABLE IF NOT EXISTS hover_settings (
-                    user_id INTEGER PRIMARY KEY,
-                    duration_seconds INTEGER NOT NULL,
-                    radius INTEGER NOT NULL,
-                    seed INTEGER NOT NULL,
-                    difficulty TEXT NOT NULL DEFAULT 'MEDIUM',
-                    max_circles_count INTEGER NOT NULL,
-                    FOREIGN KEY(user_id) REFERENCES users(id)
-                    );
-                    """);
-            s.execute("""
-                    CREATE TABLE IF NOT EXISTS hold_settings (
-                    user_id INTEGER PRIMARY KEY,
-                    radius INTEGER NOT NULL,
-                    hold_time_ms INTEGER NOT NULL,
-                    FOREIGN KEY(user_id) REFERENCES users(id)
-                    );
-                    """);
-            s.execute("""
-                    CREATE TABLE IF NOT EXISTS neural_settings (
-                    user_id INTEGER PRIMARY KEY,
-                    duration_seconds INTEGER NOT NULL,
-                    radius INTEGER NOT NULL,
-                    max_circles_count INTEGER NOT NULL,
-                    FOREIGN KEY(user_id) REFERENCES users(id)
-                    );
-                    """);
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS target_triplets (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    user_id INTEGER,
-                    timestamp INTEGER,
-                    triplet_index INTEGER NOT NULL,
-                    spawn_ns INTEGER NOT NULL,
-                    t1_cell INTEGER NOT NULL,
-                    t2_cell INTEGER NOT NULL,
-                    t3_cell INTEGER NOT NULL,
-                    hit_target_index INTEGER NOT NULL,
-                    hit_ttk_ns INTEGER NOT NULL,
-                    radius INTEGER NOT NULL,
-                    centroid_row REAL,
-                    centroid_col REAL,
-                    t1_angle REAL,
-                    t2_angle REAL,
-                    t3_angle REAL,
-                    hit_to_miss1_dist REAL,
-                    hit_to_miss2_dist REAL,
-                    miss1_to_miss2_dist REAL,
-                    spread REAL,
-                    screen_width INTEGER,
-                    screen_height INTEGER,
-                    previous_hit_cell INTEGER DEFAULT -1
-                );
-                """);
-
-            s.execute("""
-                    INSERT OR IGNORE INTO game_types(name, description)
-                    VALUES ('neural', 'Neural RL training mode');
-                """);
-
-        } catch (Exception e) {
-            throw new RuntimeException("Не удалось инициализировать схему БД", e);
-        }
-    }
-
     private void migrateSchema() {
+        boolean vacuum;
         try (Connection c = getConnection()) {
-            ensureColumn(c, "game_results", "difficulty", "TEXT NOT NULL DEFAULT 'MEDIUM'");
-            ensureColumn(c, "game_results", "generator_type", "TEXT NOT NULL DEFAULT 'ADAPTIVE'");
-            ensureColumn(c, "hover_settings", "difficulty", "TEXT NOT NULL DEFAULT 'MEDIUM'");
-            ensureColumn(c, "hover_settings", "generator_type", "TEXT NOT NULL DEFAULT 'ADAPTIVE'");
+            vacuum = SchemaMigrations.migrate(c);
         } catch (Exception e) {
             throw new RuntimeException("Failed to migrate database schema", e);
         }
+        if (vacuum) pool.vacuum();
     }
 
-    private void ensureColumn(Connection c, String tableName, String columnName, String columnDefinition) throws Exception {
-        try (Statement s = c.createStatement();
-             ResultSet rs = s.executeQuery("PRAGMA table_info(" + tableName + ")")) {
-            while (rs.next()) {
-                if (columnName.equalsIgnoreCase(rs.getString("name"))) {
-                    return;
-                }
-            }
-        }
+    /**
+     * Выдает соединение из пула. close() возвращает его обратно, а prepareStatement
+     * берет готовые выражения из кеша этого соединения.
+     */
+    public Connection getConnection() throws Exception {
+        return pool.borrow();
+    }
 
-        try (Statement s = c.createStatement()) {
-            s.execute("ALTER TABLE " + tableName + " ADD COLUMN " + columnName + " " + columnDefinition);
-        }
+    static String archiveFile() {
+        return ARCHIVE_FILE;
     }
 
-    public Connection getConnection() throws Exception {
-        return DriverManager.getConnection(URL);
+    /**
+     * Закрывает все соединения пула. Вызывается при завершении приложения.
+     */
+    public void shutdown() {
+        pool.closeAll();
     }
 
     // --- Метаданные приложения ---
@@ -0,0 +1,219 @@
+package com.example.move_arm.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import com.example.move_arm.util.AppLogger;
+
+/**
+ * Перенос сырых данных старых игр (click_streams, clicks, holds, cursor_trajectories, target_triplets) в архивную БД.
+ *
+ * Для каждой игры старше границы в game_summaries остается сводка, по которой статистика
+ * (ClickDao, HoldAttemptDao) считается так же, как по сырым данным; сами строки копируются
+ * в movearm_archive.db через ATTACH и удаляются из основной БД. game_results не трогается.
+ *
+ * Работа идет пачками: одна пачка — одна транзакция, чтобы запись новых игр не ждала долго.
+ */
+public class DetailArchiveDao {
+
+    private static final String[] GAME_DETAIL_TABLES = {"click_streams", "clicks", "holds", "cursor_trajectories"};
+
+    private final DatabaseManager db = DatabaseManager.getInstance();
+
+    /**
+     * Архивирует до batchSize игр с timestamp меньше cutoffMs.
+     *
+     * @return сколько игр перенесено; меньше batchSize — старых игр больше нет
+     */
+    public int archiveGamesOlderThan(long cutoffMs, int batchSize) {
+        try (Connection c = db.getConnection()) {
+            attachArchive(c);
+            try {
+                c.setAutoCommit(false);
+                try (Statement s = c.createStatement()) {
+                    int games = selectBatch(c, cutoffMs, batchSize);
+                    if (games > 0) {
+                        summarize(s);
+                        for (String table : GAME_DETAIL_TABLES) {
+                            s.executeUpdate("INSERT INTO archive." + table
+                                    + " SELECT * FROM main." + table + " WHERE result_id IN (SELECT id FROM temp.archive_batch)");
+                            s.executeUpdate("DELETE FROM main." + table
+                                    + " WHERE result_id IN (SELECT id FROM temp.archive_batch)");
+                        }
+                    }
+                    s.execute("DROP TABLE temp.archive_batch");
+                    c.commit();
+                    return games;
+                } catch (Exception e) {
+                    c.rollback();
+                    throw e;
+                } finally {
+                    c.setAutoCommit(true);
+                }
+            } finally {
+                detachArchive(c);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Архивирует до batchSize строк target_triplets с timestamp (секунды) меньше cutoffMs.
+     */
+    public int archiveTripletsOlderThan(long cutoffMs, int batchSize) {
+        try (Connection c = db.getConnection()) {
+            attachArchive(c);
+            try {
+                c.setAutoCommit(false);
+                try (Statement s = c.createStatement()) {
+                    s.execute("CREATE TEMP TABLE archive_batch (id INTEGER PRIMARY KEY)");
+                    int rows;
+                    try (PreparedStatement ps = c.prepareStatement(
+                            "INSERT INTO temp.archive_batch SELECT id FROM target_triplets WHERE timestamp < ? ORDER BY id LIMIT ?")) {
+                        ps.setLong(1, cutoffMs / 1000);
+                        ps.setInt(2, batchSize);
+                        rows = ps.executeUpdate();
+                    }
+                    if (rows > 0) {
+                        s.executeUpdate("INSERT INTO archive.target_triplets"
+                                + " SELECT * FROM main.target_triplets WHERE id IN (SELECT id FROM temp.archive_batch)");
+                        s.executeUpdate("DELETE FROM main.target_triplets WHERE id IN (SELECT id FROM temp.archive_batch)");
+                    }
+                    s.execute("DROP TABLE temp.archive_batch");
+                    c.commit();
+                    return rows;
+                } catch (Exception e) {
+                    c.rollback();
+                    throw e;
+                } finally {
+                    c.setAutoCommit(true);
+                }
+            } finally {
+                detachArchive(c);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Возвращает ОС до maxPages свободных страниц основной БД (auto_vacuum = INCREMENTAL)
+     * одной короткой транзакцией — как и пачки архива, блокировка записи держится недолго.
+     *
+     * @return число освобожденных страниц; меньше maxPages — свободных страниц больше нет
+     */
+    public int incrementalVacuum(int maxPages) {
+        try (Connection c = db.getConnection();
+             Statement s = c.createStatement()) {
+            int before = freelistCount(s);
+            if (before == 0) return 0;
+
+            // executeUpdate прогоняет выражение до конца: освобождается min(maxPages, before) страниц.
+            // В autocommit это отдельная транзакция
+            s.executeUpdate("PRAGMA incremental_vacuum(" + maxPages + ")");
+            return before - freelistCount(s);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static int freelistCount(Statement s) throws Exception {
+        try (ResultSet rs = s.executeQuery("PRAGMA freelist_count")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Отбирает во временную таблицу старые игры, у которых еще остались сырые данные.
+     */
+    private int selectBatch(Connection c, long cutoffMs, int batchSize) throws Exception {
+        try (Statement s = c.createStatement()) {
+            s.execute("CREATE TEMP TABLE archive_batch (id INTEGER PRIMARY KEY)");
+        }
+        String sql = """
+            INSERT INTO temp.archive_batch
+            SELECT g.id FROM game_results g
+            WHERE g.timestamp < ?
+              AND (EXISTS (SELECT 1 FROM click_streams s WHERE s.result_id = g.id)
+                   OR EXISTS (SELECT 1 FROM clicks k WHERE k.result_id = g.id)
+                   OR EXISTS (SELECT 1 FROM holds h WHERE h.result_id = g.id)
+                   OR EXISTS (SELECT 1 FROM cursor_trajectories t WHERE t.result_id = g.id))
+            ORDER BY g.id
+            LIMIT ?
+            """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, cutoffMs);
+            ps.setInt(2, batchSize);
+            return ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Сводки считаются до удаления сырых строк. Среднее последовательных интервалов равно
+     * (последнее время - первое) / (n - 1), поэтому для кликов хватает количества и крайних времен.
+     *
+     * Одна строка game_summaries на игру: каждый запрос — upsert, обновляющий только свои колонки,
+     * поэтому у игры с кликами и удержаниями сохраняются обе сводки.
+     */
+    private void summarize(Statement s) throws Exception {
+        s.executeUpdate("""
+            INSERT INTO game_summaries(result_id, radius, click_count, first_time_ns, last_time_ns)
+            SELECT result_id, radius, click_count, first_time_ns, last_time_ns
+            FROM click_streams
+            WHERE result_id IN (SELECT id FROM temp.archive_batch)
+            ON CONFLICT(result_id) DO UPDATE SET
+              radius = excluded.radius,
+              click_count = excluded.click_count,
+              first_time_ns = excluded.first_time_ns,
+              last_time_ns = excluded.last_time_ns
+            """);
+        s.executeUpdate("""
+            INSERT INTO game_summaries(result_id, radius, click_count, first_time_ns, last_time_ns)
+            SELECT result_id, MIN(radius), COUNT(*), MIN(time_ns), MAX(time_ns)
+            FROM clicks
+            WHERE result_id IN (SELECT id FROM temp.archive_batch)
+            GROUP BY result_id
+            ON CONFLICT(result_id) DO UPDATE SET
+              radius = excluded.radius,
+              click_count = excluded.click_count,
+              first_time_ns = excluded.first_time_ns,
+              last_time_ns = excluded.last_time_ns
+            """);
+        s.executeUpdate("""
+            INSERT INTO game_summaries(result_id, radius, hold_success_count)
+            SELECT h.result_id, g.radius, SUM(h.success)
+            FROM holds h
+            JOIN game_results g ON g.id = h.result_id
+            WHERE h.result_id IN (SELECT id FROM temp.archive_batch)
+            GROUP BY h.result_id
+            ON CONFLICT(result_id) DO UPDATE SET
+              radius = COALESCE(game_summaries.radius, excluded.radius),
+              hold_success_count = excluded.hold_success_count
+            """);
+    }
+
+    private void attachArchive(Connection c) throws Exception {
+        try (PreparedStatement ps = c.prepareStatement("ATTACH DATABASE ? AS archive")) {
+            ps.setString(1, DatabaseManager.archiveFile());
+            ps.execute();
+        }
+        // Таблицы архива повторяют колонки основных; ограничения и индексы там не нужны
+        try (Statement s = c.createStatement()) {
+            for (String table : GAME_DETAIL_TABLES) {
+                s.execute("CREATE TABLE IF NOT EXISTS archive." + table + " AS SELECT * FROM main." + table + " WHERE 0");
+            }
+            s.execute("CREATE TABLE IF NOT EXISTS archive.target_triplets AS SELECT * FROM main.target_triplets WHERE 0");
+        }
+    }
+
+    private void detachArchive(Connection c) {
+        try (Statement s = c.createStatement()) {
+            s.execute("DETACH DATABASE archive");
+        } catch (Exception e) {
+            AppLogger.warn("DetailArchiveDao: не удалось отключить архивную БД: " + e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.move_arm.database;
 
 import com.example.move_arm.model.GameResult;
 import com.example.move_arm.model.GeneratorType;
+import com.example.move_arm.model.ResultAggregate;
+import com.example.move_arm.model.ResultPage;
 import com.example.move_arm.model.TrajectoryDifficulty;
 
 import java.sql.*;
@@ -12,14 +14,36 @@ import java.util.Optional;
 
 public class GameResultDao {
     private final DatabaseManager db = DatabaseManager.getInstance();
+    private final ResultAggregateDao aggregateDao = new ResultAggregateDao();
 
     public int insert(GameResult r) {
+        try (Connection c = db.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                int id = insert(c, r);
+                c.commit();
+                return id;
+            } catch (Exception e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Вставка на переданном соединении — для записи внутри внешней транзакции (GameSessionWriter).
+     * Заодно обновляет сводку result_aggregates, поэтому вызывать нужно внутри транзакции.
+     */
+    int insert(Connection c, GameResult r) {
         String sql = """
             INSERT INTO game_results(user_id, game_type_id, radius, generator_type, seed, difficulty, score, duration_ms, timestamp, hit_rate, avg_interval_ms, avg_distance_px, avg_speed)
             VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """;
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setInt(1, r.getUserId());
             ps.setInt(2, r.getGameTypeId());
             ps.setInt(3, r.getRadius());
@@ -34,11 +58,13 @@ public class GameResultDao {
             ps.setDouble(12, r.getAvgDistancePx());
             ps.setDouble(13, r.getAvgSpeed());
             ps.executeUpdate();
-            ResultSet keys = ps.getGeneratedKeys();
-            if (keys.next()) {
-                int id = keys.getInt(1);
-                r.setId(id);
-                return id;
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    int id = keys.getInt(1);
+                    r.setId(id);
+                    aggregateDao.record(c, r);
+                    return id;
+                }
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -72,6 +98,100 @@ public class GameResultDao {
         return out;
     }
 
+    /**
+     * Последняя игра пользователя в данном режиме. id растет вместе со временем сохранения,
+     * поэтому "последняя" — это максимальный id, и запрос отвечает по индексу (user_id, game_type_id).
+     */
+    public Optional<GameResult> findLatestByUserAndType(int userId, int gameTypeId) {
+        String sql = "SELECT * FROM game_results WHERE user_id = ? AND game_type_id = ? ORDER BY id DESC LIMIT 1";
+        try (Connection c = db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            ps.setInt(2, gameTypeId);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) return Optional.of(mapRow(rs));
+        } catch (Exception e) { throw new RuntimeException(e); }
+        return Optional.empty();
+    }
+
+    public boolean existsByUserId(int userId) {
+        String sql = "SELECT 1 FROM game_results WHERE user_id = ? LIMIT 1";
+        try (Connection c = db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            return ps.executeQuery().next();
+        } catch (Exception e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Страница истории пользователя в режиме, от новых к старым.
+     *
+     * @param beforeId курсор: getLastId() предыдущей страницы или Integer.MAX_VALUE для первой
+     */
+    public ResultPage<GameResult> findPageByUserAndType(int userId, int gameTypeId, int beforeId, int pageSize) {
+        List<GameResult> out = new ArrayList<>(pageSize);
+        String sql = "SELECT * FROM game_results WHERE user_id = ? AND game_type_id = ? AND id < ? ORDER BY id DESC LIMIT ?";
+        try (Connection c = db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            ps.setInt(2, gameTypeId);
+            ps.setInt(3, beforeId);
+            // Берем на одну строку больше, чтобы без COUNT узнать, есть ли следующая страница
+            ps.setInt(4, pageSize + 1);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) out.add(mapRow(rs));
+        } catch (Exception e) { throw new RuntimeException(e); }
+
+        boolean hasMore = out.size() > pageSize;
+        if (hasMore) out.remove(out.size() - 1);
+        int lastId = out.isEmpty() ? beforeId : out.get(out.size() - 1).getId();
+        return new ResultPage<>(out, lastId, hasMore);
+    }
+
+    /**
+     * Страница очков по настройкам генератора в порядке сохранения (для графика статистики).
+     *
+     * @param afterId курсор: getLastId() предыдущей страницы или 0 для первой
+     */
+    public ResultPage<Integer> findScorePageByGeneratorSettings(
+            int userId,
+            int gameTypeId,
+            int radius,
+            GeneratorType generatorType,
+            int seed,
+            TrajectoryDifficulty difficulty,
+            int afterId,
+            int pageSize) {
+        List<Integer> out = new ArrayList<>(pageSize);
+        int lastId = afterId;
+        boolean hasMore = false;
+        try (Connection c = db.getConnection();
+             PreparedStatement ps = prepareGeneratorSettingsStatement(
+                     c,
+                     "SELECT id, score FROM game_results",
+                     " AND id > ? ORDER BY id ASC LIMIT ?",
+                     userId,
+                     gameTypeId,
+                     radius,
+                     generatorType,
+                     seed,
+                     difficulty
+             )) {
+            ps.setInt(6, afterId);
+            ps.setInt(7, pageSize + 1);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                if (out.size() == pageSize) {
+                    hasMore = true;
+                    break;
+                }
+                out.add(rs.getInt("score"));
+                lastId = rs.getInt("id");
+            }
+        } catch (Exception e) { throw new RuntimeException(e); }
+        return new ResultPage<>(out, lastId, hasMore);
+    }
+
     public List<GameResult> findAll() {
         List<GameResult> out = new ArrayList<>();
         String sql = "SELECT * FROM game_results ORDER BY timestamp DESC";
@@ -84,10 +204,19 @@ public class GameResultDao {
     }
 
     public void deleteByUserId(int userId) {
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement("DELETE FROM game_results WHERE user_id = ?")) {
-            ps.setInt(1, userId);
-            ps.executeUpdate();
+        try (Connection c = db.getConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM game_results WHERE user_id = ?")) {
+                ps.setInt(1, userId);
+                ps.executeUpdate();
+                aggregateDao.deleteByUserId(c, userId);
+                c.commit();
+            } catch (Exception e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
         } catch (Exception e) { throw new RuntimeException(e); }
     }
 
@@ -123,6 +252,7 @@ public class GameResultDao {
              PreparedStatement ps = prepareGeneratorSettingsStatement(
                      c,
                      "SELECT score FROM game_results",
+                     " ORDER BY id",
                      userId,
                      gameTypeId,
                      radius,
@@ -168,6 +298,7 @@ public class GameResultDao {
              PreparedStatement ps = prepareGeneratorSettingsStatement(
                      c,
                      "SELECT avg_interval_ms FROM game_results",
+                     " ORDER BY id",
                      userId,
                      gameTypeId,
                      radius,
@@ -202,12 +333,20 @@ public class GameResultDao {
             GeneratorType generatorType,
             int seed,
             TrajectoryDifficulty difficulty) {
-        int out = 0;
-        List<Integer> scores = findListScoresByGeneratorSettings(userId, gameTypeId, radius, generatorType, seed, difficulty);
-        if (scores != null && !scores.isEmpty()) {
-            out = Collections.max(scores);
-        }
-        return out;
+        return findAggregateByGeneratorSettings(userId, gameTypeId, radius, generatorType, seed, difficulty).getBestScore();
+    }
+
+    /**
+     * Рекорд, средние и количество игр по конфигурации — одна строка из result_aggregates.
+     */
+    public ResultAggregate findAggregateByGeneratorSettings(
+            int userId,
+            int gameTypeId,
+            int radius,
+            GeneratorType generatorType,
+            int seed,
+            TrajectoryDifficulty difficulty) {
+        return aggregateDao.find(userId, gameTypeId, radius, generatorType, seed, difficulty);
     }
 
 
@@ -233,6 +372,7 @@ public class GameResultDao {
     private PreparedStatement prepareGeneratorSettingsStatement(
             Connection c,
             String selectSql,
+            String tailSql,
             int userId,
             int gameTypeId,
             int radius,
@@ -243,7 +383,7 @@ public class GameResultDao {
         String optionFilter = normalizedType == GeneratorType.RANDOM
                 ? " AND seed = ?"
                 : " AND difficulty = ?";
-        String sql = selectSql + " WHERE user_id = ? AND game_type_id = ? AND radius = ? AND generator_type = ?" + optionFilter;
+        String sql = selectSql + " WHERE user_id = ? AND game_type_id = ? AND radius = ? AND generator_type = ?" + optionFilter + tailSql;
         PreparedStatement ps = c.prepareStatement(sql);
         ps.setInt(1, userId);
         ps.setInt(2, gameTypeId);
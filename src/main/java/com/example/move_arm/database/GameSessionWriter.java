@@ -0,0 +1,94 @@
+package com.example.move_arm.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+import com.example.move_arm.model.ClickBuffer;
+import com.example.move_arm.model.CursorTrajectory;
+import com.example.move_arm.model.GameResult;
+import com.example.move_arm.model.HoldAttempt;
+import com.example.move_arm.model.TripletRecord;
+import com.example.move_arm.util.AppLogger;
+
+/**
+ * Единица работы для сохранения одной игры.
+ * Строка game_results и все ее детальные строки (clicks, holds, cursor_trajectories, target_triplets)
+ * пишутся на одном соединении в одной явной транзакции: один fsync на игру
+ * и никаких "осиротевших" результатов без кликов при падении посередине.
+ *
+ * Пример:
+ * <pre>
+ * int id = new GameSessionWriter(result).clicks(clicks).triplets(records).commit();
+ * </pre>
+ */
+public class GameSessionWriter {
+
+    private final DatabaseManager db = DatabaseManager.getInstance();
+    private final GameResultDao gameResultDao = new GameResultDao();
+    private final ClickDao clickDao = new ClickDao();
+    private final HoldAttemptDao holdAttemptDao = new HoldAttemptDao();
+    private final TargetTripletDao tripletDao = new TargetTripletDao();
+    private final TrajectoryDao trajectoryDao = new TrajectoryDao();
+
+    private final GameResult result;
+    private ClickBuffer clicks = new ClickBuffer(0);
+    private List<HoldAttempt> holdAttempts = Collections.emptyList();
+    private List<TripletRecord> triplets = Collections.emptyList();
+    private CursorTrajectory trajectory = new CursorTrajectory(0);
+
+    public GameSessionWriter(GameResult result) {
+        this.result = result;
+    }
+
+    public GameSessionWriter clicks(ClickBuffer clicks) {
+        this.clicks = clicks == null ? new ClickBuffer(0) : clicks;
+        return this;
+    }
+
+    public GameSessionWriter holdAttempts(List<HoldAttempt> attempts) {
+        this.holdAttempts = attempts == null ? Collections.emptyList() : attempts;
+        return this;
+    }
+
+    public GameSessionWriter triplets(List<TripletRecord> triplets) {
+        this.triplets = triplets == null ? Collections.emptyList() : triplets;
+        return this;
+    }
+
+    public GameSessionWriter trajectory(CursorTrajectory trajectory) {
+        this.trajectory = trajectory == null ? new CursorTrajectory(0) : trajectory;
+        return this;
+    }
+
+    /**
+     * Записывает все одной транзакцией.
+     *
+     * @return id созданной строки game_results
+     */
+    public int commit() {
+        try (Connection c = db.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                int resultId = gameResultDao.insert(c, result);
+                if (!clicks.isEmpty()) clickDao.insertClicks(c, resultId, clicks);
+                if (!holdAttempts.isEmpty()) holdAttemptDao.insertHoldAttempts(c, resultId, holdAttempts);
+                if (!triplets.isEmpty()) tripletDao.insertBatch(c, triplets);
+                if (!trajectory.isEmpty()) trajectoryDao.insertTrajectory(c, resultId, trajectory);
+                c.commit();
+                return resultId;
+            } catch (Exception e) {
+                c.rollback();
+                // id из откатившейся вставки недействителен
+                result.setId(0);
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (Exception e) {
+            AppLogger.error("GameSessionWriter: транзакция сохранения игры откатана", e);
+            throw new RuntimeException("Не удалось сохранить игру", e);
+        }
+    }
+}
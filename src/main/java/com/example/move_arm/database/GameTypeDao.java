@@ -30,8 +30,9 @@ public class GameTypeDao {
             ps.setString(1, name);
             ps.setString(2, description);
             ps.executeUpdate();
-            var keys = ps.getGeneratedKeys();
-            if (keys.next()) return keys.getInt(1);
+            try (var keys = ps.getGeneratedKeys()) {
+                if (keys.next()) return keys.getInt(1);
+            }
         } catch (Exception e) { throw new RuntimeException(e); }
         throw new RuntimeException("Не удалось создать game_type");
     }
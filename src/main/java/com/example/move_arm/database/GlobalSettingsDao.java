@@ -3,6 +3,7 @@ package com.example.move_arm.database;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 
 import com.example.move_arm.model.AnimationType;
 import com.example.move_arm.model.settings.GlobalSettings;
@@ -24,6 +25,7 @@ public class GlobalSettingsDao {
             if (rs.next()) {
                 GlobalSettings s = new GlobalSettings();
                 s.setAnimationType(AnimationType.valueOf(rs.getString("animation_type")));
+                s.markClean();
                 return s;
             }
 
@@ -31,10 +33,13 @@ public class GlobalSettingsDao {
             throw new RuntimeException(e);
         }
 
-        return new GlobalSettings(); // дефолт
+        return new GlobalSettings(); // дефолт, "грязный" — SettingsService запишет его
     }
 
-    public void save(long userId, GlobalSettings settings) {
+    /**
+     * Upsert на переданном соединении — для записи внутри общей транзакции (SettingsWriter).
+     */
+    void save(Connection c, long userId, GlobalSettings settings) throws SQLException {
 
         String sql = """
             INSERT INTO global_settings(user_id, animation_type)
@@ -43,31 +48,10 @@ public class GlobalSettingsDao {
                 animation_type = excluded.animation_type
         """;
 
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, userId);
             ps.setString(2, settings.getAnimationType().name());
             ps.executeUpdate();
-
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    public boolean exists(long userId) {
-
-        String sql = "SELECT 1 FROM global_settings WHERE user_id = ?";
-
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            ps.setLong(1, userId);
-            ResultSet rs = ps.executeQuery();
-            return rs.next();
-
-        } catch (Exception e) {
-            throw new RuntimeException(e);
         }
     }
 }
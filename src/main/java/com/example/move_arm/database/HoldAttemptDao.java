@@ -3,6 +3,7 @@ package com.example.move_arm.database;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,43 +29,15 @@ public class HoldAttemptDao {
             return;
         }
 
-        String sql = """
-            INSERT INTO holds (
-                result_id, 
-                attempt_index, 
-                start_time_ns, 
-                end_time_ns, 
-                actual_hold_ms, 
-                success, 
-                target_center_x, 
-                target_center_y
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?)
-            """;
-
         try (Connection conn = dbManager.getConnection()) {
             // Отключаем автоматический коммит, чтобы выполнить всё одной транзакцией
             conn.setAutoCommit(false);
 
-            try (PreparedStatement ps = conn.prepareStatement(sql)) {
-                for (HoldAttempt attempt : attempts) {
-                    ps.setInt(1, resultId);
-                    ps.setInt(2, attempt.getAttemptIndex());
-                    ps.setLong(3, attempt.getStartTimeNs());
-                    ps.setLong(4, attempt.getEndTimeNs());
-                    ps.setLong(5, attempt.getActualHoldMs());
-                    // Преобразуем boolean в 0 или 1 для SQLite
-                    ps.setInt(6, attempt.isSuccess() ? 1 : 0);
-                    ps.setDouble(7, attempt.getTargetCenterX());
-                    ps.setDouble(8, attempt.getTargetCenterY());
-                    
-                    ps.addBatch();
-                }
-
-                // Выполняем всю пачку запросов разом
-                ps.executeBatch();
+            try {
+                insertHoldAttempts(conn, resultId, attempts);
                 // Фиксируем изменения в базе
                 conn.commit();
-                
+
             } catch (Exception e) {
                 // Если что-то пошло не так, откатываем изменения
                 conn.rollback();
@@ -79,6 +52,49 @@ public class HoldAttemptDao {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Пакетная вставка на переданном соединении без управления транзакцией.
+     * Транзакцию открывает и фиксирует вызывающий (insertHoldAttempts или GameSessionWriter).
+     */
+    void insertHoldAttempts(Connection conn, int resultId, List<HoldAttempt> attempts) throws SQLException {
+        if (attempts == null || attempts.isEmpty()) {
+            return;
+        }
+
+        String sql = """
+            INSERT INTO holds (
+                result_id, 
+                attempt_index, 
+                start_time_ns, 
+                end_time_ns, 
+                actual_hold_ms, 
+                success, 
+                target_center_x, 
+                target_center_y
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (HoldAttempt attempt : attempts) {
+                ps.setInt(1, resultId);
+                ps.setInt(2, attempt.getAttemptIndex());
+                ps.setLong(3, attempt.getStartTimeNs());
+                ps.setLong(4, attempt.getEndTimeNs());
+                ps.setLong(5, attempt.getActualHoldMs());
+                // Преобразуем boolean в 0 или 1 для SQLite
+                ps.setInt(6, attempt.isSuccess() ? 1 : 0);
+                ps.setDouble(7, attempt.getTargetCenterX());
+                ps.setDouble(8, attempt.getTargetCenterY());
+                
+                ps.addBatch();
+            }
+
+            // Выполняем всю пачку запросов разом
+            ps.executeBatch();
+        }
+    }
+
     /**
      * Возвращает максимальное количество успешных удержаний для пользователя и радиуса.
      *
@@ -94,12 +110,19 @@ public class HoldAttemptDao {
                 JOIN game_results g ON h.result_id = g.id
                 WHERE g.user_id = ? AND g.radius = ? AND h.success = 1
                 GROUP BY h.result_id
+                UNION ALL
+                SELECT a.hold_success_count
+                FROM game_summaries a
+                JOIN game_results g ON a.result_id = g.id
+                WHERE g.user_id = ? AND g.radius = ? AND a.hold_success_count > 0
             )
             """;
         try (Connection conn = dbManager.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, userId);
             ps.setInt(2, radius);
+            ps.setInt(3, userId);
+            ps.setInt(4, radius);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     return rs.getInt("record");
@@ -3,6 +3,7 @@ package com.example.move_arm.database;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 
 import com.example.move_arm.model.settings.HoldGameSettings;
 
@@ -25,6 +26,7 @@ public class HoldSettingsDao {
 
                 s.setRadius(rs.getInt("radius"));
                 s.setHoldTimeMs(rs.getInt("hold_time_ms"));
+                s.markClean();
 
                 return s;
             }
@@ -33,10 +35,13 @@ public class HoldSettingsDao {
             throw new RuntimeException(e);
         }
 
-        return new HoldGameSettings(); // дефолт
+        return new HoldGameSettings(); // дефолт, "грязный" — SettingsService запишет его
     }
 
-    public void save(long userId, HoldGameSettings settings) {
+    /**
+     * Upsert на переданном соединении — для записи внутри общей транзакции (SettingsWriter).
+     */
+    void save(Connection c, long userId, HoldGameSettings settings) throws SQLException {
 
         String sql = """
             INSERT INTO hold_settings(
@@ -50,33 +55,11 @@ public class HoldSettingsDao {
                 hold_time_ms = excluded.hold_time_ms
         """;
 
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, userId);
             ps.setInt(2, settings.getRadius());
             ps.setInt(3, settings.getHoldTimeMs());
-
             ps.executeUpdate();
-
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    public boolean exists(long userId) {
-
-        String sql = "SELECT 1 FROM hold_settings WHERE user_id = ?";
-
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            ps.setLong(1, userId);
-            ResultSet rs = ps.executeQuery();
-            return rs.next();
-
-        } catch (Exception e) {
-            throw new RuntimeException(e);
         }
     }
 }
@@ -3,6 +3,7 @@ package com.example.move_arm.database;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 
 import com.example.move_arm.model.GeneratorType;
 import com.example.move_arm.model.TrajectoryDifficulty;
@@ -31,6 +32,7 @@ public class HoverSettingsDao {
                 s.setDifficulty(parseDifficulty(rs.getString("difficulty")));
                 s.setMaxCirclesCount(rs.getInt("max_circles_count"));
                 s.setGeneratorType(parseGeneratorType(rs.getString("generator_type")));
+                s.markClean();
 
                 return s;
             }
@@ -39,10 +41,13 @@ public class HoverSettingsDao {
             throw new RuntimeException(e);
         }
 
-        return new HoverGameSettings(); // дефолт
+        return new HoverGameSettings(); // дефолт, "грязный" — SettingsService запишет его
     }
 
-    public void save(long userId, HoverGameSettings settings) {
+    /**
+     * Upsert на переданном соединении — для записи внутри общей транзакции (SettingsWriter).
+     */
+    void save(Connection c, long userId, HoverGameSettings settings) throws SQLException {
 
         String sql = """
             INSERT INTO hover_settings(
@@ -64,9 +69,7 @@ public class HoverSettingsDao {
                 generator_type = excluded.generator_type
         """;
 
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, userId);
             ps.setInt(2, settings.getDurationSeconds());
             ps.setInt(3, settings.getRadius());
@@ -74,27 +77,7 @@ public class HoverSettingsDao {
             ps.setString(5, settings.getDifficulty().name());
             ps.setInt(6, settings.getMaxCirclesCount());
             ps.setString(7, settings.getGeneratorType().name());
-
             ps.executeUpdate();
-
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    public boolean exists(long userId) {
-
-        String sql = "SELECT 1 FROM hover_settings WHERE user_id = ?";
-
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            ps.setLong(1, userId);
-            ResultSet rs = ps.executeQuery();
-            return rs.next();
-
-        } catch (Exception e) {
-            throw new RuntimeException(e);
         }
     }
 
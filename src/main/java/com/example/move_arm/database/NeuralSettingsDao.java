@@ -3,6 +3,7 @@ package com.example.move_arm.database;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 
 import com.example.move_arm.model.AnimationType;
 import com.example.move_arm.model.settings.NeuralGameSettings;
@@ -11,17 +12,6 @@ public class NeuralSettingsDao {
 
     private final DatabaseManager db = DatabaseManager.getInstance();
 
-    public boolean exists(long userId) {
-        String sql = "SELECT 1 FROM neural_settings WHERE user_id = ? LIMIT 1";
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setLong(1, userId);
-            return ps.executeQuery().next();
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
     public NeuralGameSettings load(long userId) {
 
         String sql = "SELECT * FROM neural_settings WHERE user_id = ?";
@@ -38,6 +28,7 @@ public class NeuralSettingsDao {
                 s.setDurationSeconds(rs.getInt("duration_seconds"));
                 s.setRadius(rs.getInt("radius"));
                 s.setMaxCirclesCount(rs.getInt("max_circles_count"));
+                s.markClean();
 
                 return s;
             }
@@ -46,10 +37,13 @@ public class NeuralSettingsDao {
             throw new RuntimeException(e);
         }
 
-        return new NeuralGameSettings(); // дефолт
+        return new NeuralGameSettings(); // дефолт, "грязный" — SettingsService запишет его
     }
 
-    public void save(long userId, NeuralGameSettings settings) {
+    /**
+     * Upsert на переданном соединении — для записи внутри общей транзакции (SettingsWriter).
+     */
+    void save(Connection c, long userId, NeuralGameSettings settings) throws SQLException {
 
         String sql = """
             INSERT INTO neural_settings(
@@ -64,17 +58,12 @@ public class NeuralSettingsDao {
                 max_circles_count=excluded.max_circles_count
             """;
 
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, userId);
             ps.setInt(2, settings.getDurationSeconds());
             ps.setInt(3, settings.getRadius());
             ps.setInt(4, settings.getMaxCirclesCount());
             ps.executeUpdate();
-
-        } catch (Exception e) {
-            throw new RuntimeException(e);
         }
     }
 }
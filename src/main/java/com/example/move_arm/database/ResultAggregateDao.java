@@ -0,0 +1,96 @@
+package com.example.move_arm.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.example.move_arm.model.GameResult;
+import com.example.move_arm.model.GeneratorType;
+import com.example.move_arm.model.ResultAggregate;
+import com.example.move_arm.model.TrajectoryDifficulty;
+
+/**
+ * DAO для result_aggregates — материализованных сводок по конфигурации игры.
+ * Рекорд и средние читаются одной строкой вместо выборки всех игр пользователя.
+ *
+ * option_key: для RANDOM — seed, для остальных генераторов — сложность
+ * (так же, как фильтрует GameResultDao.prepareGeneratorSettingsStatement).
+ */
+public class ResultAggregateDao {
+
+    private final DatabaseManager db = DatabaseManager.getInstance();
+
+    static String optionKey(GeneratorType generatorType, int seed, TrajectoryDifficulty difficulty) {
+        if (generatorType == GeneratorType.RANDOM) {
+            return String.valueOf(seed);
+        }
+        return (difficulty == null ? TrajectoryDifficulty.MEDIUM : difficulty).name();
+    }
+
+    /**
+     * Добавляет игру в сводку. Вызывается на том же соединении и в той же транзакции, что и вставка в game_results.
+     */
+    void record(Connection c, GameResult r) throws SQLException {
+        String sql = """
+            INSERT INTO result_aggregates(user_id, game_type_id, radius, generator_type, option_key,
+                                          games_count, score_sum, score_sq_sum, best_score, interval_sum, last_timestamp)
+            VALUES (?, ?, ?, ?, ?, 1, ?, ?, ?, ?, ?)
+            ON CONFLICT(user_id, game_type_id, radius, generator_type, option_key) DO UPDATE SET
+                games_count    = games_count + 1,
+                score_sum      = score_sum + excluded.score_sum,
+                score_sq_sum   = score_sq_sum + excluded.score_sq_sum,
+                best_score     = MAX(best_score, excluded.best_score),
+                interval_sum   = interval_sum + excluded.interval_sum,
+                last_timestamp = MAX(last_timestamp, excluded.last_timestamp)
+            """;
+        GeneratorType generatorType = r.getGeneratorType() == null ? GeneratorType.ADAPTIVE : r.getGeneratorType();
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, r.getUserId());
+            ps.setInt(2, r.getGameTypeId());
+            ps.setInt(3, r.getRadius());
+            ps.setString(4, generatorType.name());
+            ps.setString(5, optionKey(generatorType, r.getSeed(), r.getDifficulty()));
+            ps.setLong(6, r.getScore());
+            ps.setDouble(7, (double) r.getScore() * r.getScore());
+            ps.setInt(8, r.getScore());
+            ps.setDouble(9, r.getAvgIntervalMs());
+            ps.setLong(10, r.getTimestamp());
+            ps.executeUpdate();
+        }
+    }
+
+    public ResultAggregate find(int userId, int gameTypeId, int radius, GeneratorType generatorType, int seed, TrajectoryDifficulty difficulty) {
+        GeneratorType normalizedType = generatorType == null ? GeneratorType.ADAPTIVE : generatorType;
+        String sql = """
+            SELECT games_count, score_sum, score_sq_sum, best_score, interval_sum, last_timestamp
+            FROM result_aggregates
+            WHERE user_id = ? AND game_type_id = ? AND radius = ? AND generator_type = ? AND option_key = ?
+            """;
+        try (Connection c = db.getConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            ps.setInt(2, gameTypeId);
+            ps.setInt(3, radius);
+            ps.setString(4, normalizedType.name());
+            ps.setString(5, optionKey(normalizedType, seed, difficulty));
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return new ResultAggregate(
+                        rs.getLong("games_count"),
+                        rs.getLong("score_sum"),
+                        rs.getDouble("score_sq_sum"),
+                        rs.getInt("best_score"),
+                        rs.getDouble("interval_sum"),
+                        rs.getLong("last_timestamp"));
+            }
+        } catch (Exception e) { throw new RuntimeException(e); }
+        return ResultAggregate.EMPTY;
+    }
+
+    void deleteByUserId(Connection c, int userId) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("DELETE FROM result_aggregates WHERE user_id = ?")) {
+            ps.setInt(1, userId);
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package com.example.move_arm.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import com.example.move_arm.model.ClickBuffer;
+import com.example.move_arm.util.AppLogger;
+
+/**
+ * Версионные миграции схемы БД.
+ * Текущая версия хранится в app_meta под ключом schema_version; при старте выполняются
+ * только шаги с номером больше сохраненного, каждый в своей транзакции.
+ * Новый шаг добавляется в конец списка MIGRATIONS со следующим номером — старые шаги не меняются.
+ */
+final class SchemaMigrations {
+
+    static final String VERSION_KEY = "schema_version";
+
+    @FunctionalInterface
+    private interface Step {
+        void apply(Connection c) throws Exception;
+    }
+
+    private record Migration(int version, String description, Step step, boolean vacuumAfter) {
+        Migration(int version, String description, Step step) {
+            this(version, description, step, false);
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "базовые таблицы", SchemaMigrations::createBaseline),
+            new Migration(2, "generator_type/difficulty в game_results и hover_settings", SchemaMigrations::addGeneratorColumns),
+            new Migration(3, "индексы под запросы статистики", SchemaMigrations::createIndexes),
+            new Migration(4, "сводная таблица result_aggregates", SchemaMigrations::createResultAggregates),
+            new Migration(5, "индекс последней игры по режиму", SchemaMigrations::createLatestResultIndex),
+            new Migration(6, "упакованные потоки кликов click_streams", SchemaMigrations::convertClicksToStreams, true),
+            new Migration(7, "индекс выгрузки target_triplets по пользователю и времени", SchemaMigrations::createTripletExportIndex),
+            new Migration(8, "сводки game_summaries и incremental auto_vacuum", SchemaMigrations::createGameSummaries, true),
+            new Migration(9, "траектории курсора cursor_trajectories", SchemaMigrations::createCursorTrajectories)
+    );
+
+    private SchemaMigrations() {}
+
+    static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    /**
+     * Доводит схему до последней версии. На актуальной БД это один SELECT.
+     *
+     * @return true, если примененные шаги освободили много места и файл стоит сжать VACUUM
+     */
+    static boolean migrate(Connection c) throws Exception {
+        try (Statement s = c.createStatement()) {
+            s.execute("CREATE TABLE IF NOT EXISTS app_meta (key TEXT PRIMARY KEY, value TEXT)");
+        }
+
+        int current = readVersion(c);
+        if (current >= latestVersion()) return false;
+
+        boolean vacuum = false;
+        for (Migration m : MIGRATIONS) {
+            if (m.version() <= current) continue;
+
+            c.setAutoCommit(false);
+            try {
+                m.step().apply(c);
+                writeVersion(c, m.version());
+                c.commit();
+            } catch (Exception e) {
+                c.rollback();
+                throw new RuntimeException("Миграция схемы v" + m.version() + " (" + m.description() + ") не выполнена", e);
+            } finally {
+                c.setAutoCommit(true);
+            }
+            AppLogger.info("SchemaMigrations: применена миграция v" + m.version() + " — " + m.description());
+            vacuum |= m.vacuumAfter();
+        }
+
+        return vacuum;
+    }
+
+    private static int readVersion(Connection c) throws Exception {
+        try (PreparedStatement ps = c.prepareStatement("SELECT value FROM app_meta WHERE key = ?")) {
+            ps.setString(1, VERSION_KEY);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                try {
+                    return Integer.parseInt(rs.getString(1));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        // БД до появления миграций: все шаги идемпотентны, поэтому просто прогоняем их с нуля
+        return 0;
+    }
+
+    private static void writeVersion(Connection c, int version) throws Exception {
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT INTO app_meta(key, value) VALUES(?, ?) " +
+                        "ON CONFLICT(key) DO UPDATE SET value = excluded.value")) {
+            ps.setString(1, VERSION_KEY);
+            ps.setString(2, String.valueOf(version));
+            ps.executeUpdate();
+        }
+    }
+
+    // --- v1 ---
+    private static void createBaseline(Connection c) throws Exception {
+        try (Statement s = c.createStatement()) {
+
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS users (
+              id INTEGER PRIMARY KEY AUTOINCREMENT,
+              username TEXT NOT NULL UNIQUE
+            );
+            """);
+
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS game_types (
+              id INTEGER PRIMARY KEY AUTOINCREMENT,
+              name TEXT NOT NULL UNIQUE,
+              description TEXT
+            );
+            """);
+
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS game_results (
+              id INTEGER PRIMARY KEY AUTOINCREMENT,
+              user_id INTEGER,
+              game_type_id INTEGER,
+              radius INTEGER,
+              generator_type TEXT NOT NULL DEFAULT 'ADAPTIVE',
+              seed INTEGER,
+              difficulty TEXT NOT NULL DEFAULT 'MEDIUM',
+              score INTEGER,
+              duration_ms INTEGER,
+              timestamp INTEGER,
+              hit_rate REAL,
+              avg_interval_ms REAL,
+              avg_distance_px REAL,
+              avg_speed REAL,
+              FOREIGN KEY(user_id) REFERENCES users(id),
+              FOREIGN KEY(game_type_id) REFERENCES game_types(id)
+            );
+            """);
+
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS clicks (
+              id INTEGER PRIMARY KEY AUTOINCREMENT,
+              result_id INTEGER,
+              click_index INTEGER,
+              time_ns INTEGER,
+              cursor_x REAL,
+              cursor_y REAL,
+              center_x REAL,
+              center_y REAL,
+              radius INTEGER,
+              FOREIGN KEY(result_id) REFERENCES game_results(id)
+            );
+            """);
+
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS app_meta (
+              key TEXT PRIMARY KEY,
+              value TEXT
+            );
+            """);
+
+        s.execute("""
+            INSERT OR IGNORE INTO game_types(name, description)
+            VALUES ('hover', 'Move Arm hover game');
+            """);
+
+        s.execute("""
+            INSERT OR IGNORE INTO game_types(name, description)
+            VALUES ('hold', 'Move Arm hold game');
+            """);
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS holds(
+            id INTEGER PRIMARY KEY AUTOINCREMENT,
+            result_id INTEGER NOT NULL,
+            attempt_index INTEGER NOT NULL,   -- Порядковый номер контакта в игре (1, 2, 3...)
+            start_time_ns INTEGER NOT NULL,
+            end_time_ns INTEGER NOT NULL,
+            actual_hold_ms INTEGER NOT NULL,
+            success INTEGER NOT NULL,         -- 1 (успех), 0 (срыв)
+            target_center_x REAL NOT NULL,    -- Координата X центра круга
+            target_center_y REAL NOT NULL,    -- Координата Y центра круга
+            FOREIGN KEY(result_id) REFERENCES game_results(id)
+            );
+            """);
+        
+        s.execute("""
+                CREATE TABLE IF NOT EXISTS global_settings (
+                user_id INTEGER PRIMARY KEY,
+                animation_type TEXT NOT NULL,
+                FOREIGN KEY(user_id) REFERENCES users(id)
+                );
+                """);
+        s.execute("""
+                CREATE TABLE IF NOT EXISTS hover_settings (
+                user_id INTEGER PRIMARY KEY,
+                duration_seconds INTEGER NOT NULL,
+                radius INTEGER NOT NULL,
+                seed INTEGER NOT NULL,
+                difficulty TEXT NOT NULL DEFAULT 'MEDIUM',
+                max_circles_count INTEGER NOT NULL,
+                FOREIGN KEY(user_id) REFERENCES users(id)
+                );
+                """);
+        s.execute("""
+                CREATE TABLE IF NOT EXISTS hold_settings (
+                user_id INTEGER PRIMARY KEY,
+                radius INTEGER NOT NULL,
+                hold_time_ms INTEGER NOT NULL,
+                FOREIGN KEY(user_id) REFERENCES users(id)
+                );
+                """);
+        s.execute("""
+                CREATE TABLE IF NOT EXISTS neural_settings (
+                user_id INTEGER PRIMARY KEY,
+                duration_seconds INTEGER NOT NULL,
+                radius INTEGER NOT NULL,
+                max_circles_count INTEGER NOT NULL,
+                FOREIGN KEY(user_id) REFERENCES users(id)
+                );
+                """);
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS target_triplets (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id INTEGER,
+                timestamp INTEGER,
+                triplet_index INTEGER NOT NULL,
+                spawn_ns INTEGER NOT NULL,
+                t1_cell INTEGER NOT NULL,
+                t2_cell INTEGER NOT NULL,
+                t3_cell INTEGER NOT NULL,
+                hit_target_index INTEGER NOT NULL,
+                hit_ttk_ns INTEGER NOT NULL,
+                radius INTEGER NOT NULL,
+                centroid_row REAL,
+                centroid_col REAL,
+                t1_angle REAL,
+                t2_angle REAL,
+                t3_angle REAL,
+                hit_to_miss1_dist REAL,
+                hit_to_miss2_dist REAL,
+                miss1_to_miss2_dist REAL,
+                spread REAL,
+                screen_width INTEGER,
+                screen_height INTEGER,
+                previous_hit_cell INTEGER DEFAULT -1
+            );
+            """);
+
+        s.execute("""
+                INSERT OR IGNORE INTO game_types(name, description)
+                VALUES ('neural', 'Neural RL training mode');
+            """);
+        }
+    }
+
+    // --- v2 ---
+    private static void addGeneratorColumns(Connection c) throws Exception {
+        ensureColumn(c, "game_results", "difficulty", "TEXT NOT NULL DEFAULT 'MEDIUM'");
+        ensureColumn(c, "game_results", "generator_type", "TEXT NOT NULL DEFAULT 'ADAPTIVE'");
+        ensureColumn(c, "hover_settings", "difficulty", "TEXT NOT NULL DEFAULT 'MEDIUM'");
+        ensureColumn(c, "hover_settings", "generator_type", "TEXT NOT NULL DEFAULT 'ADAPTIVE'");
+    }
+
+    // --- v3 ---
+    private static void createIndexes(Connection c) throws Exception {
+        try (Statement s = c.createStatement()) {
+            // GameResultDao.find*ByGeneratorSettings: фильтр по конфигурации игры.
+            // score и avg_interval_ms в хвосте — запрос отвечает по индексу, не читая таблицу.
+            s.execute("""
+                CREATE INDEX IF NOT EXISTS idx_game_results_config_difficulty
+                ON game_results(user_id, game_type_id, radius, generator_type, difficulty, score, avg_interval_ms);
+                """);
+            s.execute("""
+                CREATE INDEX IF NOT EXISTS idx_game_results_config_seed
+                ON game_results(user_id, game_type_id, radius, generator_type, seed, score, avg_interval_ms);
+                """);
+            // История пользователя: WHERE user_id = ? ORDER BY timestamp DESC
+            s.execute("""
+                CREATE INDEX IF NOT EXISTS idx_game_results_user_time
+                ON game_results(user_id, timestamp DESC);
+                """);
+            // Клики и удержания одной игры в порядке следования + JOIN по result_id
+            s.execute("""
+                CREATE INDEX IF NOT EXISTS idx_clicks_result
+                ON clicks(result_id, click_index);
+                """);
+            s.execute("""
+                CREATE INDEX IF NOT EXISTS idx_holds_result
+                ON holds(result_id, attempt_index);
+                """);
+            s.execute("""
+                CREATE INDEX IF NOT EXISTS idx_target_triplets_user
+                ON target_triplets(user_id);
+                """);
+        }
+    }
+
+    // --- v4 ---
+    private static void createResultAggregates(Connection c) throws Exception {
+        try (Statement s = c.createStatement()) {
+            s.execute("""
+                CREATE TABLE IF NOT EXISTS result_aggregates (
+                  user_id INTEGER NOT NULL,
+                  game_type_id INTEGER NOT NULL,
+                  radius INTEGER NOT NULL,
+                  generator_type TEXT NOT NULL,
+                  option_key TEXT NOT NULL,          -- seed для RANDOM, сложность для остальных
+                  games_count INTEGER NOT NULL,
+                  score_sum INTEGER NOT NULL,
+                  score_sq_sum REAL NOT NULL,
+                  best_score INTEGER NOT NULL,
+                  interval_sum REAL NOT NULL,
+                  last_timestamp INTEGER NOT NULL,
+                  PRIMARY KEY(user_id, game_type_id, radius, generator_type, option_key)
+                ) WITHOUT ROWID;
+                """);
+            // Заполняем по уже накопленной истории
+            s.execute("DELETE FROM result_aggregates");
+            s.execute("""
+                INSERT INTO result_aggregates(user_id, game_type_id, radius, generator_type, option_key,
+                                              games_count, score_sum, score_sq_sum, best_score, interval_sum, last_timestamp)
+                SELECT user_id, game_type_id, radius, generator_type,
+                       CASE WHEN generator_type = 'RANDOM' THEN CAST(COALESCE(seed, 0) AS TEXT) ELSE difficulty END,
+                       COUNT(*),
+                       COALESCE(SUM(score), 0),
+                       COALESCE(SUM(CAST(score AS REAL) * score), 0),
+                       COALESCE(MAX(score), 0),
+                       COALESCE(SUM(avg_interval_ms), 0),
+                       COALESCE(MAX(timestamp), 0)
+                FROM game_results
+                WHERE user_id IS NOT NULL AND game_type_id IS NOT NULL AND radius IS NOT NULL
+                GROUP BY user_id, game_type_id, radius, generator_type,
+                         CASE WHEN generator_type = 'RANDOM' THEN CAST(COALESCE(seed, 0) AS TEXT) ELSE difficulty END;
+                """);
+        }
+    }
+
+    // --- v5 ---
+    private static void createLatestResultIndex(Connection c) throws Exception {
+        try (Statement s = c.createStatement()) {
+            // findLatestByUserAndType / findPageByUserAndType: равенство по (user_id, game_type_id),
+            // дальше индекс уже упорядочен по rowid = id, так что ORDER BY id LIMIT не сортирует
+            s.execute("""
+                CREATE INDEX IF NOT EXISTS idx_game_results_user_type
+                ON game_results(user_id, game_type_id);
+                """);
+        }
+    }
+
+    // --- v6 ---
+    private static void convertClicksToStreams(Connection c) throws Exception {
+        try (Statement s = c.createStatement()) {
+            s.execute("""
+                CREATE TABLE IF NOT EXISTS click_streams (
+                  result_id INTEGER PRIMARY KEY,
+                  click_count INTEGER NOT NULL,
+                  radius INTEGER NOT NULL,
+                  first_time_ns INTEGER NOT NULL,
+                  last_time_ns INTEGER NOT NULL,
+                  data BLOB NOT NULL,               -- ClickStreamCodec
+                  FOREIGN KEY(result_id) REFERENCES game_results(id)
+                );
+                """);
+            s.execute("""
+                CREATE INDEX IF NOT EXISTS idx_click_streams_radius
+                ON click_streams(radius);
+                """);
+        }
+
+        // Переносим построчные клики: один проход по индексу (result_id, click_index)
+        String sql = "SELECT result_id, time_ns, cursor_x, cursor_y, center_x, center_y, radius FROM clicks ORDER BY result_id, click_index";
+        int converted = 0;
+        try (Statement s = c.createStatement(); ResultSet rs = s.executeQuery(sql)) {
+            int currentResultId = -1;
+            ClickBuffer buffer = new ClickBuffer();
+            while (rs.next()) {
+                int resultId = rs.getInt("result_id");
+                if (resultId != currentResultId && !buffer.isEmpty()) {
+                    ClickDao.insertClickStream(c, currentResultId, buffer);
+                    buffer.clear();
+                    converted++;
+                }
+                currentResultId = resultId;
+                buffer.add(rs.getLong("time_ns"),
+                        rs.getDouble("cursor_x"), rs.getDouble("cursor_y"),
+                        rs.getDouble("center_x"), rs.getDouble("center_y"),
+                        rs.getInt("radius"));
+            }
+            if (!buffer.isEmpty()) {
+                ClickDao.insertClickStream(c, currentResultId, buffer);
+                converted++;
+            }
+        }
+
+        try (Statement s = c.createStatement()) {
+            s.execute("DELETE FROM clicks");
+        }
+        AppLogger.info("SchemaMigrations: упаковано игр с кликами: " + converted);
+    }
+
+    // --- v7 ---
+    private static void createTripletExportIndex(Connection c) throws Exception {
+        try (Statement s = c.createStatement()) {
+            // TargetTripletDao.streamForExport: user_id = ? AND timestamp в диапазоне.
+            // Старый индекс по одному user_id — префикс нового, он больше не нужен
+            s.execute("""
+                CREATE INDEX IF NOT EXISTS idx_target_triplets_user_time
+                ON target_triplets(user_id, timestamp);
+                """);
+            s.execute("DROP INDEX IF EXISTS idx_target_triplets_user");
+        }
+    }
+
+    // --- v8 ---
+    private static void createGameSummaries(Connection c) throws Exception {
+        try (Statement s = c.createStatement()) {
+            // Сводка по кликам/удержаниям игры, сырые данные которой перенесены в архив (DetailArchiveDao)
+            s.execute("""
+                CREATE TABLE IF NOT EXISTS game_summaries (
+                  result_id INTEGER PRIMARY KEY,
+                  radius INTEGER,
+                  click_count INTEGER NOT NULL DEFAULT 0,
+                  first_time_ns INTEGER,
+                  last_time_ns INTEGER,
+                  hold_success_count INTEGER NOT NULL DEFAULT 0,
+                  FOREIGN KEY(result_id) REFERENCES game_results(id)
+                );
+                """);
+        }
+    }
+
+    // --- v9 ---
+    private static void createCursorTrajectories(Connection c) throws Exception {
+        try (Statement s = c.createStatement()) {
+            s.execute("""
+                CREATE TABLE IF NOT EXISTS cursor_trajectories (
+                  result_id INTEGER PRIMARY KEY,
+                  sample_count INTEGER NOT NULL,
+                  dropped_count INTEGER NOT NULL DEFAULT 0,
+                  first_time_ns INTEGER NOT NULL,
+                  last_time_ns INTEGER NOT NULL,
+                  data BLOB NOT NULL,               -- TrajectoryCodec
+                  FOREIGN KEY(result_id) REFERENCES game_results(id)
+                );
+                """);
+        }
+    }
+
+    private static void ensureColumn(Connection c, String tableName, String columnName, String columnDefinition) throws Exception {
+        try (Statement s = c.createStatement();
+             ResultSet rs = s.executeQuery("PRAGMA table_info(" + tableName + ")")) {
+            while (rs.next()) {
+                if (columnName.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+
+        try (Statement s = c.createStatement()) {
+            s.execute("ALTER TABLE " + tableName + " ADD COLUMN " + columnName + " " + columnDefinition);
+        }
+    }
+}
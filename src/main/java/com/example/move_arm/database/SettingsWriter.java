@@ -0,0 +1,77 @@
+package com.example.move_arm.database;
+
+import java.sql.Connection;
+
+import com.example.move_arm.model.settings.GlobalSettings;
+import com.example.move_arm.model.settings.HoldGameSettings;
+import com.example.move_arm.model.settings.HoverGameSettings;
+import com.example.move_arm.model.settings.NeuralGameSettings;
+
+/**
+ * Запись настроек пользователя одной транзакцией.
+ * Пишутся только переданные объекты — каждый одним upsert (INSERT ... ON CONFLICT) в свою таблицу.
+ *
+ * <pre>
+ * new SettingsWriter(userId).hover(hover).global(global).commit();
+ * </pre>
+ */
+public class SettingsWriter {
+
+    private final DatabaseManager db = DatabaseManager.getInstance();
+    private final GlobalSettingsDao globalDao = new GlobalSettingsDao();
+    private final HoverSettingsDao hoverDao = new HoverSettingsDao();
+    private final HoldSettingsDao holdDao = new HoldSettingsDao();
+    private final NeuralSettingsDao neuralDao = new NeuralSettingsDao();
+
+    private final long userId;
+    private GlobalSettings global;
+    private HoverGameSettings hover;
+    private HoldGameSettings hold;
+    private NeuralGameSettings neural;
+
+    public SettingsWriter(long userId) {
+        this.userId = userId;
+    }
+
+    public SettingsWriter global(GlobalSettings settings) {
+        this.global = settings;
+        return this;
+    }
+
+    public SettingsWriter hover(HoverGameSettings settings) {
+        this.hover = settings;
+        return this;
+    }
+
+    public SettingsWriter hold(HoldGameSettings settings) {
+        this.hold = settings;
+        return this;
+    }
+
+    public SettingsWriter neural(NeuralGameSettings settings) {
+        this.neural = settings;
+        return this;
+    }
+
+    public void commit() {
+        if (global == null && hover == null && hold == null && neural == null) return;
+
+        try (Connection c = db.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                if (global != null) globalDao.save(c, userId, global);
+                if (hover != null) hoverDao.save(c, userId, hover);
+                if (hold != null) holdDao.save(c, userId, hold);
+                if (neural != null) neuralDao.save(c, userId, neural);
+                c.commit();
+            } catch (Exception e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Не удалось сохранить настройки", e);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.move_arm.database;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.move_arm.model.TripletRecord;
+import com.example.move_arm.util.AppLogger;
+
+/**
+ * DAO для таблицы target_triplets (обучающие данные нейро-режима).
+ */
+public class TargetTripletDao {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO target_triplets (
+            user_id, timestamp, triplet_index, spawn_ns,
+            t1_cell, t2_cell, t3_cell, hit_target_index, hit_ttk_ns, radius,
+            centroid_row, centroid_col, t1_angle, t2_angle, t3_angle,
+            hit_to_miss1_dist, hit_to_miss2_dist, miss1_to_miss2_dist, spread,
+            screen_width, screen_height, previous_hit_cell
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    /** Сколько строк драйвер держит в памяти за один шаг курсора при выгрузке. */
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final DatabaseManager db = DatabaseManager.getInstance();
+
+    /**
+     * Обработчик одной строки выгрузки. ResultSet уже стоит на строке; хранить его нельзя.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void onRow(ResultSet rs) throws Exception;
+    }
+
+    /**
+     * Потоково проходит по target_triplets в порядке id, не собирая строки в список.
+     * Курсор только вперед, память не зависит от размера таблицы.
+     * Старые тройки RetentionService переносит в movearm_archive.db: если архив есть,
+     * он подключается и его строки идут в выгрузку вместе с основными (UNION ALL).
+     *
+     * @param userId  фильтр по пользователю или null — все
+     * @param fromTs  нижняя граница timestamp (включительно, секунды) или null
+     * @param toTs    верхняя граница timestamp (не включительно, секунды) или null
+     * @param onStart вызывается один раз до первой строки — по метаданным можно построить заголовок
+     * @return количество строк
+     */
+    public long streamForExport(Integer userId, Long fromTs, Long toTs,
+                                RowHandler onStart, RowHandler onRow) {
+        StringBuilder filter = new StringBuilder(" WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (userId != null) {
+            filter.append(" AND user_id = ?");
+            params.add(userId);
+        }
+        if (fromTs != null) {
+            filter.append(" AND timestamp >= ?");
+            params.add(fromTs);
+        }
+        if (toTs != null) {
+            filter.append(" AND timestamp < ?");
+            params.add(toTs);
+        }
+        filter.append(" ORDER BY id");
+
+        try (Connection c = db.getConnection()) {
+            boolean archived = attachArchiveIfPresent(c);
+            try {
+                // id уникальны в обеих таблицах вместе: тройка либо еще в основной БД, либо уже в архиве
+                String source = archived
+                        ? "(SELECT * FROM main.target_triplets UNION ALL SELECT * FROM archive.target_triplets)"
+                        : "main.target_triplets";
+                try (PreparedStatement ps = c.prepareStatement("SELECT * FROM " + source + filter,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    ps.setFetchSize(EXPORT_FETCH_SIZE);
+                    for (int i = 0; i < params.size(); i++) {
+                        ps.setObject(i + 1, params.get(i));
+                    }
+                    long rows = 0;
+                    try (ResultSet rs = ps.executeQuery()) {
+                        onStart.onRow(rs);
+                        while (rs.next()) {
+                            onRow.onRow(rs);
+                            rows++;
+                        }
+                    }
+                    return rows;
+                }
+            } finally {
+                if (archived) detachArchive(c);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Подключает movearm_archive.db как archive, если файл есть и в нем уже есть target_triplets.
+     */
+    private boolean attachArchiveIfPresent(Connection c) throws SQLException {
+        if (!Files.exists(Path.of(DatabaseManager.archiveFile()))) return false;
+        try (PreparedStatement ps = c.prepareStatement("ATTACH DATABASE ? AS archive")) {
+            ps.setString(1, DatabaseManager.archiveFile());
+            ps.execute();
+        }
+        try (Statement s = c.createStatement();
+             ResultSet rs = s.executeQuery(
+                     "SELECT 1 FROM archive.sqlite_master WHERE type = 'table' AND name = 'target_triplets'")) {
+            if (rs.next()) return true;
+        }
+        detachArchive(c);
+        return false;
+    }
+
+    private void detachArchive(Connection c) {
+        try (Statement s = c.createStatement()) {
+            s.execute("DETACH DATABASE archive");
+        } catch (Exception e) {
+            AppLogger.warn("TargetTripletDao: не удалось отключить архивную БД: " + e.getMessage());
+        }
+    }
+
+    public void insertBatch(List<TripletRecord> records) {
+        try (Connection c = db.getConnection()) {
+            insertBatch(c, records);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Пакетная вставка на переданном соединении — для записи внутри внешней транзакции (GameSessionWriter).
+     */
+    void insertBatch(Connection c, List<TripletRecord> records) throws SQLException {
+        if (records == null || records.isEmpty()) return;
+
+        try (PreparedStatement ps = c.prepareStatement(INSERT_SQL)) {
+            for (TripletRecord rec : records) {
+                ps.setInt(1, rec.userId);
+                ps.setLong(2, rec.timestamp);
+                ps.setInt(3, rec.tripletIndex);
+                ps.setLong(4, rec.spawnNs);
+                ps.setInt(5, rec.t1Cell);
+                ps.setInt(6, rec.t2Cell);
+                ps.setInt(7, rec.t3Cell);
+                ps.setInt(8, rec.hitTargetIndex);
+                ps.setLong(9, rec.hitTtkNs);
+                ps.setInt(10, rec.radius);
+                ps.setDouble(11, rec.centroidRow);
+                ps.setDouble(12, rec.centroidCol);
+                ps.setDouble(13, rec.t1Angle);
+                ps.setDouble(14, rec.t2Angle);
+                ps.setDouble(15, rec.t3Angle);
+                ps.setDouble(16, rec.hitToMiss1Dist);
+                ps.setDouble(17, rec.hitToMiss2Dist);
+                ps.setDouble(18, rec.miss1ToMiss2Dist);
+                ps.setDouble(19, rec.spread);
+                ps.setInt(20, rec.screenWidth);
+                ps.setInt(21, rec.screenHeight);
+                ps.setInt(22, rec.previousHitCell);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
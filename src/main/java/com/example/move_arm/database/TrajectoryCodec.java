@@ -0,0 +1,150 @@
+package com.example.move_arm.database;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.example.move_arm.model.CursorTrajectory;
+
+/**
+ * Бинарный формат траектории курсора одной игры для cursor_trajectories.data.
+ *
+ * Формат (версия 1):
+ * <pre>
+ * byte    версия формата
+ * varint  количество точек
+ * deflate-поток из zigzag-varint разностей с предыдущей точкой (у первой — с нулем):
+ *   time_us, x, y
+ * </pre>
+ * Время хранится в микросекундах, координаты — в сотых долях пикселя (как в ClickStreamCodec).
+ * Соседние события мыши отстоят примерно на 1 мс и несколько пикселей, поэтому разности
+ * укладываются в 1–2 байта, а повторяющийся шаг опроса мыши дополнительно сжимает deflate.
+ */
+public final class TrajectoryCodec {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final double COORD_SCALE = 100.0;
+    private static final long NS_PER_US = 1_000L;
+
+    private TrajectoryCodec() {}
+
+    public static byte[] encode(CursorTrajectory trajectory) {
+        int count = trajectory.size();
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(16 + count * 5);
+
+        long prevTime = 0, prevX = 0, prevY = 0;
+        for (int i = 0; i < count; i++) {
+            long time = Math.floorDiv(trajectory.timeNs(i), NS_PER_US);
+            long x = Math.round(trajectory.x(i) * COORD_SCALE);
+            long y = Math.round(trajectory.y(i) * COORD_SCALE);
+            writeSigned(raw, time - prevTime);
+            writeSigned(raw, x - prevX);
+            writeSigned(raw, y - prevY);
+            prevTime = time;
+            prevX = x;
+            prevY = y;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + raw.size() / 2);
+        out.write(FORMAT_VERSION);
+        writeVarint(out, count);
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw.toByteArray());
+            deflater.finish();
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                out.write(chunk, 0, n);
+            }
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    public static CursorTrajectory decode(byte[] data) {
+        Reader header = new Reader(data);
+        int version = data[header.pos++];
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("TrajectoryCodec: неизвестная версия формата " + version);
+        }
+        int count = (int) header.readVarint();
+
+        Reader in = new Reader(inflate(data, header.pos));
+        CursorTrajectory out = new CursorTrajectory(count);
+
+        long time = 0, x = 0, y = 0;
+        for (int i = 0; i < count; i++) {
+            time += in.readSigned();
+            x += in.readSigned();
+            y += in.readSigned();
+            out.record(time * NS_PER_US, x / COORD_SCALE, y / COORD_SCALE);
+        }
+        return out;
+    }
+
+    private static byte[] inflate(byte[] data, int offset) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, data.length - offset);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, (data.length - offset) * 3));
+            byte[] chunk = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(chunk);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("TrajectoryCodec: поток траектории обрезан");
+                }
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("TrajectoryCodec: поврежденный поток траектории", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeSigned(ByteArrayOutputStream out, long value) {
+        writeVarint(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int pos;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        long readVarint() {
+            long result = 0;
+            int shift = 0;
+            while (true) {
+                if (pos >= data.length) {
+                    throw new IllegalArgumentException("TrajectoryCodec: поток траектории обрезан");
+                }
+                byte b = data[pos++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+                shift += 7;
+            }
+        }
+
+        long readSigned() {
+            long raw = readVarint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.move_arm.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import com.example.move_arm.model.CursorTrajectory;
+
+/**
+ * Траектории курсора игр: одна строка cursor_trajectories на игру с упакованным потоком
+ * (см. TrajectoryCodec). Сводные колонки позволяют отбирать игры без распаковки data.
+ */
+public class TrajectoryDao {
+
+    private final DatabaseManager db = DatabaseManager.getInstance();
+
+    /**
+     * Вставка на переданном соединении — для записи внутри внешней транзакции (GameSessionWriter).
+     */
+    void insertTrajectory(Connection c, int resultId, CursorTrajectory trajectory) {
+        if (trajectory.isEmpty()) return;
+        String sql = """
+            INSERT OR REPLACE INTO cursor_trajectories(result_id, sample_count, dropped_count, first_time_ns, last_time_ns, data)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, resultId);
+            ps.setInt(2, trajectory.size());
+            ps.setLong(3, trajectory.getDroppedCount());
+            ps.setLong(4, trajectory.timeNs(0));
+            ps.setLong(5, trajectory.timeNs(trajectory.size() - 1));
+            ps.setBytes(6, TrajectoryCodec.encode(trajectory));
+            ps.executeUpdate();
+        } catch (Exception e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Траектория игры или пустая, если она не записывалась (старые игры, архив).
+     */
+    public CursorTrajectory readTrajectoryForResult(int resultId) {
+        String sql = "SELECT data FROM cursor_trajectories WHERE result_id = ?";
+        try (Connection c = db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, resultId);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return TrajectoryCodec.decode(rs.getBytes("data"));
+            }
+        } catch (Exception e) { throw new RuntimeException(e); }
+        return new CursorTrajectory(0);
+    }
+}
@@ -40,9 +40,10 @@ public class UserDao {
              PreparedStatement ps = c.prepareStatement("INSERT INTO users(username) VALUES(?)", Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, username);
             ps.executeUpdate();
-            ResultSet keys = ps.getGeneratedKeys();
-            if (keys.next()) {
-                return new User(keys.getInt(1), username);
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return new User(keys.getInt(1), username);
+                }
             }
         } catch (Exception e) { throw new RuntimeException(e); }
         throw new RuntimeException("Не удалось создать пользователя");
@@ -0,0 +1,128 @@
+package com.example.move_arm.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Клики одной игры в виде параллельных примитивных массивов.
+ *
+ * В отличие от List&lt;ClickData&gt; (объект-обертка и два Point2D на клик) добавление клика
+ * ничего не выделяет, пока хватает емкости, а один клик занимает 26 байт.
+ * Координаты хранятся во float: для экранных пикселей точности хватает с запасом
+ * (в БД они все равно округляются до 0.01 px, см. ClickStreamCodec).
+ */
+public final class ClickBuffer {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private long[] timeNs;
+    private float[] cursorX;
+    private float[] cursorY;
+    private float[] centerX;
+    private float[] centerY;
+    private short[] radius;
+    private int size;
+
+    public ClickBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ClickBuffer(int capacity) {
+        allocate(Math.max(capacity, 0));
+    }
+
+    public void add(long clickTimeNs, double cursorX, double cursorY,
+                    double centerX, double centerY, int radius) {
+        if (size == timeNs.length) {
+            grow();
+        }
+        this.timeNs[size] = clickTimeNs;
+        this.cursorX[size] = (float) cursorX;
+        this.cursorY[size] = (float) cursorY;
+        this.centerX[size] = (float) centerX;
+        this.centerY[size] = (float) centerY;
+        this.radius[size] = (short) radius;
+        size++;
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Очищает буфер без освобождения массивов — следующая игра пишет в ту же память.
+     */
+    public void clear() { size = 0; }
+
+    public long timeNs(int i) { return timeNs[checkIndex(i)]; }
+    public double cursorX(int i) { return cursorX[checkIndex(i)]; }
+    public double cursorY(int i) { return cursorY[checkIndex(i)]; }
+    public double centerX(int i) { return centerX[checkIndex(i)]; }
+    public double centerY(int i) { return centerY[checkIndex(i)]; }
+    public int radius(int i) { return radius[checkIndex(i)]; }
+
+    /**
+     * Копия ровно по размеру — для передачи итогов игры в фоновую запись,
+     * пока исходный буфер переиспользуется следующей игрой.
+     */
+    public ClickBuffer copy() {
+        ClickBuffer out = new ClickBuffer(size);
+        System.arraycopy(timeNs, 0, out.timeNs, 0, size);
+        System.arraycopy(cursorX, 0, out.cursorX, 0, size);
+        System.arraycopy(cursorY, 0, out.cursorY, 0, size);
+        System.arraycopy(centerX, 0, out.centerX, 0, size);
+        System.arraycopy(centerY, 0, out.centerY, 0, size);
+        System.arraycopy(radius, 0, out.radius, 0, size);
+        out.size = size;
+        return out;
+    }
+
+    /**
+     * Представление только для чтения. ClickData создается на каждый get(),
+     * поэтому для экранов результатов и Statistics, а не для игрового цикла.
+     */
+    public List<ClickData> asList() {
+        return new View();
+    }
+
+    private void allocate(int capacity) {
+        timeNs = new long[capacity];
+        cursorX = new float[capacity];
+        cursorY = new float[capacity];
+        centerX = new float[capacity];
+        centerY = new float[capacity];
+        radius = new short[capacity];
+    }
+
+    private void grow() {
+        int capacity = Math.max(DEFAULT_CAPACITY, timeNs.length + (timeNs.length >> 1));
+        timeNs = Arrays.copyOf(timeNs, capacity);
+        cursorX = Arrays.copyOf(cursorX, capacity);
+        cursorY = Arrays.copyOf(cursorY, capacity);
+        centerX = Arrays.copyOf(centerX, capacity);
+        centerY = Arrays.copyOf(centerY, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+    }
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("ClickBuffer: индекс " + i + ", размер " + size);
+        }
+        return i;
+    }
+
+    private final class View extends AbstractList<ClickData> implements RandomAccess {
+        @Override
+        public ClickData get(int i) {
+            checkIndex(i);
+            return new ClickData(timeNs[i], cursorX[i], cursorY[i], centerX[i], centerY[i], radius[i]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.move_arm.model;
+
+/**
+ * Траектория курсора за игру: время и координаты каждого события движения мыши.
+ *
+ * Кольцевой буфер из параллельных примитивных массивов, выделенных один раз: запись точки
+ * ничего не выделяет, поэтому ее можно делать прямо из обработчика мыши на FX-потоке даже
+ * при опросе 1000 Гц. Если игра длиннее емкости, затираются самые старые точки
+ * (их число — getDroppedCount()).
+ *
+ * Время — в той же шкале, что и клики/попытки этой игры (нс). Индексы 0..size()-1 идут
+ * в хронологическом порядке независимо от положения головы кольца.
+ */
+public final class CursorTrajectory {
+
+    private long[] timeNs;
+    private float[] x;
+    private float[] y;
+    private int head;     // индекс самой старой точки
+    private int size;
+    private long dropped;
+
+    public CursorTrajectory(int capacity) {
+        int n = Math.max(capacity, 1);
+        timeNs = new long[n];
+        x = new float[n];
+        y = new float[n];
+    }
+
+    /**
+     * Добавляет точку; при заполненном буфере затирает самую старую.
+     */
+    public void record(long sampleTimeNs, double sampleX, double sampleY) {
+        int capacity = timeNs.length;
+        int pos = head + size;
+        if (pos >= capacity) pos -= capacity;
+        timeNs[pos] = sampleTimeNs;
+        x[pos] = (float) sampleX;
+        y[pos] = (float) sampleY;
+        if (size < capacity) {
+            size++;
+        } else {
+            head = head + 1 == capacity ? 0 : head + 1;
+            dropped++;
+        }
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public int capacity() { return timeNs.length; }
+
+    /**
+     * Сколько ранних точек затерто из-за нехватки емкости.
+     */
+    public long getDroppedCount() { return dropped; }
+
+    /**
+     * Очищает буфер без освобождения массивов.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+        dropped = 0;
+    }
+
+    public long timeNs(int i) { return timeNs[physical(i)]; }
+    public double x(int i) { return x[physical(i)]; }
+    public double y(int i) { return y[physical(i)]; }
+
+    /**
+     * Первый индекс с временем не раньше sampleTimeNs (size(), если таких нет).
+     * Удобно, чтобы вырезать путь руки между двумя кликами.
+     */
+    public int indexAtOrAfter(long sampleTimeNs) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timeNs(mid) < sampleTimeNs) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Длина пути курсора (px) по точкам [from, to).
+     */
+    public double pathLength(int from, int to) {
+        double length = 0.0;
+        for (int i = Math.max(from, 0) + 1; i < Math.min(to, size); i++) {
+            double dx = x(i) - x(i - 1);
+            double dy = y(i) - y(i - 1);
+            length += Math.sqrt(dx * dx + dy * dy);
+        }
+        return length;
+    }
+
+    /**
+     * Копия ровно по размеру в хронологическом порядке — для фоновой записи,
+     * пока исходный буфер переиспользуется следующей игрой.
+     */
+    public CursorTrajectory copy() {
+        CursorTrajectory out = new CursorTrajectory(size);
+        int firstPart = Math.min(size, timeNs.length - head);
+        System.arraycopy(timeNs, head, out.timeNs, 0, firstPart);
+        System.arraycopy(x, head, out.x, 0, firstPart);
+        System.arraycopy(y, head, out.y, 0, firstPart);
+        int rest = size - firstPart;
+        System.arraycopy(timeNs, 0, out.timeNs, firstPart, rest);
+        System.arraycopy(x, 0, out.x, firstPart, rest);
+        System.arraycopy(y, 0, out.y, firstPart, rest);
+        out.size = size;
+        out.dropped = dropped;
+        return out;
+    }
+
+    private int physical(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("CursorTrajectory: индекс " + i + ", размер " + size);
+        }
+        int pos = head + i;
+        return pos >= timeNs.length ? pos - timeNs.length : pos;
+    }
+}
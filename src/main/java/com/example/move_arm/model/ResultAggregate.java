@@ -0,0 +1,47 @@
+package com.example.move_arm.model;
+
+/**
+ * Сводка по всем играм одной конфигурации (пользователь, тип игры, радиус, генератор, seed/сложность).
+ * Строка таблицы result_aggregates, обновляется при каждой сохраненной игре.
+ */
+public class ResultAggregate {
+
+    public static final ResultAggregate EMPTY = new ResultAggregate(0, 0, 0, 0, 0, 0);
+
+    private final long gamesCount;
+    private final long scoreSum;
+    private final double scoreSqSum;
+    private final int bestScore;
+    private final double intervalSum;
+    private final long lastTimestamp;
+
+    public ResultAggregate(long gamesCount, long scoreSum, double scoreSqSum, int bestScore, double intervalSum, long lastTimestamp) {
+        this.gamesCount = gamesCount;
+        this.scoreSum = scoreSum;
+        this.scoreSqSum = scoreSqSum;
+        this.bestScore = bestScore;
+        this.intervalSum = intervalSum;
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    public long getGamesCount() { return gamesCount; }
+    public int getBestScore() { return bestScore; }
+    public long getLastTimestamp() { return lastTimestamp; }
+
+    public double getAvgScore() {
+        return gamesCount == 0 ? 0.0 : (double) scoreSum / gamesCount;
+    }
+
+    /**
+     * Стандартное отклонение очков (по генеральной совокупности).
+     */
+    public double getScoreStdDev() {
+        if (gamesCount == 0) return 0.0;
+        double mean = getAvgScore();
+        return Math.sqrt(Math.max(0.0, scoreSqSum / gamesCount - mean * mean));
+    }
+
+    public double getAvgIntervalMs() {
+        return gamesCount == 0 ? 0.0 : intervalSum / gamesCount;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.move_arm.model;
+
+import java.util.List;
+
+/**
+ * Одна страница keyset-пагинации по game_results.
+ * Следующая страница запрашивается по id последней строки, а не через OFFSET,
+ * поэтому цена запроса не растет с глубиной истории.
+ */
+public class ResultPage<T> {
+
+    private final List<T> items;
+    private final int lastId;
+    private final boolean hasMore;
+
+    public ResultPage(List<T> items, int lastId, boolean hasMore) {
+        this.items = items;
+        this.lastId = lastId;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getItems() { return items; }
+
+    /**
+     * id последней строки страницы — курсор для запроса следующей.
+     */
+    public int getLastId() { return lastId; }
+
+    public boolean hasMore() { return hasMore; }
+}
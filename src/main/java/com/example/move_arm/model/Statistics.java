@@ -20,10 +20,7 @@ public class Statistics {
     }
 
     public static double getAverageClickIntervalMs(List<ClickData> clicks) {
-        return getClickIntervalsMs(clicks).stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+        return StatisticsAccumulator.of(clicks).getIntervalsMs().getMean();
     }
 
     // === 2. Расстояние между курсорами (px) ===
@@ -38,10 +35,7 @@ public class Statistics {
     }
 
     public static double getAverageCursorDistance(List<ClickData> clicks) {
-        return getCursorDistances(clicks).stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+        return StatisticsAccumulator.of(clicks).getCursorDistances().getMean();
     }
 
     // === 3. Нормализованная скорость: расстояние / время (px/мс) ===
@@ -62,17 +56,11 @@ public class Statistics {
     }
 
     public static double getAverageSpeedPxPerMs(List<ClickData> clicks) {
-        return getMovementSpeeds(clicks).stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+        return StatisticsAccumulator.of(clicks).getSpeeds().getMean();
     }
 
     public static double getMaxSpeedPxPerMs(List<ClickData> clicks) {
-        return getMovementSpeeds(clicks).stream()
-                .mapToDouble(Double::doubleValue)
-                .max()
-                .orElse(0.0);
+        return StatisticsAccumulator.of(clicks).getSpeeds().getMax();
     }
 
     // === 4. Отклонение / радиус (0 = центр, 1 = граница, >1 = промах) ===
@@ -87,27 +75,23 @@ public class Statistics {
     }
 
     public static double getAverageNormalizedDeviation(List<ClickData> clicks) {
-        return getNormalizedDeviations(clicks).stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+        return StatisticsAccumulator.of(clicks).getNormalizedDeviations().getMean();
     }
 
     public static double getHitRatePercent(List<ClickData> clicks) {
-        long hits = clicks.stream()
-                .filter(c -> c.getCursor().distance(c.getCenter()) <= c.getRadius())
-                .count();
-        return clicks.isEmpty() ? 0.0 : (hits * 100.0) / clicks.size();
+        return StatisticsAccumulator.of(clicks).getHitRatePercent();
     }
 
     // === Общая статистика одной игрой ===
     public static String getSummary(List<ClickData> clicks) {
         if (clicks.isEmpty()) return "Нет данных";
 
-        double avgInterval = getAverageClickIntervalMs(clicks);
-        double avgDistance = getAverageCursorDistance(clicks);
-        double avgSpeed = getAverageSpeedPxPerMs(clicks);
-        double avgNormDev = getAverageNormalizedDeviation(clicks);
+        // Один проход вместо отдельного пересчета каждой метрики
+        StatisticsAccumulator acc = StatisticsAccumulator.of(clicks);
+        double avgInterval = acc.getIntervalsMs().getMean();
+        double avgDistance = acc.getCursorDistances().getMean();
+        double avgSpeed = acc.getSpeeds().getMean();
+        double avgNormDev = acc.getNormalizedDeviations().getMean();
 
         return String.format(
             "Кликов: %d | " +
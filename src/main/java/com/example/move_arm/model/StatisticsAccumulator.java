@@ -0,0 +1,161 @@
+package com.example.move_arm.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Статистика кликов за один проход: клики добавляются по одному (можно прямо во время игры),
+ * все метрики обновляются сразу, без списков и упаковки в Double.
+ *
+ * Метрики те же, что в Statistics:
+ * <ul>
+ *   <li>интервалы между соседними кликами (мс);</li>
+ *   <li>расстояние курсора между соседними кликами (px);</li>
+ *   <li>скорость — расстояние / интервал (px/мс), 0 при нулевом интервале;</li>
+ *   <li>нормализованное отклонение курсора от центра цели (0 = центр, 1 = граница).</li>
+ * </ul>
+ */
+public final class StatisticsAccumulator {
+
+    private final Metric intervalsMs = new Metric();
+    private final Metric cursorDistances = new Metric();
+    private final Metric speeds = new Metric();
+    private final Metric normalizedDeviations = new Metric();
+
+    private int count;
+    private int hits;
+    private long firstTimeNs;
+    private long prevTimeNs;
+    private double prevCursorX;
+    private double prevCursorY;
+
+    public static StatisticsAccumulator of(ClickBuffer clicks) {
+        StatisticsAccumulator acc = new StatisticsAccumulator();
+        for (int i = 0; i < clicks.size(); i++) {
+            acc.add(clicks.timeNs(i), clicks.cursorX(i), clicks.cursorY(i),
+                    clicks.centerX(i), clicks.centerY(i), clicks.radius(i));
+        }
+        return acc;
+    }
+
+    public static StatisticsAccumulator of(List<ClickData> clicks) {
+        StatisticsAccumulator acc = new StatisticsAccumulator();
+        for (ClickData c : clicks) {
+            acc.add(c.getClickTimeNs(), c.getCursor().getX(), c.getCursor().getY(),
+                    c.getCenter().getX(), c.getCenter().getY(), c.getRadius());
+        }
+        return acc;
+    }
+
+    public void add(long clickTimeNs, double cursorX, double cursorY,
+                    double centerX, double centerY, int radius) {
+        double deviation = distance(cursorX, cursorY, centerX, centerY);
+        normalizedDeviations.add(radius > 0 ? deviation / radius : 0.0);
+        if (deviation <= radius) hits++;
+
+        if (count == 0) {
+            firstTimeNs = clickTimeNs;
+        } else {
+            double intervalMs = (clickTimeNs - prevTimeNs) / 1_000_000.0;
+            double distance = distance(cursorX, cursorY, prevCursorX, prevCursorY);
+            intervalsMs.add(intervalMs);
+            cursorDistances.add(distance);
+            speeds.add(intervalMs > 0 ? distance / intervalMs : 0.0);
+        }
+
+        count++;
+        prevTimeNs = clickTimeNs;
+        prevCursorX = cursorX;
+        prevCursorY = cursorY;
+    }
+
+    public int getClickCount() { return count; }
+
+    public double getHitRatePercent() {
+        return count == 0 ? 0.0 : (hits * 100.0) / count;
+    }
+
+    /**
+     * Время от первого клика до последнего.
+     */
+    public long getDurationMs() {
+        return count < 2 ? 0 : (prevTimeNs - firstTimeNs) / 1_000_000L;
+    }
+
+    public Metric getIntervalsMs() { return intervalsMs; }
+    public Metric getCursorDistances() { return cursorDistances; }
+    public Metric getSpeeds() { return speeds; }
+    public Metric getNormalizedDeviations() { return normalizedDeviations; }
+
+    // Как Point2D.distance — чтобы попадания на самой границе считались так же, как раньше
+    private static double distance(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Одна метрика: среднее и дисперсия по Уэлфорду, min/max, а значения копятся
+     * в примитивном массиве для перцентилей.
+     * У пустой метрики все значения 0, как у Statistics.
+     */
+    public static final class Metric {
+        private double[] values = new double[16];
+        private double[] sorted;
+        private int count;
+        private double mean;
+        private double m2;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        void add(double value) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = value;
+            sorted = null;
+
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+            if (value < min) min = value;
+            if (value > max) max = value;
+        }
+
+        public int getCount() { return count; }
+
+        public double getMean() { return mean; }
+
+        /**
+         * Выборочная дисперсия (деление на n - 1).
+         */
+        public double getVariance() {
+            return count < 2 ? 0.0 : m2 / (count - 1);
+        }
+
+        public double getStdDev() { return Math.sqrt(getVariance()); }
+
+        public double getMin() { return count == 0 ? 0.0 : min; }
+
+        public double getMax() { return count == 0 ? 0.0 : max; }
+
+        /**
+         * Перцентиль с линейной интерполяцией между соседними значениями.
+         *
+         * @param p от 0 до 100
+         */
+        public double getPercentile(double p) {
+            if (count == 0) return 0.0;
+            if (sorted == null) {
+                sorted = Arrays.copyOf(values, count);
+                Arrays.sort(sorted);
+            }
+            double rank = Math.max(0.0, Math.min(100.0, p)) / 100.0 * (count - 1);
+            int lower = (int) rank;
+            int upper = Math.min(lower + 1, count - 1);
+            return sorted[lower] + (sorted[upper] - sorted[lower]) * (rank - lower);
+        }
+
+        public double getMedian() { return getPercentile(50); }
+    }
+}
@@ -5,17 +5,40 @@ public abstract class BaseSettings {
     private int maxCirclesCount = 3;
     private int radius = 50;
 
+    // Есть изменения, еще не записанные в БД. Новый объект тоже "грязный": его строки в БД еще нет
+    private boolean dirty = true;
+
     public BaseSettings(){}
 
     public int getRadius() { return radius; }
-    public void setRadius(int radius) { this.radius = radius; }
+    public void setRadius(int radius) {
+        if (this.radius != radius) markDirty();
+        this.radius = radius;
+    }
 
     public int getDurationSeconds() {return this.durationSeconds;}
-    public void setDurationSeconds(int durationSeconds) { this.durationSeconds = durationSeconds; }
+    public void setDurationSeconds(int durationSeconds) {
+        if (this.durationSeconds != durationSeconds) markDirty();
+        this.durationSeconds = durationSeconds;
+    }
 
     public int getMaxCirclesCount() { return maxCirclesCount; }
-    public void setMaxCirclesCount(int maxCirclesCount) { this.maxCirclesCount = maxCirclesCount; }
+    public void setMaxCirclesCount(int maxCirclesCount) {
+        if (this.maxCirclesCount != maxCirclesCount) markDirty();
+        this.maxCirclesCount = maxCirclesCount;
+    }
+
+    public boolean isDirty() { return dirty; }
+
+    /** Вызывается после загрузки из БД и после снятия снимка для записи. */
+    public void markClean() { dirty = false; }
 
+    protected void markDirty() { dirty = true; }
 
+    protected void copyBaseTo(BaseSettings target) {
+        target.durationSeconds = durationSeconds;
+        target.maxCirclesCount = maxCirclesCount;
+        target.radius = radius;
+    }
 
 }
@@ -6,11 +6,25 @@ public class GlobalSettings {
 
     private AnimationType animationType = AnimationType.CONTOUR_COLLAPSE;
 
+    // См. BaseSettings.dirty
+    private boolean dirty = true;
+
     public AnimationType getAnimationType() {
         return animationType;
     }
 
     public void setAnimationType(AnimationType animationType) {
+        if (this.animationType != animationType) dirty = true;
         this.animationType = animationType;
     }
-}
\ No newline at end of file
+
+    public boolean isDirty() { return dirty; }
+
+    public void markClean() { dirty = false; }
+
+    public GlobalSettings copy() {
+        GlobalSettings s = new GlobalSettings();
+        s.animationType = animationType;
+        return s;
+    }
+}
@@ -6,5 +6,16 @@ public class HoldGameSettings extends BaseSettings{
     private int seed = 0;
 
     public int getHoldTimeMs() { return holdTimeMs; }
-    public void setHoldTimeMs(int holdTimeMs) { this.holdTimeMs = holdTimeMs; }
+    public void setHoldTimeMs(int holdTimeMs) {
+        if (this.holdTimeMs != holdTimeMs) markDirty();
+        this.holdTimeMs = holdTimeMs;
+    }
+
+    public HoldGameSettings copy() {
+        HoldGameSettings s = new HoldGameSettings();
+        copyBaseTo(s);
+        s.holdTimeMs = holdTimeMs;
+        s.seed = seed;
+        return s;
+    }
 }
@@ -11,14 +11,19 @@ public class HoverGameSettings extends BaseSettings{
     public HoverGameSettings() {}
 
     public int getSeed(){return this.seed;}
-    public void setSeed(int seed) {this.seed = seed;}
+    public void setSeed(int seed) {
+        if (this.seed != seed) markDirty();
+        this.seed = seed;
+    }
 
     public TrajectoryDifficulty getDifficulty() {
         return difficulty;
     }
 
     public void setDifficulty(TrajectoryDifficulty difficulty) {
-        this.difficulty = difficulty == null ? TrajectoryDifficulty.MEDIUM : difficulty;
+        TrajectoryDifficulty value = difficulty == null ? TrajectoryDifficulty.MEDIUM : difficulty;
+        if (this.difficulty != value) markDirty();
+        this.difficulty = value;
     }
 
     public GeneratorType getGeneratorType() {
@@ -26,6 +31,17 @@ public class HoverGameSettings extends BaseSettings{
     }
 
     public void setGeneratorType(GeneratorType generatorType) {
-        this.generatorType = generatorType == null ? GeneratorType.ADAPTIVE : generatorType;
+        GeneratorType value = generatorType == null ? GeneratorType.ADAPTIVE : generatorType;
+        if (this.generatorType != value) markDirty();
+        this.generatorType = value;
+    }
+
+    public HoverGameSettings copy() {
+        HoverGameSettings s = new HoverGameSettings();
+        copyBaseTo(s);
+        s.difficulty = difficulty;
+        s.generatorType = generatorType;
+        s.seed = seed;
+        return s;
     }
 }
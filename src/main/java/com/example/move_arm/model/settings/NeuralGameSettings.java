@@ -4,4 +4,10 @@ import com.example.move_arm.model.AnimationType;
 
 public class NeuralGameSettings extends BaseSettings {
     public NeuralGameSettings() {}
+
+    public NeuralGameSettings copy() {
+        NeuralGameSettings s = new NeuralGameSettings();
+        copyBaseTo(s);
+        return s;
+    }
 }
@@ -0,0 +1,202 @@
+package com.example.move_arm.service;
+
+import java.util.Arrays;
+
+import com.example.move_arm.model.AnimationType;
+import com.example.move_arm.util.AppLogger;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Снижает качество анимаций уничтожения, когда кадры не укладываются в бюджет.
+ *
+ * AnimationTimer меряет время между кадрами и ведет скользящую гистограмму последних
+ * WINDOW_FRAMES кадров (корзины по 1 мс). Раз в EVALUATE_EVERY кадров по ней берется 95-й
+ * перцентиль: выше бюджета в DEGRADE_FACTOR раз — уровень качества понижается на ступень,
+ * стабильно ниже RESTORE_FACTOR — повышается обратно. После смены уровня окно собирается заново,
+ * чтобы старые медленные кадры не понизили качество второй раз.
+ *
+ * Для тренажера задержка от движения руки до кадра важнее красоты эффектов, поэтому при
+ * нехватке времени первыми страдают частицы. Бюджет кадра — movearm.frameBudgetMs (по умолчанию 60 FPS).
+ * Вызывать только из FX-потока.
+ */
+public class AnimationQualityGovernor {
+
+    public enum Level {
+        /** Выбранная анимация целиком. */
+        FULL(1.0),
+        /** Та же анимация, половина частиц. */
+        REDUCED(0.5),
+        /** Более дешевый тип анимации и треть частиц. */
+        LOW(0.3),
+        /** Одно кольцо на попадание, эффекты слишком частых попаданий пропускаются. */
+        MINIMAL(0.3);
+
+        private final double particleDensity;
+
+        Level(double particleDensity) {
+            this.particleDensity = particleDensity;
+        }
+    }
+
+    private static final AnimationQualityGovernor INSTANCE = new AnimationQualityGovernor();
+
+    static final String FRAME_BUDGET_PROPERTY = "movearm.frameBudgetMs";
+    private static final double DEFAULT_FRAME_BUDGET_MS = 1000.0 / 60;
+
+    private static final int WINDOW_FRAMES = 120;
+    private static final int MIN_FRAMES_TO_EVALUATE = 60;
+    private static final int EVALUATE_EVERY = 30;
+    private static final double DEGRADE_FACTOR = 1.5;
+    private static final double RESTORE_FACTOR = 1.15;
+    // Столько хороших оценок подряд (около 2 с) нужно для повышения уровня
+    private static final int RESTORE_STREAK = 4;
+    private static final int BUCKETS = 100;
+    // Без попаданий дольше этого таймер останавливается и не держит пульс JavaFX
+    private static final long IDLE_STOP_NS = 5_000_000_000L;
+    // На MINIMAL эффект попадания, случившегося раньше этого после предыдущего, пропускается
+    private static final long MIN_EFFECT_GAP_NS = 100_000_000L;
+
+    private final double frameBudgetMs;
+
+    // ===== Скользящая гистограмма: корзины + кольцо последних кадров =====
+    private final int[] histogram = new int[BUCKETS];
+    private final byte[] window = new byte[WINDOW_FRAMES];
+    private int windowPos;
+    private int windowSize;
+
+    private final AnimationTimer timer;
+    private boolean running;
+    private long lastFrameNs;
+    private long lastEffectNs;
+    private int framesSinceEvaluation;
+    private int goodEvaluations;
+
+    private Level level = Level.FULL;
+
+    private AnimationQualityGovernor() {
+        double budget;
+        try {
+            budget = Double.parseDouble(System.getProperty(FRAME_BUDGET_PROPERTY, String.valueOf(DEFAULT_FRAME_BUDGET_MS)));
+        } catch (NumberFormatException e) {
+            budget = DEFAULT_FRAME_BUDGET_MS;
+        }
+        frameBudgetMs = budget > 0 ? budget : DEFAULT_FRAME_BUDGET_MS;
+
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                onFrame(now);
+            }
+        };
+    }
+
+    public static AnimationQualityGovernor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Отмечает начало эффекта и запускает замер кадров, если он был остановлен.
+     *
+     * @return false — эффект стоит пропустить (MINIMAL и предыдущий эффект только что начался)
+     */
+    public boolean beginEffect() {
+        long now = System.nanoTime();
+        boolean overlapping = lastEffectNs != 0 && now - lastEffectNs < MIN_EFFECT_GAP_NS;
+        lastEffectNs = now;
+        if (!running) {
+            running = true;
+            lastFrameNs = 0;
+            timer.start();
+        }
+        return !(level == Level.MINIMAL && overlapping);
+    }
+
+    public Level getLevel() { return level; }
+
+    public double getParticleDensity() { return level.particleDensity; }
+
+    /**
+     * Тип анимации, который реально играть при текущем уровне.
+     */
+    public AnimationType effectiveType(AnimationType chosen) {
+        return switch (level) {
+            case FULL, REDUCED -> chosen;
+            case LOW -> switch (chosen) {
+                case INSANE_EXPLOSION, CRAZY_EXPLOSION -> AnimationType.EXPLOSION;
+                case AREA_GRAVITY_FALL, COLORFUL_AREA_FALL -> AnimationType.CONTOUR_COLLAPSE;
+                default -> chosen;
+            };
+            case MINIMAL -> chosen == AnimationType.SIMPLE ? chosen : AnimationType.FAST_SHOCKWAVE;
+        };
+    }
+
+    /**
+     * Перцентиль времени кадра по текущему окну (мс, с точностью до корзины).
+     */
+    public double getFrameTimePercentileMs(double p) {
+        if (windowSize == 0) return 0.0;
+        int target = (int) Math.ceil(windowSize * p / 100.0);
+        int seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += histogram[b];
+            if (seen >= Math.max(target, 1)) return b + 1;
+        }
+        return BUCKETS;
+    }
+
+    private void onFrame(long now) {
+        if (now - lastEffectNs > IDLE_STOP_NS) {
+            timer.stop();
+            running = false;
+            return;
+        }
+        if (lastFrameNs != 0) {
+            record((now - lastFrameNs) / 1_000_000.0);
+            if (++framesSinceEvaluation >= EVALUATE_EVERY && windowSize >= MIN_FRAMES_TO_EVALUATE) {
+                framesSinceEvaluation = 0;
+                evaluate();
+            }
+        }
+        lastFrameNs = now;
+    }
+
+    private void record(double frameMs) {
+        int bucket = (int) Math.min(BUCKETS - 1, Math.max(0, frameMs));
+        if (windowSize == WINDOW_FRAMES) {
+            histogram[window[windowPos]]--;
+        } else {
+            windowSize++;
+        }
+        window[windowPos] = (byte) bucket;
+        histogram[bucket]++;
+        windowPos = (windowPos + 1) % WINDOW_FRAMES;
+    }
+
+    private void evaluate() {
+        double p95 = getFrameTimePercentileMs(95);
+        if (p95 > frameBudgetMs * DEGRADE_FACTOR) {
+            goodEvaluations = 0;
+            if (level != Level.MINIMAL) {
+                changeLevel(Level.values()[level.ordinal() + 1], p95);
+            }
+        } else if (p95 < frameBudgetMs * RESTORE_FACTOR) {
+            if (++goodEvaluations >= RESTORE_STREAK && level != Level.FULL) {
+                goodEvaluations = 0;
+                changeLevel(Level.values()[level.ordinal() - 1], p95);
+            }
+        } else {
+            goodEvaluations = 0;
+        }
+    }
+
+    private void changeLevel(Level next, double p95) {
+        AppLogger.info("AnimationQualityGovernor: p95 кадра " + p95 + " мс при бюджете "
+                + String.format("%.1f", frameBudgetMs) + " мс, качество анимаций " + level + " -> " + next);
+        level = next;
+        Arrays.fill(histogram, 0);
+        windowPos = 0;
+        windowSize = 0;
+        framesSinceEvaluation = 0;
+    }
+}
@@ -9,13 +9,21 @@ import javafx.scene.shape.Circle;
 public class AnimationService {
 
     /**
-     * Воспроизводит анимацию уничтожения круга в соответствии с настройками
+     * Воспроизводит анимацию уничтожения круга в соответствии с настройками.
+     * Если кадры не успевают, AnimationQualityGovernor упрощает анимацию или пропускает ее.
      */
     public static void playDestructionAnimation(Pane root, Circle circle, Runnable onFinish) {
         SettingsService settings = SettingsService.getInstance();
         AnimationType animationType = settings.getAnimationType();
-        
-        playAnimationByType(animationType, root, circle, onFinish);
+        AnimationQualityGovernor quality = AnimationQualityGovernor.getInstance();
+
+        if (!quality.beginEffect()) {
+            root.getChildren().remove(circle);
+            if (onFinish != null) onFinish.run();
+            return;
+        }
+        ParticleSystem.of(root).setDensity(quality.getParticleDensity());
+        playAnimationByType(quality.effectiveType(animationType), root, circle, onFinish);
     }
 
     /**
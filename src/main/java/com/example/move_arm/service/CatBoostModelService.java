@@ -2,8 +2,10 @@ package com.example.move_arm.service;
 
 import java.io.File;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 
 import com.example.move_arm.util.AppLogger;
 
@@ -11,16 +13,58 @@ import ai.catboost.CatBoostModel;
 import ai.catboost.CatBoostPredictions;
 
 /**
- * Сервис для управления нативной моделью CatBoost через JNI.
- * Загружает бинарный файл .cbm из ресурсов и выполняет потокобезопасный инференс.
+ * Сервис для управления моделью CatBoost.
+ * По умолчанию загружается бинарный файл .cbm и используется JNI.
+ * Экспериментальный чистый Java-вычислитель (ObliviousTreeEvaluator) включается только
+ * явно, -Dmovearm.catboost.backend=java, и требует в ресурсах JSON-экспорта той же модели
+ * (aim_catboost_model.json, вместе с CTR-таблицами); если его нет, сервис остается на JNI.
  */
 public class CatBoostModelService {
 
     private static CatBoostModelService instance;
+    private static final String BACKEND_PROPERTY = "movearm.catboost.backend";
+    private static final String JSON_MODEL_RESOURCE = "/com/example/move_arm/model/aim_catboost_model.json";
+
     private CatBoostModel model;
+    private ObliviousTreeEvaluator javaModel;
     private boolean isModelReady = false;
 
     private CatBoostModelService() {
+        String backend = System.getProperty(BACKEND_PROPERTY, "jni");
+
+        if ("java".equalsIgnoreCase(backend)) {
+            if (loadJavaModel()) {
+                return;
+            }
+            AppLogger.warn("CatBoostModelService: экспериментальный Java-бэкенд недоступен, используем JNI");
+        }
+        loadNativeModel();
+    }
+
+    /**
+     * Пытается загрузить JSON-экспорт модели в ObliviousTreeEvaluator.
+     * @return true, если Java-бэкенд готов к инференсу
+     */
+    private boolean loadJavaModel() {
+        try (InputStream jsonStream = CatBoostModelService.class.getResourceAsStream(JSON_MODEL_RESOURCE)) {
+            if (jsonStream == null) {
+                AppLogger.warn("CatBoostModelService: JSON-модель " + JSON_MODEL_RESOURCE + " не найдена в ресурсах");
+                return false;
+            }
+            String json = new String(jsonStream.readAllBytes(), StandardCharsets.UTF_8);
+            this.javaModel = new ObliviousTreeEvaluator(json);
+            this.isModelReady = true;
+            AppLogger.info("CatBoostModelService: JSON-модель загружена, экспериментальный инференс без JNI ("
+                    + javaModel.getFloatFeatureCount() + " float, " + javaModel.getCatFeatureCount() + " cat признаков).");
+            return true;
+        } catch (Exception e) {
+            AppLogger.warn("CatBoostModelService: JSON-модель не подходит для Java-бэкенда, используем JNI: " + e.getMessage());
+            this.javaModel = null;
+            return false;
+        }
+    }
+
+    private void loadNativeModel() {
         try {
             // Относительный путь: поднимаемся из пакета service и заходим в соседнюю папку model
             String modelResourcePath = "../model/aim_catboost_model.cbm";
@@ -86,6 +130,9 @@ public class CatBoostModelService {
         if (!isModelReady) {
             return 450.0; // Безопасный дефолт (средний ТТК игрока), если модель не готова
         }
+        if (javaModel != null) {
+            return javaModel.predict(catFeatures, numFeatures);
+        }
         try {
             // Нативная библиотека требует двумерные массивы для батч-предсказаний.
             // Оборачиваем наши одномерные массивы в матрицы размера [1][N]
@@ -103,4 +150,48 @@ public class CatBoostModelService {
             return 450.0; // Защита от вылета игры: возвращаем средний темп
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Пакетный инференс: одна нативная операция на всю матрицу признаков.
+     * Строки numFeatures[i] и catFeatures[i] описывают один и тот же объект.
+     *
+     * @param catFeatures Матрица категориальных признаков [N][4]
+     * @param numFeatures Матрица вещественных признаков [N][16]
+     * @return Массив предсказанных TTK (мс) длины N
+     */
+    public double[] predictBatch(String[][] catFeatures, float[][] numFeatures) {
+        double[] out = new double[numFeatures.length];
+        predictBatch(catFeatures, numFeatures, numFeatures.length, out);
+        return out;
+    }
+
+    /**
+     * Пакетный инференс по первым rows строкам переиспользуемых буферов.
+     * Результаты пишутся в out[0..rows), новые массивы под результат не создаются.
+     */
+    public void predictBatch(String[][] catFeatures, float[][] numFeatures, int rows, double[] out) {
+        if (rows == 0) {
+            return;
+        }
+        if (!isModelReady) {
+            Arrays.fill(out, 0, rows, 450.0);
+            return;
+        }
+        if (javaModel != null) {
+            javaModel.predictBatch(catFeatures, numFeatures, rows, out);
+            return;
+        }
+        try {
+            // Нативная библиотека берет размер батча из длины матрицы
+            float[][] numMatrix = numFeatures.length == rows ? numFeatures : Arrays.copyOf(numFeatures, rows);
+            String[][] catMatrix = catFeatures.length == rows ? catFeatures : Arrays.copyOf(catFeatures, rows);
+            CatBoostPredictions predictions = model.predict(numMatrix, catMatrix);
+            for (int i = 0; i < rows; i++) {
+                out[i] = predictions.get(i, 0);
+            }
+        } catch (Exception e) {
+            AppLogger.error("CatBoostModelService: Ошибка при пакетном расчете предсказаний внутри нативного кода", e);
+            Arrays.fill(out, 0, rows, 450.0);
+        }
+    }
+}
@@ -3,26 +3,32 @@ package com.example.move_arm.service;
 import java.util.Collections;
 import java.util.List;
 
-import com.example.move_arm.database.ClickDao;
-import com.example.move_arm.database.GameResultDao;
-import com.example.move_arm.model.ClickData;
+import com.example.move_arm.database.GameSessionWriter;
+import com.example.move_arm.model.ClickBuffer;
+import com.example.move_arm.model.CursorTrajectory;
 import com.example.move_arm.model.GameResult;
 import com.example.move_arm.model.GeneratorType;
-import com.example.move_arm.model.Statistics;
+import com.example.move_arm.model.StatisticsAccumulator;
 import com.example.move_arm.model.TrajectoryDifficulty;
+import com.example.move_arm.model.TripletRecord;
 
 public class ClickGameService {
 
-    private final GameResultDao gameResultDao = new GameResultDao();
-    private final ClickDao clickDao = new ClickDao();
-
-    public int saveClicks(int userId, int gameTypeId, int radius, int seed, TrajectoryDifficulty difficulty, List<ClickData> clicks) {
+    public int saveClicks(int userId, int gameTypeId, int radius, int seed, TrajectoryDifficulty difficulty, ClickBuffer clicks) {
         return saveClicks(userId, gameTypeId, radius, GeneratorType.ADAPTIVE, seed, difficulty, clicks);
     }
 
-    public int saveClicks(int userId, int gameTypeId, int radius, GeneratorType generatorType, int seed, TrajectoryDifficulty difficulty, List<ClickData> clicks) {
+    public int saveClicks(int userId, int gameTypeId, int radius, GeneratorType generatorType, int seed, TrajectoryDifficulty difficulty, ClickBuffer clicks) {
+        if (clicks == null) clicks = new ClickBuffer(0);
+        return persist(buildResult(userId, gameTypeId, radius, generatorType, seed, difficulty, clicks), clicks);
+    }
+
+    /**
+     * Считает итоговую запись game_results по кликам без обращения к БД.
+     */
+    public GameResult buildResult(int userId, int gameTypeId, int radius, GeneratorType generatorType, int seed, TrajectoryDifficulty difficulty, ClickBuffer clicks) {
 
-        if (clicks == null) clicks = Collections.emptyList();
+        if (clicks == null) clicks = new ClickBuffer(0);
 
         GameResult result = new GameResult();
 
@@ -34,27 +40,41 @@ public class ClickGameService {
         result.setDifficulty(difficulty);
         result.setScore(clicks.size());
 
-        long durationMs = 0;
+        // Все метрики — за один проход по кликам
+        StatisticsAccumulator stats = StatisticsAccumulator.of(clicks);
 
-        if (clicks.size() >= 2) {
-            long first = clicks.get(0).getClickTimeNs();
-            long last = clicks.get(clicks.size() - 1).getClickTimeNs();
-            durationMs = (last - first) / 1_000_000L;
-        }
+        result.setDurationMs(stats.getDurationMs());
 
-        result.setDurationMs(durationMs);
+        result.setHitRate(stats.getHitRatePercent());
+        result.setAvgIntervalMs(stats.getIntervalsMs().getMean());
+        result.setAvgDistancePx(stats.getCursorDistances().getMean());
+        result.setAvgSpeed(stats.getSpeeds().getMean());
 
-        result.setHitRate(Statistics.getHitRatePercent(clicks));
-        result.setAvgIntervalMs(Statistics.getAverageClickIntervalMs(clicks));
-        result.setAvgDistancePx(Statistics.getAverageCursorDistance(clicks));
-        result.setAvgSpeed(Statistics.getAverageSpeedPxPerMs(clicks));
+        return result;
+    }
 
-        int resultId = gameResultDao.insert(result);
+    /**
+     * Записывает готовый результат и его клики в БД одной транзакцией.
+     */
+    public int persist(GameResult result, ClickBuffer clicks) {
+        return persist(result, clicks, Collections.emptyList());
+    }
 
-        if (!clicks.isEmpty()) {
-            clickDao.insertClicks(resultId, clicks);
-        }
+    /**
+     * То же, плюс тройки нейро-режима — в той же транзакции.
+     */
+    public int persist(GameResult result, ClickBuffer clicks, List<TripletRecord> triplets) {
+        return persist(result, clicks, triplets, null);
+    }
 
-        return resultId;
+    /**
+     * То же, плюс траектория курсора — в той же транзакции.
+     */
+    public int persist(GameResult result, ClickBuffer clicks, List<TripletRecord> triplets, CursorTrajectory trajectory) {
+        return new GameSessionWriter(result)
+                .clicks(clicks)
+                .triplets(triplets)
+                .trajectory(trajectory)
+                .commit();
     }
 }
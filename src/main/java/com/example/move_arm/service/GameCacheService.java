@@ -4,20 +4,37 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import com.example.move_arm.model.ClickBuffer;
 import com.example.move_arm.model.ClickData;
+import com.example.move_arm.model.GameResult;
 import com.example.move_arm.model.HoldAttempt;
 
 public class GameCacheService {
 
-    private List<ClickData> lastGameClicks = new ArrayList<>();
+    private ClickBuffer lastGameClicks = new ClickBuffer(0);
     private List<HoldAttempt> lastHoldAttempts = new ArrayList<>();
+    private GameResult lastResult;
 
-    public void storeClicks(List<ClickData> clicks) {
-        lastGameClicks = new ArrayList<>(clicks);
+    public void storeResult(GameResult result) {
+        lastResult = result;
+    }
+
+    /**
+     * Итог последней игры, посчитанный в памяти. Может быть еще не записан в БД.
+     */
+    public GameResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Буфер хранится без копирования: вызывающий передает собственную копию (ClickBuffer.copy()).
+     */
+    public void storeClicks(ClickBuffer clicks) {
+        lastGameClicks = clicks;
     }
 
     public List<ClickData> getLastGameClicks() {
-        return Collections.unmodifiableList(lastGameClicks);
+        return lastGameClicks.asList();
     }
 
     public void storeHoldAttempts(List<HoldAttempt> attempts) {
@@ -29,7 +46,8 @@ public class GameCacheService {
     }
 
     public void clear() {
-        lastGameClicks.clear();
+        lastGameClicks = new ClickBuffer(0);
         lastHoldAttempts.clear();
+        lastResult = null;
     }
 }
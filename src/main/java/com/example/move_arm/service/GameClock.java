@@ -0,0 +1,138 @@
+package com.example.move_arm.service;
+
+import java.util.function.LongConsumer;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Часы игры на AnimationTimer вместо Timeline с KeyFrame в 1 секунду.
+ *
+ * Оставшееся время считается от наносекундной метки кадра, а не накоплением тиков,
+ * поэтому игра заканчивается в первом кадре после дедлайна и не дрейфует на пульс.
+ * На каждый кадр — одно сравнение с моментом следующего события (смена показа HUD или конец
+ * игры); колбэк HUD вызывается только на границах шага hudStepMs оставшегося времени.
+ *
+ * elapsedNs() — общая шкала времени игры для кликов, попыток и траектории курсора:
+ * растет от start(), замирает на паузе и после окончания.
+ * Вызывать только из FX-потока.
+ */
+public class GameClock {
+
+    private static final long NS_PER_MS = 1_000_000L;
+
+    private final long hudStepNs;
+    private final LongConsumer onHud;
+    private final Runnable onExpired;
+    private final AnimationTimer timer;
+
+    private long durationNs;
+    // nanoTime момента start(), сдвинутый вперед на длительность пауз
+    private long startNs;
+    // nanoTime следующего события; между событиями кадр ничего не делает
+    private long nextEventNs = Long.MAX_VALUE;
+    private long frozenAtNs;
+    private boolean started;
+    private boolean running;
+
+    /**
+     * @param hudStepMs шаг обновления HUD по оставшемуся времени (1000 — раз в секунду)
+     * @param onHud     получает оставшееся время в мс на каждой границе шага
+     * @param onExpired вызывается один раз, когда время вышло
+     */
+    public GameClock(long hudStepMs, LongConsumer onHud, Runnable onExpired) {
+        this.hudStepNs = Math.max(1, hudStepMs) * NS_PER_MS;
+        this.onHud = onHud;
+        this.onExpired = onExpired;
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (now >= nextEventNs) onEvent(now);
+            }
+        };
+    }
+
+    /**
+     * Перевод оставшихся мс в целые секунды для HUD (как раньше: 30, 29, ... 1, 0).
+     */
+    public static int toSeconds(long remainingMs) {
+        return (int) Math.ceilDiv(remainingMs, 1000L);
+    }
+
+    public void start(long durationMs) {
+        durationNs = durationMs * NS_PER_MS;
+        startNs = System.nanoTime();
+        started = true;
+        running = true;
+        onHud.accept(durationMs);
+        scheduleNext(startNs);
+        timer.start();
+    }
+
+    /**
+     * Останавливает часы без вызова onExpired (выход в меню, рестарт).
+     */
+    public void stop() {
+        if (running) freeze(System.nanoTime());
+    }
+
+    public void pause() {
+        if (running) freeze(System.nanoTime());
+    }
+
+    public void resume() {
+        if (!started || running || remainingNs(frozenAtNs) <= 0) return;
+        long now = System.nanoTime();
+        startNs += now - frozenAtNs;
+        running = true;
+        scheduleNext(now);
+        timer.start();
+    }
+
+    public boolean isRunning() { return running; }
+
+    /**
+     * Время игры в нс от start() без учета пауз. До start() — 0.
+     */
+    public long elapsedNs() {
+        if (!started) return 0;
+        return (running ? System.nanoTime() : frozenAtNs) - startNs;
+    }
+
+    public long remainingMs() {
+        if (!started) return durationNs / NS_PER_MS;
+        return Math.max(0, Math.ceilDiv(remainingNs(running ? System.nanoTime() : frozenAtNs), NS_PER_MS));
+    }
+
+    private void onEvent(long now) {
+        long remaining = remainingNs(now);
+        if (remaining <= 0) {
+            // Время игры останавливается ровно на дедлайне, даже если кадр пришел позже
+            freeze(startNs + durationNs);
+            onHud.accept(0);
+            onExpired.run();
+            return;
+        }
+        onHud.accept(Math.ceilDiv(remaining, NS_PER_MS));
+        scheduleNext(now);
+    }
+
+    /**
+     * Следующее событие — ближайшая граница шага HUD по оставшемуся времени (последняя — дедлайн).
+     */
+    private void scheduleNext(long now) {
+        long remaining = remainingNs(now);
+        long nextRemaining = remaining <= 0 ? 0 : ((remaining - 1) / hudStepNs) * hudStepNs;
+        nextEventNs = startNs + durationNs - nextRemaining;
+    }
+
+    private long remainingNs(long now) {
+        return startNs + durationNs - now;
+    }
+
+    private void freeze(long atNs) {
+        running = false;
+        frozenAtNs = atNs;
+        nextEventNs = Long.MAX_VALUE;
+        timer.stop();
+    }
+}
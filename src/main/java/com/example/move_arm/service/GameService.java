@@ -1,8 +1,13 @@
 package com.example.move_arm.service;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+import com.example.move_arm.database.GameTypeDao;
+import com.example.move_arm.model.ClickBuffer;
 import com.example.move_arm.model.ClickData;
+import com.example.move_arm.model.CursorTrajectory;
 import com.example.move_arm.model.GameResult;
 import com.example.move_arm.model.GameType;
 import com.example.move_arm.model.GeneratorType;
@@ -11,6 +16,7 @@ import com.example.move_arm.model.Statistics;
 import com.example.move_arm.model.TripletRecord;
 import com.example.move_arm.model.TrajectoryDifficulty;
 import com.example.move_arm.model.User;
+import com.example.move_arm.util.AppLogger;
 
 public class GameService {
 
@@ -23,6 +29,8 @@ public class GameService {
     private final GameCacheService cacheService = new GameCacheService();
     private final ResultService resultService = new ResultService();
     private final NeuralTripletService neuralTripletService = NeuralTripletService.getInstance();
+    private final PersistenceService persistenceService = PersistenceService.getInstance();
+    private final GameTypeDao gameTypeDao = new GameTypeDao();
 
     public static GameService getInstance() {
         return INSTANCE;
@@ -48,15 +56,43 @@ public class GameService {
         return gameTypeService.getCurrentGameTypeString();
     }
 
-    public int addGameClicks(int radius, int seed, TrajectoryDifficulty difficulty, List<ClickData> clicks) {
+    public CompletableFuture<Integer> addGameClicks(int radius, int seed, TrajectoryDifficulty difficulty, ClickBuffer clicks) {
         return addGameClicks(radius, GeneratorType.ADAPTIVE, seed, difficulty, clicks);
     }
 
-    public int addGameClicks(int radius, GeneratorType generatorType, int seed, TrajectoryDifficulty difficulty, List<ClickData> clicks) {
+    /**
+     * Считает итог игры в памяти, кладет его в кеш для экрана результатов
+     * и ставит запись в БД в фоновую очередь.
+     *
+     * @return future с id созданной строки game_results
+     */
+    public CompletableFuture<Integer> addGameClicks(int radius, GeneratorType generatorType, int seed, TrajectoryDifficulty difficulty, ClickBuffer clicks) {
+        return addGameClicks(radius, generatorType, seed, difficulty, clicks, null);
+    }
+
+    /**
+     * То же, вместе с траекторией курсора за игру (пишется в той же транзакции).
+     */
+    public CompletableFuture<Integer> addGameClicks(int radius, GeneratorType generatorType, int seed, TrajectoryDifficulty difficulty,
+                                                    ClickBuffer clicks, CursorTrajectory trajectory) {
+        return addGameClicks(radius, generatorType, seed, difficulty, clicks, List.of(), trajectory);
+    }
+
+    /**
+     * Нейро-режим: клики, тройки целей и траектория пишутся вместе с game_results одной транзакцией.
+     */
+    public CompletableFuture<Integer> addNeuralGameResults(int radius, ClickBuffer clicks, List<TripletRecord> triplets,
+                                                           CursorTrajectory trajectory) {
+        // seed/difficulty/generatorType для neural пока нет — значения по умолчанию, как раньше
+        return addGameClicks(radius, GeneratorType.ADAPTIVE, 0, TrajectoryDifficulty.MEDIUM, clicks, triplets, trajectory);
+    }
+
+    private CompletableFuture<Integer> addGameClicks(int radius, GeneratorType generatorType, int seed, TrajectoryDifficulty difficulty,
+                                                    ClickBuffer clicks, List<TripletRecord> triplets, CursorTrajectory trajectory) {
 
         cacheService.storeClicks(clicks);
 
-        return clickGameService.saveClicks(
+        GameResult result = clickGameService.buildResult(
                 userService.getCurrentUser().getId(),
                 gameTypeService.getCurrentGameTypeId(),
                 radius,
@@ -65,17 +101,82 @@ public class GameService {
                 difficulty,
                 clicks
         );
+        cacheService.storeResult(result);
+
+        return persistenceService.submit("клики игры", () -> clickGameService.persist(result, clicks, triplets, trajectory));
+    }
+
+    /**
+     * Открывает журнал новой сессии для текущего пользователя и режима.
+     */
+    public SessionJournal openSessionJournal(SessionJournal.Kind kind, int radius, GeneratorType generatorType,
+                                             int seed, TrajectoryDifficulty difficulty) {
+        return SessionJournal.open(kind,
+                userService.getCurrentUser().getId(),
+                getCurrentGameTypeDbId(),
+                radius, generatorType, seed, difficulty);
+    }
+
+    /**
+     * Дописывает в БД сессии, оборванные падением приложения. Вызывается один раз при запуске,
+     * запись идет через фоновую очередь. Журнал удаляется только после успешного коммита.
+     */
+    public void recoverUnfinishedSessions() {
+        for (SessionJournal.Replay replay : SessionJournal.readPending()) {
+            if (replay.isEmpty()) {
+                replay.delete();
+                continue;
+            }
+            persistenceService.submit("восстановление сессии", () -> {
+                int id = persistReplay(replay);
+                if (id > 0) {
+                    replay.delete();
+                    AppLogger.info("GameService: восстановлена оборванная сессия " + replay.kind() + ", id=" + id);
+                }
+                return id;
+            });
+        }
+    }
+
+    private int persistReplay(SessionJournal.Replay replay) {
+        GameResult result;
+        if (replay.kind() == SessionJournal.Kind.HOLD) {
+            if (replay.holdAttempts().isEmpty()) return -1;
+            result = holdGameService.buildResult(replay.userId(), replay.gameTypeId(), replay.radius(), replay.holdAttempts());
+        } else {
+            result = clickGameService.buildResult(replay.userId(), replay.gameTypeId(), replay.radius(),
+                    replay.generatorType(), replay.seed(), replay.difficulty(), replay.clicks());
+        }
+        // Время игры, а не время восстановления
+        result.setTimestamp(replay.startEpochMs() + result.getDurationMs());
+
+        if (replay.kind() == SessionJournal.Kind.HOLD) {
+            return holdGameService.persist(result, replay.holdAttempts());
+        }
+        return clickGameService.persist(result, replay.clicks(), replay.triplets());
     }
 
-    public int addHoldGameResults(int radius, List<HoldAttempt> attempts) {
-        int resultId = holdGameService.saveHoldResults(
+    public CompletableFuture<Integer> addHoldGameResults(int radius, List<HoldAttempt> attempts, CursorTrajectory trajectory) {
+        cacheService.storeHoldAttempts(attempts);
+
+        if (attempts == null || attempts.isEmpty()) {
+            cacheService.storeResult(null);
+            return CompletableFuture.completedFuture(-1);
+        }
+
+        GameResult result = holdGameService.buildResult(
                 userService.getCurrentUser().getId(),
                 gameTypeService.getCurrentGameTypeId(),
                 radius,
                 attempts
         );
-        cacheService.storeHoldAttempts(attempts);
-        return resultId;
+        cacheService.storeResult(result);
+
+        return persistenceService.submit("попытки удержания", () -> holdGameService.persist(result, attempts, trajectory));
+    }
+
+    public GameResult getLastGameResult() {
+        return cacheService.getLastResult();
     }
 
     public List<ClickData> getLastGameClicks() {
@@ -94,11 +195,49 @@ public class GameService {
         System.out.println(Statistics.getSummary(last));
     }
 
-    public List<GameResult> getResultsForCurrentUser() {
+    /**
+     * Последняя сохраненная игра текущего пользователя в текущем режиме.
+     * Читается после фоновой записи завершенных игр; future завершается на потоке db-writer,
+     * поэтому UI обновлять через Platform.runLater.
+     */
+    public CompletableFuture<Optional<GameResult>> getLatestResultForCurrentGame() {
+        User user = userService.getCurrentUser();
+        int gameTypeId = getCurrentGameTypeDbId();
+        return persistenceService.afterPendingWrites("последний результат",
+                () -> resultService.getLatestResult(user, gameTypeId));
+    }
 
-        return resultService.getResultsForUser(
-                userService.getCurrentUser()
-        );
+    /**
+     * Траектория курсора сохраненной игры — для анализа пути руки между целями.
+     * Пустая, если игра сохранена до появления записи траекторий или ее данные уже в архиве.
+     */
+    public CompletableFuture<CursorTrajectory> getCursorTrajectory(int resultId) {
+        return persistenceService.afterPendingWrites("траектория курсора",
+                () -> resultService.getCursorTrajectory(resultId));
+    }
+
+    public CompletableFuture<Boolean> hasResultsForCurrentUser() {
+        User user = userService.getCurrentUser();
+        return persistenceService.afterPendingWrites("наличие результатов",
+                () -> resultService.hasResults(user));
+    }
+
+    /**
+     * id режима в таблице game_types. После нейро-игры текущим становится "виртуальный"
+     * GameType с id -1, а результаты сохранены под настоящим id — берем его по имени.
+     */
+    public int getCurrentGameTypeDbId() {
+        int id = gameTypeService.getCurrentGameTypeId();
+        if (id >= 0) return id;
+        return gameTypeDao.findByName(gameTypeService.getCurrentGameTypeString())
+                .map(GameType::getId)
+                .orElse(id);
+    }
+
+    public CompletableFuture<List<GameResult>> getResultsForCurrentUser() {
+        User user = userService.getCurrentUser();
+        return persistenceService.afterPendingWrites("результаты пользователя",
+                () -> resultService.getResultsForUser(user));
     }
 
     public void clear() {
@@ -136,8 +275,11 @@ public class GameService {
             screenWidth, screenHeight, previousHitCell 
         );
     }
-    public void saveTripletsBatch(List<TripletRecord> records) {
-        neuralTripletService.saveTripletsBatch(records);
+    public CompletableFuture<Void> saveTripletsBatch(List<TripletRecord> records) {
+        return persistenceService.submit("нейро-тройки", () -> {
+            neuralTripletService.saveTripletsBatch(records);
+            return null;
+        });
     }
 
 
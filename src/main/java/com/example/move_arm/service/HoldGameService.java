@@ -2,8 +2,8 @@ package com.example.move_arm.service;
 
 import java.util.List;
 
-import com.example.move_arm.database.GameResultDao;
-import com.example.move_arm.database.HoldAttemptDao;
+import com.example.move_arm.database.GameSessionWriter;
+import com.example.move_arm.model.CursorTrajectory;
 import com.example.move_arm.model.GameResult;
 import com.example.move_arm.model.HoldAttempt;
 import com.example.move_arm.model.Statistics;
@@ -11,13 +11,18 @@ import com.example.move_arm.model.GeneratorType;
 
 public class HoldGameService {
 
-    private final GameResultDao gameResultDao = new GameResultDao();
-    private final HoldAttemptDao holdAttemptDao = new HoldAttemptDao();
-
     public int saveHoldResults(int userId, int gameTypeId, int radius, List<HoldAttempt> attempts) {
 
         if (attempts == null || attempts.isEmpty()) return -1;
 
+        return persist(buildResult(userId, gameTypeId, radius, attempts), attempts);
+    }
+
+    /**
+     * Считает итоговую запись game_results по попыткам удержания без обращения к БД.
+     */
+    public GameResult buildResult(int userId, int gameTypeId, int radius, List<HoldAttempt> attempts) {
+
         long successCount = attempts.stream().filter(HoldAttempt::isSuccess).count();
 
         GameResult result = new GameResult();
@@ -35,10 +40,23 @@ public class HoldGameService {
         result.setHitRate(Statistics.getHoldSuccessRatePercent(attempts));
         result.setAvgIntervalMs(Statistics.getAverageHoldIntervalMs(attempts));
 
-        int resultId = gameResultDao.insert(result);
+        return result;
+    }
 
-        holdAttemptDao.insertHoldAttempts(resultId, attempts);
+    /**
+     * Записывает готовый результат и попытки в БД одной транзакцией.
+     */
+    public int persist(GameResult result, List<HoldAttempt> attempts) {
+        return persist(result, attempts, null);
+    }
 
-        return resultId;
+    /**
+     * То же, плюс траектория курсора — в той же транзакции.
+     */
+    public int persist(GameResult result, List<HoldAttempt> attempts, CursorTrajectory trajectory) {
+        return new GameSessionWriter(result)
+                .holdAttempts(attempts)
+                .trajectory(trajectory)
+                .commit();
     }
 }
\ No newline at end of file
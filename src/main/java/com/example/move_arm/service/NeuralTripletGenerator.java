@@ -1,10 +1,15 @@
 package com.example.move_arm.service;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Map;
 import java.util.Random;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.move_arm.util.AppLogger;
+import com.example.move_arm.util.GridGeometryTable;
 import com.example.move_arm.util.TripletGeometry;
 import com.example.move_arm.util.TripletGeometry.GeometryData;
 
@@ -12,22 +17,62 @@ import com.example.move_arm.util.TripletGeometry.GeometryData;
  * Вероятностный адаптивный генератор мишеней под CatBoost.
  * Переводит предсказанное время в вероятности. Исключает спавн в одной точке
  * и динамически распределяет цели по всему экрану на основе "колеса рулетки".
+ *
+ * Пока игрок целится, для всех трех возможных попаданий заранее в фоне (speculate)
+ * считаются готовые распределения. TTK будущего попадания неизвестен, поэтому для каждого
+ * попадания перебираются его вероятные значения с шагом квантования кеша (10 мс) от среднего
+ * наружу; распределение хранится под квантованными фичами истории, как ключ TtkPredictionCache.
+ * После попадания по реальной истории строится тот же ключ, и если такое распределение уже
+ * посчитано, остается только выбросить ячейку. Иначе расчет идет синхронно.
  */
 public class NeuralTripletGenerator {
-    
+
+    // Один фоновый поток на все генераторы: спекуляции текущей игры вытесняют друг друга
+    private static final ExecutorService SPECULATION_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "neural-speculation");
+        t.setDaemon(true);
+        return t;
+    });
+
     private final Random random = new Random();
     private final CatBoostModelService modelService = CatBoostModelService.getInstance();
-    
-    private final LinkedList<Double> ttkHistory = new LinkedList<>();
-    private final LinkedList<Double> distanceHistory = new LinkedList<>();
-    
-    private int lastHitCellGlobal = -1;
-    private double lastAngleGlobal = 0.0;
-    
-    private final int GRID_WIDTH = 12;
-    private final float FIXED_RADIUS = 40.0f;
+    private final TtkPredictionCache predictionCache = new TtkPredictionCache(PREDICTION_CACHE_SIZE);
+
+    private HistorySnapshot history = HistorySnapshot.EMPTY;
+
+    // Поколение спекуляции: устаревшие фоновые задачи видят его смену и выходят, не досчитывая
+    private final AtomicLong speculationGeneration = new AtomicLong();
+
+    private static final int GRID_WIDTH = 12;
+    private static final int TOTAL_CELLS = 96;
+    private static final float FIXED_RADIUS = 40.0f;
+    private static final int HISTORY_SIZE = 5;
+    private static final int PREDICTION_CACHE_SIZE = 50_000;
+
+    // Сколько вероятных значений TTK (шагов квантования) заранее считать на каждое из трех попаданий
+    static final String SPECULATION_BUCKETS_PROPERTY = "movearm.neural.speculationBuckets";
+    private static final int SPECULATION_BUCKETS = Math.max(1, Integer.getInteger(SPECULATION_BUCKETS_PROPERTY, 16));
+    private static final double MAX_TTK_MS = 3000.0;
+
+    private static final int NUM_FEATURES = 16;
+    private static final int CAT_FEATURES = 4;
+
+    private static final GridGeometryTable GEOMETRY = GridGeometryTable.get();
+
+    // Строковые представления ячеек -1..95 для категориальных признаков
+    private static final String[] CELL_STRINGS = new String[TOTAL_CELLS + 1];
+    static {
+        for (int cell = -1; cell < TOTAL_CELLS; cell++) {
+            CELL_STRINGS[cell + 1] = String.valueOf(cell);
+        }
+    }
+
+    // Переиспользуемые буферы признаков: по одному на поток (FX и поток спекуляции)
+    private static final ThreadLocal<FeatureScratch> SCRATCH = ThreadLocal.withInitial(FeatureScratch::new);
 
     private TripletData lastData;
+    private SpeculativeBranch[] speculation;
+    private Future<?> speculationTask;
 
     public static class TripletData {
         public int t1Cell, t2Cell, t3Cell;
@@ -37,25 +82,139 @@ public class NeuralTripletGenerator {
         public long hitTtkNs = 0;
     }
 
-    // Вспомогательный класс для хранения весов кандидатов
-    private static class CellCandidate {
-        int cellIndex;
-        double weight;
-        double predictedTtk;
+    /**
+     * Неизменяемый снимок истории игрока, от которого зависят фичи микро-тренда.
+     * Неизменяемость позволяет безопасно отдавать его фоновым задачам.
+     */
+    private static final class HistorySnapshot {
+        static final HistorySnapshot EMPTY = new HistorySnapshot(new double[0], new double[0], -1, 0.0);
+
+        final double[] ttk;
+        final double[] distance;
+        final int lastHitCell;
+        final double lastAngle;
+
+        HistorySnapshot(double[] ttk, double[] distance, int lastHitCell, double lastAngle) {
+            this.ttk = ttk;
+            this.distance = distance;
+            this.lastHitCell = lastHitCell;
+            this.lastAngle = lastAngle;
+        }
+
+        HistorySnapshot afterHit(int hitCell, double ttkMs) {
+            double actualDistance = 0.0;
+            if (lastHitCell != -1) {
+                int prevX = lastHitCell % GRID_WIDTH;
+                int prevY = lastHitCell / GRID_WIDTH;
+                actualDistance = Math.hypot(hitCell % GRID_WIDTH - prevX, hitCell / GRID_WIDTH - prevY);
+            }
+            return new HistorySnapshot(append(ttk, ttkMs), append(distance, actualDistance), hitCell, angleAfterHit(hitCell));
+        }
+
+        /**
+         * Угол движения к hitCell — известен до попадания, в отличие от его TTK.
+         */
+        double angleAfterHit(int hitCell) {
+            if (lastHitCell == -1) return 0.0;
+            return Math.atan2(hitCell / GRID_WIDTH - lastHitCell / GRID_WIDTH,
+                    hitCell % GRID_WIDTH - lastHitCell % GRID_WIDTH);
+        }
+
+        private static double[] append(double[] values, double value) {
+            int keep = Math.min(values.length, HISTORY_SIZE - 1);
+            double[] out = new double[keep + 1];
+            System.arraycopy(values, values.length - keep, out, 0, keep);
+            out[keep] = value;
+            return out;
+        }
+
+        float rollingMean() {
+            if (ttk.length == 0) return 450.0f;
+            double sum = 0;
+            for (double val : ttk) sum += val;
+            return (float) (sum / ttk.length);
+        }
+
+        float rollingStd(float mean) {
+            if (ttk.length <= 1) return 0.0f;
+            double sumSquares = 0;
+            for (double val : ttk) sumSquares += Math.pow(val - mean, 2);
+            return (float) Math.sqrt(sumSquares / ttk.length);
+        }
+
+        float ttkDelta() {
+            if (ttk.length < 2) return 0.0f;
+            return (float) (ttk[ttk.length - 1] - ttk[ttk.length - 2]);
+        }
+
+        float prevVelocity() {
+            if (distance.length == 0 || ttk.length == 0) return 0.01f;
+            return (float) (distance[distance.length - 1] / ttk[ttk.length - 1]);
+        }
+    }
+
+    /**
+     * Готовое распределение весов кандидатов для пары оставшихся на экране целей.
+     */
+    private static final class CandidateDistribution {
+        final int active1, active2;
+        final int[] cells = new int[TOTAL_CELLS];
+        final double[] weights = new double[TOTAL_CELLS];
+        final double[] predictedTtk = new double[TOTAL_CELLS];
+        int size;
+        double totalWeight;
+
+        CandidateDistribution(int active1, int active2) {
+            this.active1 = active1;
+            this.active2 = active2;
+        }
+    }
+
+    /**
+     * Часть расчета, не зависящая от TTK: допустимые кандидаты и по три строки признаков
+     * на каждого (строки кандидата i — 3*i..3*i+2). В числовых строках заполнены геометрия,
+     * дистанция и углы (колонки 0-10 и 12); фичи микро-тренда (11, 13-15) дописывает
+     * finishDistribution по реальной истории.
+     */
+    private static final class PreparedCandidates {
+        final int[] cells = new int[TOTAL_CELLS];
+        final float[][] numRows = new float[TOTAL_CELLS * 3][NUM_FEATURES];
+        final String[][] catRows = new String[TOTAL_CELLS * 3][CAT_FEATURES];
+        int active1, active2, lastHitCell;
+        double lastAngle;
+        int size;
+    }
+
+    private static final class FeatureScratch {
+        final GeometryData geom = new GeometryData();
+        // Подготовка для синхронного пути; спекуляция получает собственные экземпляры
+        final PreparedCandidates prepared = new PreparedCandidates();
+        final double[] sumTtk = new double[TOTAL_CELLS];
+        final int[] missIndex = new int[TOTAL_CELLS];
+        final TtkPredictionCache.Key[] missKeys = new TtkPredictionCache.Key[TOTAL_CELLS];
+        // Ссылки на строки промахов кеша для пакетного вызова, без копирования
+        final float[][] batchNum = new float[TOTAL_CELLS * 3][];
+        final String[][] batchCat = new String[TOTAL_CELLS * 3][];
+        final double[] predictions = new double[TOTAL_CELLS * 3];
+    }
 
-        CellCandidate(int cellIndex, double weight, double predictedTtk) {
-            this.cellIndex = cellIndex;
-            this.weight = weight;
-            this.predictedTtk = predictedTtk;
+    /**
+     * Заранее посчитанные распределения для одного из трех возможных попаданий.
+     * Ключ — квантованные фичи истории после попадания (distributionKey); пишет поток спекуляции, читает FX.
+     */
+    private record SpeculativeBranch(int hitCell, int remaining1, int remaining2,
+                                     Map<TtkPredictionCache.Key, CandidateDistribution> distributions) {
+        boolean matches(int active1, int active2) {
+            return (remaining1 == active1 && remaining2 == active2)
+                    || (remaining1 == active2 && remaining2 == active1);
         }
     }
 
     /**
      * Генерирует третью ячейку, используя вероятностное распределение на основе предсказаний модели.
+     * Если для текущей пары уже готово спекулятивное распределение — берет его.
      */
     public int generateThirdCell(int active1, int active2, double screenW, double screenH) {
-        int totalCells = 96; 
-
         System.out.println("-> [PROBABILISTIC MODE] ИИ-Генератор вызван!");
 
         if (!modelService.isModelReady()) {
@@ -63,124 +222,352 @@ public class NeuralTripletGenerator {
             return generateRandomCell(active1, active2);
         }
 
-        // Фичи микро-тренда
-        float rollingMean = calculateHistoryMean();
-        float rollingStd = calculateHistoryStd(rollingMean);
-        float ttkDelta = 0.0f;
-        if (ttkHistory.size() >= 2) {
-            ttkDelta = (float) (ttkHistory.get(ttkHistory.size() - 1) - ttkHistory.get(ttkHistory.size() - 2));
+        try {
+            CandidateDistribution distribution = takeSpeculation(active1, active2);
+            if (distribution == null) {
+                distribution = computeDistribution(active1, active2, history, modelService, predictionCache);
+            }
+
+            // Шаг 2: Выбор случайной ячейки методом "Колеса Рулетки"
+            int idx = sample(distribution);
+            if (idx >= 0) {
+                int bestCell = distribution.cells[idx];
+                System.out.println("🎲 [Рулетка] Выбрана ячейка: " + bestCell
+                        + " (Предсказанный ТТК: " + String.format("%.2f", distribution.predictedTtk[idx]) + " мс, Вес: " + String.format("%.2f", distribution.weights[idx]) + ")");
+
+                // Запись метаданных (порядок пары — тот, на котором считалась модель)
+                recordMetadata(distribution.active1, distribution.active2, bestCell);
+                return bestCell;
+            }
+
+        } catch (Exception e) {
+            System.out.println("❌ Ошибка вероятностного расчета. Накатываем рандом.");
+            e.printStackTrace();
         }
-        float prevVelocity = 0.01f; 
-        if (!distanceHistory.isEmpty() && !ttkHistory.isEmpty()) {
-            prevVelocity = (float) (distanceHistory.getLast() / ttkHistory.getLast());
+
+        int fallbackCell = generateRandomCell(active1, active2);
+        recordMetadata(active1, active2, fallbackCell);
+        return fallbackCell;
+    }
+
+    /**
+     * Запускает в фоне расчет распределений для всех трех возможных попаданий по тройке на экране.
+     * Кандидаты и геометрия от TTK не зависят и готовятся один раз на попадание; дальше по кругу
+     * для всех трех попаданий считаются распределения для вероятных TTK, ближние к среднему — первыми.
+     * Задача выходит, как только спекуляция отменена или взята (смена поколения).
+     */
+    public void speculate(int t1, int t2, int t3) {
+        cancelSpeculation();
+        if (!modelService.isModelReady()) return;
+
+        HistorySnapshot base = history;
+        long generation = speculationGeneration.get();
+        int[] cells = {t1, t2, t3};
+
+        SpeculativeBranch[] branches = new SpeculativeBranch[3];
+        for (int i = 0; i < 3; i++) {
+            branches[i] = new SpeculativeBranch(cells[i], cells[i == 0 ? 1 : 0], cells[i == 2 ? 1 : 2],
+                    new ConcurrentHashMap<>());
         }
+        speculation = branches;
+        speculationTask = SPECULATION_EXECUTOR.submit(() -> {
+            try {
+                speculateDistributions(branches, base, modelService, predictionCache, speculationGeneration, generation);
+            } catch (Exception e) {
+                AppLogger.error("NeuralTripletGenerator: ошибка спекулятивного расчета", e);
+            }
+        });
+    }
 
-        int prevX = lastHitCellGlobal % GRID_WIDTH;
-        int prevY = lastHitCellGlobal / GRID_WIDTH;
+    public void cancelSpeculation() {
+        speculationGeneration.incrementAndGet();
+        if (speculationTask != null) speculationTask.cancel(false);
+        speculationTask = null;
+        speculation = null;
+    }
 
-        List<CellCandidate> candidates = new ArrayList<>();
-        double totalWeight = 0.0;
+    /**
+     * Берет готовое распределение для реального попадания и реальной истории, если оно уже посчитано.
+     * Оставшаяся фоновая работа останавливается в любом случае.
+     */
+    private CandidateDistribution takeSpeculation(int active1, int active2) {
+        SpeculativeBranch[] branches = speculation;
+        if (branches == null) return null;
+        cancelSpeculation();
+
+        CandidateDistribution ready = null;
+        for (SpeculativeBranch branch : branches) {
+            if (branch.hitCell() == history.lastHitCell && branch.matches(active1, active2)) {
+                ready = branch.distributions().get(distributionKey(branch.remaining1(), branch.remaining2(), history));
+                break;
+            }
+        }
+        AppLogger.debug(ready != null
+                ? "NeuralTripletGenerator: распределение посчитано заранее"
+                : "NeuralTripletGenerator: нужного TTK нет среди спекуляций, считаем синхронно");
+        return ready;
+    }
 
-        try {
-            // Шаг 1: Собираем предсказания для всех доступных ячеек
-            for (int candidateCell = 0; candidateCell < totalCells; candidateCell++) {
-                if (candidateCell == active1 || candidateCell == active2 || candidateCell == lastHitCellGlobal) {
-                    continue;
+    /**
+     * Ключ готового распределения: пара оставшихся целей, попадание и фичи истории,
+     * квантованные так же, как в TtkPredictionCache (candidate = -1 — распределение целиком).
+     */
+    private static TtkPredictionCache.Key distributionKey(int active1, int active2, HistorySnapshot h) {
+        float rollingMean = h.rollingMean();
+        return TtkPredictionCache.key(active1, active2, -1, h.lastHitCell, h.lastAngle,
+                rollingMean, h.rollingStd(rollingMean), h.ttkDelta(), h.prevVelocity());
+    }
+
+    /**
+     * Тело фоновой задачи спекуляции. Вероятные TTK берутся так, чтобы разность с предыдущим TTK
+     * попадала в центр шага квантования: соседние догадки дают разные ключи, а реальный TTK
+     * внутри шага чаще всего дает тот же ключ, что и догадка.
+     */
+    private static void speculateDistributions(SpeculativeBranch[] branches, HistorySnapshot base,
+                                               CatBoostModelService modelService, TtkPredictionCache cache,
+                                               AtomicLong generation, long expectedGeneration) {
+        PreparedCandidates[] prepared = new PreparedCandidates[branches.length];
+        for (int i = 0; i < branches.length; i++) {
+            SpeculativeBranch b = branches[i];
+            prepared[i] = prepareCandidates(b.remaining1(), b.remaining2(), b.hitCell(), base.angleAfterHit(b.hitCell()),
+                    new PreparedCandidates(), generation, expectedGeneration);
+            if (prepared[i] == null) return;
+        }
+
+        double step = TtkPredictionCache.TTK_STEP_MS;
+        double anchor = base.ttk.length == 0 ? 0.0 : base.ttk[base.ttk.length - 1];
+        long center = Math.round((base.rollingMean() - anchor) / step);
+
+        for (int k = 0; k < SPECULATION_BUCKETS; k++) {
+            // 0, +1, -1, +2, -2 ... шагов от среднего
+            long offset = (k + 1) / 2 * (k % 2 == 1 ? 1 : -1);
+            double ttkMs = anchor + (center + offset) * step;
+            if (ttkMs <= 0.0 || ttkMs > MAX_TTK_MS) continue;
+
+            for (int i = 0; i < branches.length; i++) {
+                if (generation.get() != expectedGeneration) return;
+                SpeculativeBranch b = branches[i];
+                HistorySnapshot afterHit = base.afterHit(b.hitCell(), ttkMs);
+                TtkPredictionCache.Key key = distributionKey(b.remaining1(), b.remaining2(), afterHit);
+                if (b.distributions().containsKey(key)) continue;
+                b.distributions().put(key, finishDistribution(prepared[i], afterHit, modelService, cache));
+            }
+        }
+    }
+
+    /**
+     * Полный расчет на текущем потоке: подготовка кандидатов и веса по истории h.
+     */
+    private static CandidateDistribution computeDistribution(int active1, int active2, HistorySnapshot h,
+                                                             CatBoostModelService modelService,
+                                                             TtkPredictionCache cache) {
+        PreparedCandidates prepared = prepareCandidates(active1, active2, h.lastHitCell, h.lastAngle,
+                SCRATCH.get().prepared, null, 0);
+        return finishDistribution(prepared, h, modelService, cache);
+    }
+
+    /**
+     * Собирает допустимых кандидатов и их строки признаков без фич, зависящих от TTK.
+     * Не трогает изменяемое состояние генератора, поэтому может выполняться в фоне.
+     * @param generation если не null, задача проверяет его на каждом кандидате
+     *                   и возвращает null, как только он отличается от expectedGeneration
+     */
+    private static PreparedCandidates prepareCandidates(int active1, int active2, int lastHitCell, double lastAngle,
+                                                        PreparedCandidates out,
+                                                        AtomicLong generation, long expectedGeneration) {
+        out.active1 = active1;
+        out.active2 = active2;
+        out.lastHitCell = lastHitCell;
+        out.lastAngle = lastAngle;
+        out.size = 0;
+
+        int prevX = lastHitCell % GRID_WIDTH;
+        int prevY = lastHitCell / GRID_WIDTH;
+        GeometryData geom = SCRATCH.get().geom;
+
+        for (int candidateCell = 0; candidateCell < TOTAL_CELLS; candidateCell++) {
+            if (generation != null && generation.get() != expectedGeneration) return null;
+            if (candidateCell == active1 || candidateCell == active2 || candidateCell == lastHitCell) {
+                continue;
+            }
+
+            int rowBase = out.size * 3;
+            boolean hasAnomaly = false;
+
+            // 3 сценария клика на кандидата
+            for (int simulatedHitIndex = 0; simulatedHitIndex < 3; simulatedHitIndex++) {
+                int targetCell = (simulatedHitIndex == 0) ? active1 : (simulatedHitIndex == 1) ? active2 : candidateCell;
+
+                double distance = distanceFromPrev(lastHitCell, prevX, prevY, targetCell);
+                double angle = angleFromPrev(lastHitCell, prevX, prevY, targetCell);
+                float angleDelta = (float) Math.abs(angle - lastAngle);
+
+                if (distance < 1.0) {
+                    hasAnomaly = true;
+                    break;
                 }
 
-                String[] catFeatures = new String[] {
-                    String.valueOf(active1), 
-                    String.valueOf(active2), 
-                    String.valueOf(candidateCell), 
-                    String.valueOf(lastHitCellGlobal)
-                };
+                TripletGeometry.compute(active1, active2, candidateCell, simulatedHitIndex, geom);
+
+                float[] row = out.numRows[rowBase + simulatedHitIndex];
+                row[0] = (float) distance;
+                row[1] = (float) angle;
+                row[2] = (float) geom.centroidRow;
+                row[3] = (float) geom.centroidCol;
+                row[4] = (float) geom.distanceFromCenter;
+                row[5] = (float) geom.angleVariance;
+                row[6] = (float) geom.spread;
+                row[7] = (float) geom.hitToMiss1Dist;
+                row[8] = (float) geom.hitToMiss2Dist;
+                row[9] = (float) geom.miss1ToMiss2Dist;
+                row[10] = FIXED_RADIUS;
+                row[12] = angleDelta;
+
+                String[] cat = out.catRows[rowBase + simulatedHitIndex];
+                cat[0] = cellString(active1);
+                cat[1] = cellString(active2);
+                cat[2] = cellString(candidateCell);
+                cat[3] = cellString(lastHitCell);
+            }
+
+            if (hasAnomaly) continue;
+            out.cells[out.size++] = candidateCell;
+        }
+        return out;
+    }
+
+    /**
+     * Дописывает фичи микро-тренда по истории h и считает веса кандидатов. Суммы TTK берутся
+     * из кеша, а промахи отправляются в модель одним пакетным вызовом.
+     * h должна заканчиваться тем же попаданием, для которого готовились кандидаты.
+     */
+    private static CandidateDistribution finishDistribution(PreparedCandidates prepared, HistorySnapshot h,
+                                                            CatBoostModelService modelService,
+                                                            TtkPredictionCache cache) {
+        // Фичи микро-тренда
+        float rollingMean = h.rollingMean();
+        float rollingStd = h.rollingStd(rollingMean);
+        float ttkDelta = h.ttkDelta();
+        float prevVelocity = h.prevVelocity();
+
+        int active1 = prepared.active1;
+        int active2 = prepared.active2;
+        int lastHitCell = prepared.lastHitCell;
+        int prevX = lastHitCell % GRID_WIDTH;
+        int prevY = lastHitCell / GRID_WIDTH;
+
+        CandidateDistribution out = new CandidateDistribution(active1, active2);
+
+        FeatureScratch scratch = SCRATCH.get();
+        double[] sumTtkByCandidate = scratch.sumTtk;
+        int[] missIndex = scratch.missIndex;
+        TtkPredictionCache.Key[] missKeys = scratch.missKeys;
+        float[][] batchNum = scratch.batchNum;
+        String[][] batchCat = scratch.batchCat;
+        int missCount = 0;
+
+        for (int i = 0; i < prepared.size; i++) {
+            TtkPredictionCache.Key key = TtkPredictionCache.key(active1, active2, prepared.cells[i], lastHitCell,
+                    prepared.lastAngle, rollingMean, rollingStd, ttkDelta, prevVelocity);
+            Double cachedSum = cache.get(key);
+            if (cachedSum != null) {
+                sumTtkByCandidate[i] = cachedSum;
+                continue;
+            }
+
+            for (int k = 0; k < 3; k++) {
+                float[] row = prepared.numRows[i * 3 + k];
+                row[11] = prevVelocity;
+                row[13] = rollingMean;
+                row[14] = rollingStd;
+                row[15] = ttkDelta;
+                batchNum[missCount * 3 + k] = row;
+                batchCat[missCount * 3 + k] = prepared.catRows[i * 3 + k];
+            }
+            missIndex[missCount] = i;
+            missKeys[missCount++] = key;
+        }
+
+        // Один нативный вызов на все промахи кеша вместо отдельного predict на каждую строку
+        if (missCount > 0) {
+            double[] predictions = scratch.predictions;
+            modelService.predictBatch(batchCat, batchNum, missCount * 3, predictions);
 
+            for (int m = 0; m < missCount; m++) {
                 double sumTtk = 0.0;
-                boolean hasAnomaly = false;
-
-                // Просчитываем 3 сценария клика
-                for (int simulatedHitIndex = 0; simulatedHitIndex < 3; simulatedHitIndex++) {
-                    int targetCell = (simulatedHitIndex == 0) ? active1 : (simulatedHitIndex == 1) ? active2 : candidateCell;
-                    
-                    int tX = targetCell % GRID_WIDTH;
-                    int tY = targetCell / GRID_WIDTH;
-
-                    double distance = Math.hypot(tX - prevX, tY - prevY);
-                    double angle = Math.atan2(tY - prevY, tX - prevX);
-                    float angleDelta = (float) Math.abs(angle - lastAngleGlobal);
-
-                    if (distance < 1.0) {
-                        hasAnomaly = true;
-                        break;
-                    }
-
-                    GeometryData geom = TripletGeometry.compute(active1, active2, candidateCell, simulatedHitIndex);
-
-                    float[] numFeatures = new float[] {
-                        (float) distance, (float) angle, (float) geom.centroidRow, (float) geom.centroidCol,
-                        (float) geom.distanceFromCenter, (float) geom.angleVariance, (float) geom.spread,
-                        (float) geom.hitToMiss1Dist, (float) geom.hitToMiss2Dist, (float) geom.miss1ToMiss2Dist,
-                        FIXED_RADIUS, prevVelocity, angleDelta, rollingMean, rollingStd, ttkDelta
-                    };
-
-                    double predictedTtk = modelService.predict(catFeatures, numFeatures);
-                    
+                for (int row = m * 3; row < m * 3 + 3; row++) {
+                    double predictedTtk = predictions[row];
+
                     // Отрезаем дикие галлюцинации модели
                     if (predictedTtk > 1500.0) predictedTtk = 600.0;
 
                     sumTtk += predictedTtk;
                 }
+                sumTtkByCandidate[missIndex[m]] = sumTtk;
+                cache.put(missKeys[m], sumTtk);
+            }
+        }
 
-                if (hasAnomaly) continue;
-
-                double averageTtk = sumTtk / 3.0;
+        for (int i = 0; i < prepared.size; i++) {
+            int candidateCell = prepared.cells[i];
 
-                // Вычисляем физическое расстояние от курсора до проверяемого кандидата
-                int candX = candidateCell % GRID_WIDTH;
-                int candY = candidateCell / GRID_WIDTH;
-                double distFromCursor = Math.hypot(candX - prevX, candY - prevY);
+            double averageTtk = sumTtkByCandidate[i] / 3.0;
 
-                // МЯГКИЙ ШТРАФ ЗА БЛИЗОСТЬ (Математический барьер):
-                // Если ячейка ближе чем на 3 шага, мы экспоненциально уменьшаем её базовый ТТК для расчета весов.
-                if (lastHitCellGlobal != -1 && distFromCursor < 3.0) {
-                    averageTtk *= (distFromCursor / 3.0); 
-                }
+            // Вычисляем физическое расстояние от курсора до проверяемого кандидата
+            double distFromCursor = distanceFromPrev(lastHitCell, prevX, prevY, candidateCell);
 
-                // Превращаем ТТК в вес. Используем смещение (-300), чтобы увеличить контраст между сложными и легкими целями
-                double weight = Math.exp((averageTtk - 300.0) / 100.0);
-                if (weight < 0.01) weight = 0.01; // минимальный вес, чтобы шанс не упал в ноль
-
-                candidates.add(new CellCandidate(candidateCell, weight, averageTtk));
-                totalWeight += weight;
+            // МЯГКИЙ ШТРАФ ЗА БЛИЗОСТЬ (Математический барьер):
+            // Если ячейка ближе чем на 3 шага, мы экспоненциально уменьшаем её базовый ТТК для расчета весов.
+            if (lastHitCell != -1 && distFromCursor < 3.0) {
+                averageTtk *= (distFromCursor / 3.0);
             }
 
-            // Шаг 2: Выбор случайной ячейки методом "Колеса Рулетки"
-            if (!candidates.isEmpty()) {
-                double targetRoll = random.nextDouble() * totalWeight;
-                double currentSum = 0.0;
-
-                for (CellCandidate candidate : candidates) {
-                    currentSum += candidate.weight;
-                    if (currentSum >= targetRoll) {
-                        int bestCell = candidate.cellIndex;
-                        System.out.println("🎲 [Рулетка] Выбрана ячейка: " + bestCell 
-                                + " (Предсказанный ТТК: " + String.format("%.2f", candidate.predictedTtk) + " мс, Вес: " + String.format("%.2f", candidate.weight) + ")");
-                        
-                        // Запись метаданных
-                        recordMetadata(active1, active2, bestCell);
-                        return bestCell;
-                    }
-                }
-            }
+            // Превращаем ТТК в вес. Используем смещение (-300), чтобы увеличить контраст между сложными и легкими целями
+            double weight = Math.exp((averageTtk - 300.0) / 100.0);
+            if (weight < 0.01) weight = 0.01; // минимальный вес, чтобы шанс не упал в ноль
 
-        } catch (Exception e) {
-            System.out.println("❌ Ошибка вероятностного расчета. Накатываем рандом.");
-            e.printStackTrace();
+            out.cells[out.size] = candidateCell;
+            out.weights[out.size] = weight;
+            out.predictedTtk[out.size] = averageTtk;
+            out.size++;
+            out.totalWeight += weight;
         }
 
-        int fallbackCell = generateRandomCell(active1, active2);
-        recordMetadata(active1, active2, fallbackCell);
-        return fallbackCell;
+        return out;
+    }
+
+    // Для первого выстрела lastHitCell == -1 (точка вне грида) — считаем напрямую, иначе из таблицы
+    private static double distanceFromPrev(int lastHitCell, int prevX, int prevY, int cell) {
+        if (lastHitCell >= 0) return GEOMETRY.distance(lastHitCell, cell);
+        return Math.hypot(cell % GRID_WIDTH - prevX, cell / GRID_WIDTH - prevY);
+    }
+
+    private static double angleFromPrev(int lastHitCell, int prevX, int prevY, int cell) {
+        if (lastHitCell >= 0) return GEOMETRY.angle(lastHitCell, cell);
+        return Math.atan2(cell / GRID_WIDTH - prevY, cell % GRID_WIDTH - prevX);
+    }
+
+    private static String cellString(int cell) {
+        return CELL_STRINGS[cell + 1];
+    }
+
+    /**
+     * Колесо рулетки по готовому распределению.
+     * @return индекс выбранного кандидата или -1, если кандидатов нет
+     */
+    private int sample(CandidateDistribution distribution) {
+        if (distribution.size == 0) return -1;
+
+        double targetRoll = random.nextDouble() * distribution.totalWeight;
+        double currentSum = 0.0;
+
+        for (int i = 0; i < distribution.size; i++) {
+            currentSum += distribution.weights[i];
+            if (currentSum >= targetRoll) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     private void recordMetadata(int active1, int active2, int finalCell) {
@@ -190,67 +577,36 @@ public class NeuralTripletGenerator {
         this.lastData.t3Cell = finalCell;
         this.lastData.spawnNs = System.nanoTime();
     }
-    
+
     public void onHit(int hitCell, long lifetimeNs) {
         double currentTtkMs = lifetimeNs / 1_000_000.0;
-        if (currentTtkMs > 3000.0) currentTtkMs = 3000.0;
-
-        if (lastHitCellGlobal != -1) {
-            int prevX = lastHitCellGlobal % GRID_WIDTH;
-            int prevY = lastHitCellGlobal / GRID_WIDTH;
-            int currX = hitCell % GRID_WIDTH;
-            int currY = hitCell / GRID_WIDTH;
-            double actualDistance = Math.hypot(currX - prevX, currY - prevY);
-            distanceHistory.addLast(actualDistance);
-            lastAngleGlobal = Math.atan2(currY - prevY, currX - prevX);
-        } else {
-            distanceHistory.addLast(0.0);
-            lastAngleGlobal = 0.0;
-        }
+        if (currentTtkMs > MAX_TTK_MS) currentTtkMs = MAX_TTK_MS;
+
+        history = history.afterHit(hitCell, currentTtkMs);
 
-        ttkHistory.addLast(currentTtkMs);
-        if (ttkHistory.size() > 5) ttkHistory.removeFirst();
-        if (distanceHistory.size() > 5) distanceHistory.removeFirst();
-        
         if (lastData != null) {
             lastData.hitTtkNs = lifetimeNs;
             if (hitCell == lastData.t1Cell) lastData.hitIndex = 0;
             else if (hitCell == lastData.t2Cell) lastData.hitIndex = 1;
             else if (hitCell == lastData.t3Cell) lastData.hitIndex = 2;
         }
-
-        lastHitCellGlobal = hitCell;
     }
-    
+
     public void reset() {
-        ttkHistory.clear();
-        distanceHistory.clear();
-        lastHitCellGlobal = -1;
-        lastAngleGlobal = 0.0;
+        cancelSpeculation();
+        history = HistorySnapshot.EMPTY;
         lastData = null;
     }
 
     public TripletData getLastData() { return lastData; }
 
+    public String getPredictionCacheStats() { return predictionCache.getStats(); }
+
     private int generateRandomCell(int active1, int active2) {
         int cell;
         do {
-            cell = random.nextInt(96);
-        } while (cell == active1 || cell == active2 || cell == lastHitCellGlobal);
+            cell = random.nextInt(TOTAL_CELLS);
+        } while (cell == active1 || cell == active2 || cell == history.lastHitCell);
         return cell;
     }
-
-    private float calculateHistoryMean() {
-        if (ttkHistory.isEmpty()) return 450.0f; 
-        double sum = 0;
-        for (double val : ttkHistory) sum += val;
-        return (float) (sum / ttkHistory.size());
-    }
-
-    private float calculateHistoryStd(float mean) {
-        if (ttkHistory.size() <= 1) return 0.0f;
-        double sumSquares = 0;
-        for (double val : ttkHistory) sumSquares += Math.pow(val - mean, 2);
-        return (float) Math.sqrt(sumSquares / ttkHistory.size());
-    }
-}
\ No newline at end of file
+}
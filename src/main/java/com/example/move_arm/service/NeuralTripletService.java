@@ -6,12 +6,14 @@ import java.sql.SQLException;
 import java.util.List;
 
 import com.example.move_arm.database.DatabaseManager;
+import com.example.move_arm.database.TargetTripletDao;
 import com.example.move_arm.model.TripletRecord;
 import com.example.move_arm.util.AppLogger;
 
 public class NeuralTripletService {
 
     private static final NeuralTripletService INSTANCE = new NeuralTripletService();
+    private final TargetTripletDao tripletDao = new TargetTripletDao();
     private NeuralTripletService() {}
 
     public static NeuralTripletService getInstance() {
@@ -63,28 +65,8 @@ public class NeuralTripletService {
     }
 
     public void saveTripletsBatch(List<TripletRecord> records) {
-        String sql = """
-            INSERT INTO target_triplets (
-                user_id, timestamp, triplet_index, spawn_ns,
-                t1_cell, t2_cell, t3_cell, hit_target_index, hit_ttk_ns, radius,
-                centroid_row, centroid_col, t1_angle, t2_angle, t3_angle,
-                hit_to_miss1_dist, hit_to_miss2_dist, miss1_to_miss2_dist, spread,
-                screen_width, screen_height, previous_hit_cell
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-            """;
-
-        try (Connection c = DatabaseManager.getInstance().getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            for (TripletRecord rec : records) {
-                setParams(ps, rec.userId, rec.timestamp, rec.tripletIndex, rec.spawnNs,
-                        rec.t1Cell, rec.t2Cell, rec.t3Cell, rec.hitTargetIndex, rec.hitTtkNs, rec.radius,
-                        rec.centroidRow, rec.centroidCol, rec.t1Angle, rec.t2Angle, rec.t3Angle,
-                        rec.hitToMiss1Dist, rec.hitToMiss2Dist, rec.miss1ToMiss2Dist, rec.spread,
-                        rec.screenWidth, rec.screenHeight, rec.previousHitCell);  // ← добавили
-                ps.addBatch();
-            }
-            ps.executeBatch();
+        try {
+            tripletDao.insertBatch(records);
         } catch (Exception e) {
             AppLogger.error("NeuralTripletService: ошибка batch-сохранения", e);
             throw new RuntimeException("Не удалось сохранить тройки", e);
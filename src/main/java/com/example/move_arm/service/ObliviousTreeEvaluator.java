@@ -0,0 +1,613 @@
+package com.example.move_arm.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.move_arm.util.MiniJson;
+
+/**
+ * Чистый Java-вычислитель симметричных (oblivious) деревьев CatBoost — экспериментальный бэкенд.
+ * Загружает JSON-экспорт модели (model.save_model(path, format="json"))
+ * в плоские примитивные массивы и считает предсказание без JNI и без
+ * упаковки признаков в матрицы.
+ *
+ * Поддерживаются сплиты FloatFeature, OneHotFeature и OnlineCtr — последние нужны рабочей
+ * модели aim_catboost_model: номера ячеек она кодирует через CTR. Значения CTR считаются как
+ * в вычислителе CatBoost: хеш проекции (категориальные признаки и бинаризованные условия)
+ * ищется в таблице счетчиков ctr_data, из счетчиков и приоров получается число,
+ * которое сравнивается с границей сплита.
+ *
+ * JSON-экспорт должен быть сделан из того же .cbm, что использует JNI; в ресурсы он не входит.
+ * Сравнение бэкендов на одной модели — CatBoostBackendBenchmark (профиль benchmark).
+ */
+public class ObliviousTreeEvaluator {
+
+    private static final byte SPLIT_FLOAT = 0;
+    private static final byte SPLIT_ONE_HOT = 1;
+    private static final byte SPLIT_CTR = 2;
+
+    private static final byte CTR_BORDERS = 0;
+    private static final byte CTR_BUCKETS = 1;
+    private static final byte CTR_COUNTER = 2;
+    private static final byte CTR_MEAN = 3;
+
+    private static final long HASH_MAGIC_MULT = 0x4906ba494954cb65L;
+
+    // Все деревья подряд: сплиты дерева t лежат в [treeSplitStart[t], treeSplitStart[t + 1])
+    private final int[] treeSplitStart;
+    private final int[] treeLeafStart;
+    private final byte[] splitType;
+    // Для SPLIT_CTR — индекс CTR в ctr*-массивах
+    private final int[] splitFeature;
+    private final float[] splitBorder;
+    private final int[] splitCatHash;
+    private final double[] leafValues;
+
+    // CTR модели: у нескольких CTR может быть одна проекция, ее хеш считается один раз на строку
+    private final CtrProjection[] projections;
+    private final int[] ctrProjection;
+    private final byte[] ctrType;
+    private final int[] ctrTargetBorder;
+    private final double[] ctrPriorNum;
+    private final double[] ctrPriorDenom;
+    private final double[] ctrShift;
+    private final double[] ctrScale;
+    private final CtrTable[] ctrTable;
+
+    // Буферы хешей категориальных признаков и значений CTR: по одному на поток (FX и поток спекуляции)
+    private static final ThreadLocal<HashScratch> SCRATCH = ThreadLocal.withInitial(HashScratch::new);
+
+    private final double scale;
+    private final double bias;
+    private final int floatFeatureCount;
+    private final int catFeatureCount;
+
+    @SuppressWarnings("unchecked")
+    public ObliviousTreeEvaluator(String modelJson) {
+        Map<String, Object> root = (Map<String, Object>) MiniJson.parse(modelJson);
+
+        Map<String, Object> featuresInfo = (Map<String, Object>) root.get("features_info");
+        List<Object> floatFeatures = listOf(featuresInfo, "float_features");
+        List<Object> catFeatures = listOf(featuresInfo, "categorical_features");
+        List<Object> ctrs = listOf(featuresInfo, "ctrs");
+        floatFeatureCount = floatFeatures.size();
+        catFeatureCount = catFeatures.size();
+
+        List<Object> trees = (List<Object>) root.get("oblivious_trees");
+        if (trees == null) {
+            throw new IllegalArgumentException("ObliviousTreeEvaluator: в JSON нет oblivious_trees");
+        }
+
+        // split_index сквозной по бинарным признакам модели: границы float, значения one-hot, границы CTR
+        int ctrSplitBase = 0;
+        for (Object f : floatFeatures) ctrSplitBase += listOf((Map<String, Object>) f, "borders").size();
+        for (Object f : catFeatures) ctrSplitBase += listOf((Map<String, Object>) f, "values").size();
+
+        Map<String, Map<String, Object>> ctrData = (Map<String, Map<String, Object>>) root.get("ctr_data");
+        int ctrCount = ctrs.size();
+        ctrProjection = new int[ctrCount];
+        ctrType = new byte[ctrCount];
+        ctrTargetBorder = new int[ctrCount];
+        ctrPriorNum = new double[ctrCount];
+        ctrPriorDenom = new double[ctrCount];
+        ctrShift = new double[ctrCount];
+        ctrScale = new double[ctrCount];
+        ctrTable = new CtrTable[ctrCount];
+        List<CtrProjection> projectionList = new ArrayList<>();
+        Map<String, Integer> projectionIndex = new HashMap<>();
+        Map<String, CtrTable> tables = new HashMap<>();
+        List<int[]> ctrSplits = new ArrayList<>();   // {индекс CTR, индекс границы}
+        List<Float> ctrSplitBorders = new ArrayList<>();
+
+        for (int i = 0; i < ctrCount; i++) {
+            Map<String, Object> ctr = (Map<String, Object>) ctrs.get(i);
+            List<Object> elements = listOf(ctr, "elements");
+            String projectionKey = elements.toString();
+            Integer proj = projectionIndex.get(projectionKey);
+            if (proj == null) {
+                proj = projectionList.size();
+                projectionList.add(CtrProjection.parse(elements));
+                projectionIndex.put(projectionKey, proj);
+            }
+            ctrProjection[i] = proj;
+
+            String type = (String) (ctr.containsKey("type") ? ctr.get("type") : ctr.get("ctr_type"));
+            ctrType[i] = ctrTypeCode(type);
+            ctrTargetBorder[i] = (int) number(ctr, 0, "target_border_idx");
+            ctrPriorNum[i] = number(ctr, 0, "prior_numerator");
+            ctrPriorDenom[i] = number(ctr, 1, "prior_denomerator", "prior_denominator");
+            ctrShift[i] = number(ctr, 0, "shift");
+            ctrScale[i] = number(ctr, 1, "scale");
+
+            String identifier = (String) ctr.get("identifier");
+            Map<String, Object> data = ctrData == null ? null : ctrData.get(identifier);
+            if (data == null) {
+                throw new IllegalArgumentException("ObliviousTreeEvaluator: нет ctr_data для " + identifier);
+            }
+            ctrTable[i] = tables.computeIfAbsent(identifier, k -> CtrTable.parse(data));
+
+            for (Object border : listOf(ctr, "borders")) {
+                ctrSplits.add(new int[] {i, ctrSplits.size()});
+                ctrSplitBorders.add(((Number) border).floatValue());
+            }
+        }
+        projections = projectionList.toArray(new CtrProjection[0]);
+
+        int totalSplits = 0;
+        int totalLeaves = 0;
+        for (Object t : trees) {
+            Map<String, Object> tree = (Map<String, Object>) t;
+            totalSplits += ((List<Object>) tree.get("splits")).size();
+            totalLeaves += ((List<Object>) tree.get("leaf_values")).size();
+        }
+
+        treeSplitStart = new int[trees.size() + 1];
+        treeLeafStart = new int[trees.size() + 1];
+        splitType = new byte[totalSplits];
+        splitFeature = new int[totalSplits];
+        splitBorder = new float[totalSplits];
+        splitCatHash = new int[totalSplits];
+        leafValues = new double[totalLeaves];
+
+        int s = 0;
+        int l = 0;
+        for (int t = 0; t < trees.size(); t++) {
+            Map<String, Object> tree = (Map<String, Object>) trees.get(t);
+            treeSplitStart[t] = s;
+            treeLeafStart[t] = l;
+
+            for (Object sp : (List<Object>) tree.get("splits")) {
+                Map<String, Object> split = (Map<String, Object>) sp;
+                String type = (String) split.get("split_type");
+                if ("FloatFeature".equals(type)) {
+                    splitType[s] = SPLIT_FLOAT;
+                    splitFeature[s] = toInt(split.get("float_feature_index"));
+                    splitBorder[s] = ((Number) split.get("border")).floatValue();
+                } else if ("OneHotFeature".equals(type)) {
+                    splitType[s] = SPLIT_ONE_HOT;
+                    splitFeature[s] = toInt(split.get("cat_feature_index"));
+                    splitCatHash[s] = (int) ((Number) split.get("value")).longValue();
+                } else if ("OnlineCtr".equals(type)) {
+                    int ctrSplit = toInt(split.get("split_index")) - ctrSplitBase;
+                    if (ctrSplit < 0 || ctrSplit >= ctrSplits.size()) {
+                        throw new IllegalArgumentException(
+                                "ObliviousTreeEvaluator: split_index CTR вне features_info.ctrs: " + split);
+                    }
+                    splitType[s] = SPLIT_CTR;
+                    splitFeature[s] = ctrSplits.get(ctrSplit)[0];
+                    splitBorder[s] = split.get("border") instanceof Number b
+                            ? b.floatValue()
+                            : ctrSplitBorders.get(ctrSplit);
+                } else {
+                    throw new UnsupportedOperationException(
+                            "ObliviousTreeEvaluator: сплит " + type + " не поддерживается");
+                }
+                s++;
+            }
+
+            for (Object v : (List<Object>) tree.get("leaf_values")) {
+                leafValues[l++] = ((Number) v).doubleValue();
+            }
+        }
+        treeSplitStart[trees.size()] = s;
+        treeLeafStart[trees.size()] = l;
+
+        double parsedScale = 1.0;
+        double parsedBias = 0.0;
+        List<Object> scaleAndBias = (List<Object>) root.get("scale_and_bias");
+        if (scaleAndBias != null && scaleAndBias.size() == 2) {
+            parsedScale = ((Number) scaleAndBias.get(0)).doubleValue();
+            Object b = scaleAndBias.get(1);
+            if (b instanceof List<?> biasList && !biasList.isEmpty()) {
+                parsedBias = ((Number) biasList.get(0)).doubleValue();
+            } else if (b instanceof Number n) {
+                parsedBias = n.doubleValue();
+            }
+        }
+        scale = parsedScale;
+        bias = parsedBias;
+    }
+
+    public int getFloatFeatureCount() { return floatFeatureCount; }
+    public int getCatFeatureCount() { return catFeatureCount; }
+
+    /**
+     * Предсказание для одного объекта. Контракт совпадает с CatBoostModelService.predict.
+     */
+    public double predict(String[] catFeatures, float[] numFeatures) {
+        HashScratch scratch = SCRATCH.get();
+        int[] catHashes = scratch.hashes(catFeatures.length);
+        for (int i = 0; i < catFeatures.length; i++) {
+            catHashes[i] = scratch.hash(catFeatures[i]);
+        }
+        return predictHashed(catHashes, 0, numFeatures, scratch);
+    }
+
+    /**
+     * Пакетное предсказание по первым rows строкам. Категориальные признаки всех строк
+     * хешируются один раз в переиспользуемый буфер, затем деревья проходятся по строкам
+     * без выделений. Контракт совпадает с CatBoostModelService.predictBatch.
+     */
+    public void predictBatch(String[][] catFeatures, float[][] numFeatures, int rows, double[] out) {
+        HashScratch scratch = SCRATCH.get();
+        int width = rows == 0 ? 0 : catFeatures[0].length;
+        int[] catHashes = scratch.hashes(rows * width);
+        for (int r = 0; r < rows; r++) {
+            String[] row = catFeatures[r];
+            for (int i = 0; i < width; i++) {
+                catHashes[r * width + i] = scratch.hash(row[i]);
+            }
+        }
+        for (int r = 0; r < rows; r++) {
+            out[r] = predictHashed(catHashes, r * width, numFeatures[r], scratch);
+        }
+    }
+
+    /**
+     * Предсказание по заранее посчитанным хешам категориальных признаков.
+     */
+    public double predictHashed(int[] catHashes, float[] numFeatures) {
+        return predictHashed(catHashes, 0, numFeatures, SCRATCH.get());
+    }
+
+    private double predictHashed(int[] catHashes, int catOffset, float[] numFeatures, HashScratch scratch) {
+        double[] ctrValues = ctrTable.length == 0 ? null : computeCtrs(catHashes, catOffset, numFeatures, scratch);
+
+        double sum = 0.0;
+        int treeCount = treeSplitStart.length - 1;
+        for (int t = 0; t < treeCount; t++) {
+            int leaf = 0;
+            int depth = 0;
+            for (int s = treeSplitStart[t]; s < treeSplitStart[t + 1]; s++, depth++) {
+                boolean bit = switch (splitType[s]) {
+                    case SPLIT_FLOAT -> numFeatures[splitFeature[s]] > splitBorder[s];
+                    case SPLIT_ONE_HOT -> catHashes[catOffset + splitFeature[s]] == splitCatHash[s];
+                    default -> ctrValues[splitFeature[s]] > splitBorder[s];
+                };
+                if (bit) leaf |= 1 << depth;
+            }
+            sum += leafValues[treeLeafStart[t] + leaf];
+        }
+        return sum * scale + bias;
+    }
+
+    /**
+     * Значения всех CTR модели для одной строки (как TModelCtr::Calc в CatBoost).
+     */
+    private double[] computeCtrs(int[] catHashes, int catOffset, float[] numFeatures, HashScratch scratch) {
+        long[] projectionHashes = scratch.projectionHashes(projections.length);
+        for (int p = 0; p < projections.length; p++) {
+            projectionHashes[p] = projections[p].hash(catHashes, catOffset, numFeatures);
+        }
+
+        double[] values = scratch.ctrValues(ctrTable.length);
+        for (int i = 0; i < ctrTable.length; i++) {
+            CtrTable table = ctrTable[i];
+            int bucket = table.bucket(projectionHashes[ctrProjection[i]]);
+            double good = 0.0;
+            double total = 0.0;
+            if (bucket >= 0) {
+                int base = bucket * table.stride;
+                double[] v = table.values;
+                switch (ctrType[i]) {
+                    case CTR_COUNTER -> {
+                        good = v[base];
+                        total = table.counterDenominator;
+                    }
+                    case CTR_MEAN -> {
+                        good = v[base];
+                        total = v[base + 1];
+                    }
+                    case CTR_BUCKETS -> {
+                        good = v[base + ctrTargetBorder[i]];
+                        for (int k = 0; k < table.stride; k++) total += v[base + k];
+                    }
+                    default -> {
+                        // Borders: "хорошие" — классы выше целевой границы
+                        if (table.stride == 2) {
+                            good = v[base + 1];
+                            total = v[base] + v[base + 1];
+                        } else {
+                            for (int k = 0; k < table.stride; k++) {
+                                if (k > ctrTargetBorder[i]) good += v[base + k];
+                                total += v[base + k];
+                            }
+                        }
+                    }
+                }
+            }
+            double ctr = (good + ctrPriorNum[i]) / (total + ctrPriorDenom[i]);
+            values[i] = (ctr + ctrShift[i]) * ctrScale[i];
+        }
+        return values;
+    }
+
+    private static byte ctrTypeCode(String type) {
+        if (type == null) {
+            throw new IllegalArgumentException("ObliviousTreeEvaluator: у CTR нет типа");
+        }
+        return switch (type) {
+            case "Borders" -> CTR_BORDERS;
+            case "Buckets" -> CTR_BUCKETS;
+            case "Counter", "FeatureFreq" -> CTR_COUNTER;
+            case "BinarizedTargetMeanValue", "FloatTargetMeanValue" -> CTR_MEAN;
+            default -> throw new UnsupportedOperationException("ObliviousTreeEvaluator: CTR " + type + " не поддерживается");
+        };
+    }
+
+    /**
+     * CalcHash из CatBoost: комбинирование хешей проекции, арифметика по модулю 2^64.
+     */
+    private static long calcHash(long a, long b) {
+        return HASH_MAGIC_MULT * (a + HASH_MAGIC_MULT * b);
+    }
+
+    /**
+     * Проекция CTR: набор категориальных признаков и бинарных условий, по которым строится ключ счетчика.
+     */
+    private static final class CtrProjection {
+        final int[] catFeatures;
+        final int[] floatFeatures;
+        final float[] floatBorders;
+        final int[] oneHotFeatures;
+        final int[] oneHotValues;
+
+        private CtrProjection(int[] catFeatures, int[] floatFeatures, float[] floatBorders,
+                              int[] oneHotFeatures, int[] oneHotValues) {
+            this.catFeatures = catFeatures;
+            this.floatFeatures = floatFeatures;
+            this.floatBorders = floatBorders;
+            this.oneHotFeatures = oneHotFeatures;
+            this.oneHotValues = oneHotValues;
+        }
+
+        @SuppressWarnings("unchecked")
+        static CtrProjection parse(List<Object> elements) {
+            List<Integer> cats = new ArrayList<>();
+            List<Integer> floats = new ArrayList<>();
+            List<Float> borders = new ArrayList<>();
+            List<Integer> oneHots = new ArrayList<>();
+            List<Integer> oneHotValues = new ArrayList<>();
+            for (Object e : elements) {
+                Map<String, Object> element = (Map<String, Object>) e;
+                String kind = (String) element.get("combination_element");
+                switch (kind) {
+                    case "cat_feature_value" -> cats.add(toInt(element.get("cat_feature_index")));
+                    case "float_feature" -> {
+                        floats.add(toInt(element.get("float_feature_index")));
+                        borders.add(((Number) element.get("border")).floatValue());
+                    }
+                    case "cat_feature_exact_value" -> {
+                        oneHots.add(toInt(element.get("cat_feature_index")));
+                        oneHotValues.add((int) ((Number) element.get("value")).longValue());
+                    }
+                    default -> throw new UnsupportedOperationException(
+                            "ObliviousTreeEvaluator: элемент проекции " + kind + " не поддерживается");
+                }
+            }
+            float[] floatBorders = new float[borders.size()];
+            for (int i = 0; i < floatBorders.length; i++) floatBorders[i] = borders.get(i);
+            return new CtrProjection(toArray(cats), toArray(floats), floatBorders, toArray(oneHots), toArray(oneHotValues));
+        }
+
+        long hash(int[] catHashes, int catOffset, float[] numFeatures) {
+            long h = 0;
+            for (int f : catFeatures) {
+                // Как (ui64)(int) в CatBoost: 32-битный хеш расширяется со знаком
+                h = calcHash(h, catHashes[catOffset + f]);
+            }
+            for (int i = 0; i < floatFeatures.length; i++) {
+                h = calcHash(h, numFeatures[floatFeatures[i]] > floatBorders[i] ? 1 : 0);
+            }
+            for (int i = 0; i < oneHotFeatures.length; i++) {
+                h = calcHash(h, catHashes[catOffset + oneHotFeatures[i]] == oneHotValues[i] ? 1 : 0);
+            }
+            return h;
+        }
+
+        private static int[] toArray(List<Integer> list) {
+            int[] out = new int[list.size()];
+            for (int i = 0; i < out.length; i++) out[i] = list.get(i);
+            return out;
+        }
+    }
+
+    /**
+     * Таблица счетчиков одного CTR из ctr_data: хеш проекции → stride значений
+     * (счетчики классов, сумма и число для средних, одно число для Counter).
+     * Открытая адресация по long-ключам: поиск без упаковки и выделений.
+     */
+    private static final class CtrTable {
+        final int stride;
+        final double counterDenominator;
+        final double[] values;
+        private final long[] keys;
+        private final int[] buckets;
+        private final int mask;
+
+        private CtrTable(int stride, double counterDenominator, long[] hashes, double[] values) {
+            this.stride = stride;
+            this.counterDenominator = counterDenominator;
+            this.values = values;
+            int capacity = Integer.highestOneBit(Math.max(hashes.length, 1) * 2 - 1) << 1;
+            this.keys = new long[capacity];
+            this.buckets = new int[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(buckets, -1);
+            for (int b = 0; b < hashes.length; b++) {
+                int slot = slot(hashes[b]);
+                while (buckets[slot] >= 0) slot = (slot + 1) & mask;
+                keys[slot] = hashes[b];
+                buckets[slot] = b;
+            }
+        }
+
+        static CtrTable parse(Map<String, Object> data) {
+            int hashStride = (int) number(data, 0, "hash_stride");
+            List<Object> hashMap = listOf(data, "hash_map");
+            if (hashStride < 2 || hashMap.size() % hashStride != 0) {
+                throw new IllegalArgumentException("ObliviousTreeEvaluator: некорректный hash_map в ctr_data");
+            }
+            int stride = hashStride - 1;
+            int count = hashMap.size() / hashStride;
+            long[] hashes = new long[count];
+            double[] values = new double[count * stride];
+            for (int b = 0; b < count; b++) {
+                hashes[b] = toUnsignedLong(hashMap.get(b * hashStride));
+                for (int k = 0; k < stride; k++) {
+                    values[b * stride + k] = ((Number) hashMap.get(b * hashStride + 1 + k)).doubleValue();
+                }
+            }
+            return new CtrTable(stride, number(data, 0, "counter_denominator"), hashes, values);
+        }
+
+        int bucket(long hash) {
+            int slot = slot(hash);
+            while (true) {
+                int b = buckets[slot];
+                if (b < 0) return -1;
+                if (keys[slot] == hash) return b;
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private int slot(long hash) {
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+
+    /**
+     * Хеш категориального значения так же, как его считает CatBoost
+     * (младшие 32 бита CityHash64 от UTF-8 байтов строки).
+     * Реализована ветка для строк до 16 байт — наши признаки это номера ячеек.
+     */
+    public static int catFeatureHash(String value) {
+        byte[] s = value.getBytes(StandardCharsets.UTF_8);
+        return (int) cityHash64Short(s, s.length);
+    }
+
+    /**
+     * Буфер хешей и байтов строки. Для ASCII-строк до 16 символов (номера ячеек)
+     * хеш считается без getBytes, то есть без выделений на строку.
+     */
+    private static final class HashScratch {
+        private int[] hashes = new int[64];
+        private long[] projectionHashes = new long[16];
+        private double[] ctrValues = new double[16];
+        private final byte[] bytes = new byte[16];
+
+        int[] hashes(int size) {
+            if (hashes.length < size) {
+                hashes = Arrays.copyOf(hashes, Math.max(size, hashes.length * 2));
+            }
+            return hashes;
+        }
+
+        long[] projectionHashes(int size) {
+            if (projectionHashes.length < size) projectionHashes = new long[size];
+            return projectionHashes;
+        }
+
+        double[] ctrValues(int size) {
+            if (ctrValues.length < size) ctrValues = new double[size];
+            return ctrValues;
+        }
+
+        int hash(String value) {
+            int len = value.length();
+            if (len > bytes.length) return catFeatureHash(value);
+            for (int i = 0; i < len; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) return catFeatureHash(value);
+                bytes[i] = (byte) c;
+            }
+            return (int) cityHash64Short(bytes, len);
+        }
+    }
+
+    private static final long K2 = 0x9ae16a3b2f90404fL;
+    private static final long K3 = 0xc949d7c7509e6557L;
+    private static final long K_MUL = 0x9ddfea08eb382d69L;
+
+    private static long cityHash64Short(byte[] s, int len) {
+        if (len > 16) {
+            throw new IllegalArgumentException("ObliviousTreeEvaluator: категориальное значение длиннее 16 байт");
+        }
+        if (len > 8) {
+            long a = fetch64(s, 0);
+            long b = fetch64(s, len - 8);
+            return hashLen16(a, Long.rotateRight(b + len, len)) ^ b;
+        }
+        if (len >= 4) {
+            long a = fetch32(s, 0);
+            return hashLen16(len + (a << 3), fetch32(s, len - 4));
+        }
+        if (len > 0) {
+            int a = s[0] & 0xff;
+            int b = s[len >> 1] & 0xff;
+            int c = s[len - 1] & 0xff;
+            long y = (a + (b << 8)) & 0xffffffffL;
+            long z = (len + (c << 2)) & 0xffffffffL;
+            return shiftMix(y * K2 ^ z * K3) * K2;
+        }
+        return K2;
+    }
+
+    private static long hashLen16(long u, long v) {
+        long a = (u ^ v) * K_MUL;
+        a ^= (a >>> 47);
+        long b = (v ^ a) * K_MUL;
+        b ^= (b >>> 47);
+        return b * K_MUL;
+    }
+
+    private static long shiftMix(long v) {
+        return v ^ (v >>> 47);
+    }
+
+    private static long fetch64(byte[] s, int i) {
+        long r = 0;
+        for (int k = 7; k >= 0; k--) r = (r << 8) | (s[i + k] & 0xffL);
+        return r;
+    }
+
+    private static long fetch32(byte[] s, int i) {
+        long r = 0;
+        for (int k = 3; k >= 0; k--) r = (r << 8) | (s[i + k] & 0xffL);
+        return r;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> listOf(Map<String, Object> map, String key) {
+        if (map == null) return List.of();
+        List<Object> list = (List<Object>) map.get(key);
+        return list == null ? List.of() : list;
+    }
+
+    private static int toInt(Object value) {
+        return ((Number) value).intValue();
+    }
+
+    /**
+     * Число из JSON по первому найденному ключу (в экспорте CatBoost есть опечатка prior_denomerator).
+     */
+    private static double number(Map<String, Object> map, double defaultValue, String... keys) {
+        for (String key : keys) {
+            Object v = map.get(key);
+            if (v instanceof Number n) return n.doubleValue();
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Хеши в hash_map экспортируются строкой (uint64 не помещается в double без потерь).
+     */
+    private static long toUnsignedLong(Object value) {
+        if (value instanceof String str) return Long.parseUnsignedLong(str);
+        return ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,392 @@
+package com.example.move_arm.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+/**
+ * Частицы анимаций уничтожения, нарисованные на одном Canvas поверх игрового поля.
+ *
+ * Вместо узла Circle и набора Transition на каждую частицу все частицы лежат в параллельных
+ * примитивных массивах и продвигаются одним AnimationTimer за кадр. Граф сцены не растет
+ * от количества частиц, а таймер работает только пока есть живые частицы.
+ *
+ * Частица — точка (залитый круг) или кольцо (контур). За время жизни она движется с постоянным
+ * ускорением, радиус меняется линейно от size0 до size1, прозрачность — от alpha0 до 0.
+ *
+ * Частицы одной анимации образуют эффект (beginEffect). Одновременно живут не больше MAX_EFFECTS
+ * эффектов: слоты эффектов идут по кругу, и новый эффект занимает слот самого старого, убирая
+ * его недоигравшие частицы. Так при очень частых попаданиях старые эффекты переиспользуются,
+ * а не копятся. Вызывать только из FX-потока.
+ */
+public final class ParticleSystem {
+
+    private static final int INITIAL_CAPACITY = 256;
+    // Потолок на случай серии попаданий по огромным кругам: место освобождается за счет старых эффектов
+    private static final int MAX_PARTICLES = 16_384;
+    private static final int MAX_EFFECTS = 48;
+    private static final int MAX_CALLBACKS = 16;
+    // После паузы (сворачивание окна) не делаем один огромный шаг
+    private static final double MAX_STEP_SEC = 0.05;
+
+    private final Pane root;
+    private final Canvas canvas = new Canvas();
+    private final GraphicsContext gc = canvas.getGraphicsContext2D();
+    private final AnimationTimer timer;
+
+    // ===== Частицы: структура массивов =====
+    private float[] x, y, vx, vy, ax, ay;
+    private float[] age, life, delay;
+    private float[] size0, size1, alpha0, stroke;
+    private int[] color;
+    private int[] effect;
+    private int count;
+
+    // ===== Эффекты: слоты по кругу, в каждом — число живых частиц =====
+    private final int[] effectParticles = new int[MAX_EFFECTS];
+    private int currentEffect;
+    private long effectCounter;
+
+    // Доля точек, которые реально выпускаются (AnimationQualityGovernor); кольца не прореживаются
+    private double density = 1.0;
+    private double densityCarry;
+
+    // ===== Отложенные onFinish: считаются тем же таймером, без Transition на вызов =====
+    private final Runnable[] callbacks = new Runnable[MAX_CALLBACKS];
+    private final float[] callbackLeft = new float[MAX_CALLBACKS];
+    private int callbackCount;
+
+    // Палитра: у частицы только индекс цвета, Color не создается на кадр
+    private final Map<Color, Integer> paletteIndex = new HashMap<>();
+    private Color[] palette = new Color[16];
+    private int paletteSize;
+
+    private long lastFrameNs;
+    private boolean running;
+
+    private ParticleSystem(Pane root) {
+        this.root = root;
+        allocate(INITIAL_CAPACITY);
+
+        canvas.setMouseTransparent(true);
+        canvas.setManaged(false);
+        canvas.widthProperty().bind(root.widthProperty());
+        canvas.heightProperty().bind(root.heightProperty());
+
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                double dt = lastFrameNs == 0 ? 0 : Math.min((now - lastFrameNs) / 1e9, MAX_STEP_SEC);
+                lastFrameNs = now;
+                step((float) dt);
+                render();
+                runCallbacks((float) dt);
+                if (count == 0 && callbackCount == 0) {
+                    stop();
+                    running = false;
+                }
+            }
+        };
+    }
+
+    /**
+     * Система частиц игрового поля; создается при первом обращении и хранится в свойствах Pane.
+     * Если поле очистили (getChildren().clear()), Canvas возвращается на место.
+     */
+    public static ParticleSystem of(Pane root) {
+        ParticleSystem system = (ParticleSystem) root.getProperties().get(ParticleSystem.class);
+        if (system == null) {
+            system = new ParticleSystem(root);
+            root.getProperties().put(ParticleSystem.class, system);
+        }
+        system.ensureOnTop();
+        return system;
+    }
+
+    /**
+     * Начинает новый эффект: следующие dot/ring относятся к нему. Если все слоты заняты,
+     * частицы самого старого эффекта убираются.
+     */
+    public void beginEffect() {
+        currentEffect = (int) (effectCounter++ % MAX_EFFECTS);
+        if (effectParticles[currentEffect] > 0) {
+            recycle(currentEffect);
+        }
+        // Первая точка эффекта (обычно вспышка) выпускается всегда
+        densityCarry = 1.0;
+    }
+
+    /**
+     * Доля точек новых эффектов от 0 до 1: при 0.5 выпускается каждая вторая.
+     */
+    public void setDensity(double density) {
+        this.density = Math.max(0.0, Math.min(1.0, density));
+    }
+
+    /**
+     * Вызывает action через delaySec в FX-потоке (например, onFinish анимации).
+     * Если очередь переполнена, action выполняется сразу.
+     */
+    public void runAfter(double delaySec, Runnable action) {
+        if (callbackCount == MAX_CALLBACKS) {
+            action.run();
+            return;
+        }
+        callbacks[callbackCount] = action;
+        callbackLeft[callbackCount] = (float) delaySec;
+        callbackCount++;
+        startTimer();
+    }
+
+    /**
+     * Залитая точка.
+     */
+    public void dot(double x, double y, double vx, double vy, double ax, double ay,
+                    double size0, double size1, double alpha0, double lifeSec, double delaySec, Color color) {
+        if (density < 1.0) {
+            densityCarry += density;
+            if (densityCarry < 1.0) return;
+            densityCarry -= 1.0;
+        }
+        add(x, y, vx, vy, ax, ay, size0, size1, alpha0, lifeSec, delaySec, color, 0);
+    }
+
+    /**
+     * Неподвижное кольцо, радиус которого растет (или сжимается) от radius0 до radius1.
+     */
+    public void ring(double x, double y, double radius0, double radius1, double strokeWidth,
+                     double alpha0, double lifeSec, double delaySec, Color color) {
+        add(x, y, 0, 0, 0, 0, radius0, radius1, alpha0, lifeSec, delaySec, color, strokeWidth);
+    }
+
+    public int size() { return count; }
+
+    /**
+     * Убирает все частицы сразу (например, при рестарте игры).
+     */
+    public void clear() {
+        count = 0;
+        Arrays.fill(effectParticles, 0);
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    }
+
+    private void add(double px, double py, double pvx, double pvy, double pax, double pay,
+                     double s0, double s1, double a0, double lifeSec, double delaySec, Color c, double strokeWidth) {
+        if (lifeSec <= 0) return;
+        if (count == x.length) {
+            if (count >= MAX_PARTICLES && !recycleOldestEffect()) return;
+            if (count == x.length) grow(Math.min(MAX_PARTICLES, count * 2));
+        }
+        if (count == 0) {
+            // Все старые частицы погасли — палитру можно начать заново
+            paletteIndex.clear();
+            paletteSize = 0;
+        }
+        int i = count++;
+        x[i] = (float) px;
+        y[i] = (float) py;
+        vx[i] = (float) pvx;
+        vy[i] = (float) pvy;
+        ax[i] = (float) pax;
+        ay[i] = (float) pay;
+        age[i] = 0;
+        life[i] = (float) lifeSec;
+        delay[i] = (float) delaySec;
+        size0[i] = (float) s0;
+        size1[i] = (float) s1;
+        alpha0[i] = (float) a0;
+        stroke[i] = (float) strokeWidth;
+        color[i] = colorIndex(c);
+        effect[i] = currentEffect;
+        effectParticles[currentEffect]++;
+
+        startTimer();
+    }
+
+    private void startTimer() {
+        if (!running) {
+            running = true;
+            lastFrameNs = 0;
+            timer.start();
+        }
+    }
+
+    private void runCallbacks(float dt) {
+        int i = 0;
+        while (i < callbackCount) {
+            callbackLeft[i] -= dt;
+            if (callbackLeft[i] > 0) {
+                i++;
+                continue;
+            }
+            Runnable action = callbacks[i];
+            int last = --callbackCount;
+            callbacks[i] = callbacks[last];
+            callbackLeft[i] = callbackLeft[last];
+            callbacks[last] = null;
+            action.run();
+        }
+    }
+
+    /**
+     * Убирает все частицы эффекта из слота.
+     */
+    private void recycle(int slot) {
+        int i = 0;
+        while (i < count && effectParticles[slot] > 0) {
+            if (effect[i] == slot) {
+                removeAt(i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место под частицы текущего эффекта за счет самого старого живого.
+     *
+     * @return false, если живых эффектов кроме текущего нет
+     */
+    private boolean recycleOldestEffect() {
+        for (int k = 1; k < MAX_EFFECTS; k++) {
+            int slot = (currentEffect + k) % MAX_EFFECTS;
+            if (effectParticles[slot] > 0) {
+                recycle(slot);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void step(float dt) {
+        int i = 0;
+        while (i < count) {
+            float a = age[i] + dt;
+            age[i] = a;
+            if (a >= delay[i] + life[i]) {
+                removeAt(i);
+                continue;
+            }
+            if (a > delay[i]) {
+                vx[i] += ax[i] * dt;
+                vy[i] += ay[i] * dt;
+                x[i] += vx[i] * dt;
+                y[i] += vy[i] * dt;
+            }
+            i++;
+        }
+    }
+
+    private void render() {
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        int currentColor = -1;
+        for (int i = 0; i < count; i++) {
+            float active = age[i] - delay[i];
+            if (active < 0) continue;
+            float t = active / life[i];
+            double r = size0[i] + (size1[i] - size0[i]) * t;
+            double alpha = alpha0[i] * (1 - t);
+            if (r <= 0 || alpha <= 0) continue;
+
+            gc.setGlobalAlpha(alpha);
+            if (color[i] != currentColor) {
+                currentColor = color[i];
+                gc.setFill(palette[currentColor]);
+                gc.setStroke(palette[currentColor]);
+            }
+            if (stroke[i] > 0) {
+                gc.setLineWidth(stroke[i]);
+                gc.strokeOval(x[i] - r, y[i] - r, r * 2, r * 2);
+            } else {
+                gc.fillOval(x[i] - r, y[i] - r, r * 2, r * 2);
+            }
+        }
+        gc.setGlobalAlpha(1.0);
+    }
+
+    private void removeAt(int i) {
+        effectParticles[effect[i]]--;
+        int last = --count;
+        if (i == last) return;
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        ax[i] = ax[last];
+        ay[i] = ay[last];
+        age[i] = age[last];
+        life[i] = life[last];
+        delay[i] = delay[last];
+        size0[i] = size0[last];
+        size1[i] = size1[last];
+        alpha0[i] = alpha0[last];
+        stroke[i] = stroke[last];
+        color[i] = color[last];
+        effect[i] = effect[last];
+    }
+
+    private int colorIndex(Color c) {
+        Integer index = paletteIndex.get(c);
+        if (index != null) return index;
+        if (paletteSize == palette.length) {
+            palette = Arrays.copyOf(palette, paletteSize * 2);
+        }
+        palette[paletteSize] = c;
+        paletteIndex.put(c, paletteSize);
+        return paletteSize++;
+    }
+
+    private void ensureOnTop() {
+        var children = root.getChildren();
+        if (canvas.getParent() != root) {
+            // Поле очистили вместе с Canvas — старые частицы рисовать уже некуда
+            count = 0;
+            Arrays.fill(effectParticles, 0);
+            children.add(canvas);
+        } else if (children.get(children.size() - 1) != canvas) {
+            canvas.toFront();
+        }
+    }
+
+    private void allocate(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        ax = new float[capacity];
+        ay = new float[capacity];
+        age = new float[capacity];
+        life = new float[capacity];
+        delay = new float[capacity];
+        size0 = new float[capacity];
+        size1 = new float[capacity];
+        alpha0 = new float[capacity];
+        stroke = new float[capacity];
+        color = new int[capacity];
+        effect = new int[capacity];
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        ax = Arrays.copyOf(ax, capacity);
+        ay = Arrays.copyOf(ay, capacity);
+        age = Arrays.copyOf(age, capacity);
+        life = Arrays.copyOf(life, capacity);
+        delay = Arrays.copyOf(delay, capacity);
+        size0 = Arrays.copyOf(size0, capacity);
+        size1 = Arrays.copyOf(size1, capacity);
+        alpha0 = Arrays.copyOf(alpha0, capacity);
+        stroke = Arrays.copyOf(stroke, capacity);
+        color = Arrays.copyOf(color, capacity);
+        effect = Arrays.copyOf(effect, capacity);
+    }
+}
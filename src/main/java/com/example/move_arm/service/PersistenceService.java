@@ -0,0 +1,119 @@
+package com.example.move_arm.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.example.move_arm.util.AppLogger;
+
+/**
+ * Фоновая запись в БД (write-behind).
+ * Сохранения в конце игры ставятся в ограниченную очередь и выполняются одним потоком-писателем,
+ * чтобы не морозить JavaFX-поток. Порядок записей сохраняется.
+ */
+public class PersistenceService {
+
+    private static final PersistenceService INSTANCE = new PersistenceService();
+
+    private static final int QUEUE_CAPACITY = 64;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private PersistenceService() {
+        writer = new Thread(this::runWriter, "db-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static PersistenceService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Ставит задачу записи в очередь. Если очередь заполнена — ждет (backpressure).
+     *
+     * @param description описание для лога
+     * @param task        сама запись в БД
+     * @return future с результатом задачи (например, id созданной строки game_results)
+     */
+    public <T> CompletableFuture<T> submit(String description, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException("PersistenceService остановлен"));
+            return future;
+        }
+
+        Runnable job = () -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                AppLogger.error("PersistenceService: ошибка записи (" + description + ")", t);
+                future.completeExceptionally(t);
+            }
+        };
+
+        try {
+            queue.put(job);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Выполняет чтение на потоке-писателе после всех поставленных ранее записей,
+     * чтобы экраны видели последнюю игру. Вызывающий (FX) поток не ждет — результат приходит в future.
+     */
+    public <T> CompletableFuture<T> afterPendingWrites(String description, Callable<T> read) {
+        return submit(description, read);
+    }
+
+    /**
+     * Ждет, пока будут записаны все поставленные ранее задачи (до 10 с).
+     * Блокирует вызывающий поток — только для завершения приложения, не для FX-потока.
+     */
+    public void flush() {
+        if (Thread.currentThread() == writer) return;
+        try {
+            submit("flush", () -> null).get(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            AppLogger.warn("PersistenceService: не дождались записи очереди: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Дописывает очередь и останавливает поток-писатель. Вызывается при завершении приложения.
+     */
+    public void shutdown() {
+        flush();
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        AppLogger.info("PersistenceService: поток записи остановлен");
+    }
+
+    private void runWriter() {
+        while (running || !queue.isEmpty()) {
+            try {
+                queue.take().run();
+            } catch (InterruptedException e) {
+                if (!running) {
+                    // Дописываем то, что успели поставить до остановки
+                    Runnable job;
+                    while ((job = queue.poll()) != null) job.run();
+                    return;
+                }
+            }
+        }
+    }
+}
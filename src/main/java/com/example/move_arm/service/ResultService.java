@@ -2,14 +2,18 @@ package com.example.move_arm.service;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import com.example.move_arm.database.GameResultDao;
+import com.example.move_arm.database.TrajectoryDao;
+import com.example.move_arm.model.CursorTrajectory;
 import com.example.move_arm.model.GameResult;
 import com.example.move_arm.model.User;
 
 public class ResultService {
 
     private final GameResultDao gameResultDao = new GameResultDao();
+    private final TrajectoryDao trajectoryDao = new TrajectoryDao();
 
     /**
      * Получить результаты конкретного пользователя
@@ -23,6 +27,29 @@ public class ResultService {
         return gameResultDao.findByUserId(user.getId());
     }
 
+    /**
+     * Последняя игра пользователя в режиме — без загрузки всей истории
+     */
+    public Optional<GameResult> getLatestResult(User user, int gameTypeId) {
+
+        if (user == null) {
+            return Optional.empty();
+        }
+
+        return gameResultDao.findLatestByUserAndType(user.getId(), gameTypeId);
+    }
+
+    /**
+     * Траектория курсора игры (пустая, если не записывалась)
+     */
+    public CursorTrajectory getCursorTrajectory(int resultId) {
+        return trajectoryDao.readTrajectoryForResult(resultId);
+    }
+
+    public boolean hasResults(User user) {
+        return user != null && gameResultDao.existsByUserId(user.getId());
+    }
+
     /**
      * Получить все результаты в базе
      */
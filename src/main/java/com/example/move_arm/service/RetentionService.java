@@ -0,0 +1,89 @@
+package com.example.move_arm.service;
+
+import java.util.concurrent.TimeUnit;
+
+import com.example.move_arm.database.DetailArchiveDao;
+import com.example.move_arm.util.AppLogger;
+
+/**
+ * Фоновое сжатие старых подробных данных: сырые клики, удержания и тройки игр старше
+ * movearm.retention.days дней (по умолчанию 180, 0 — выключено) сворачиваются в game_summaries
+ * и переносятся в архивную БД, после чего основной файл уменьшается через incremental_vacuum.
+ *
+ * Работает в своем потоке пачками по короткой транзакции, чтобы не задерживать сохранение игр
+ * в PersistenceService: SQLite сериализует запись, и писатель ждет максимум одну пачку.
+ */
+public class RetentionService {
+
+    private static final RetentionService INSTANCE = new RetentionService();
+
+    static final String RETENTION_PROPERTY = "movearm.retention.days";
+    private static final int DEFAULT_RETENTION_DAYS = 180;
+
+    private static final int GAMES_PER_BATCH = 200;
+    private static final int TRIPLETS_PER_BATCH = 5000;
+    private static final int VACUUM_PAGES_PER_BATCH = 256;
+    private static final long PAUSE_BETWEEN_BATCHES_MS = 50;
+
+    private final DetailArchiveDao archiveDao = new DetailArchiveDao();
+
+    public static RetentionService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Запускает сжатие в фоне. Вызывается один раз при старте приложения.
+     */
+    public void startCompaction() {
+        int days = Integer.getInteger(RETENTION_PROPERTY, DEFAULT_RETENTION_DAYS);
+        if (days <= 0) {
+            AppLogger.info("RetentionService: архивирование старых данных выключено");
+            return;
+        }
+        long cutoffMs = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days);
+
+        Thread compactor = new Thread(() -> compact(cutoffMs), "db-compactor");
+        compactor.setDaemon(true);
+        compactor.setPriority(Thread.MIN_PRIORITY);
+        compactor.start();
+    }
+
+    void compact(long cutoffMs) {
+        try {
+            long started = System.nanoTime();
+            int games = 0;
+            int batch;
+            do {
+                batch = archiveDao.archiveGamesOlderThan(cutoffMs, GAMES_PER_BATCH);
+                games += batch;
+                pause();
+            } while (batch == GAMES_PER_BATCH);
+
+            int triplets = 0;
+            do {
+                batch = archiveDao.archiveTripletsOlderThan(cutoffMs, TRIPLETS_PER_BATCH);
+                triplets += batch;
+                pause();
+            } while (batch == TRIPLETS_PER_BATCH);
+
+            if (games == 0 && triplets == 0) return;
+
+            int pages = 0;
+            do {
+                batch = archiveDao.incrementalVacuum(VACUUM_PAGES_PER_BATCH);
+                pages += batch;
+                pause();
+            } while (batch == VACUUM_PAGES_PER_BATCH);
+            AppLogger.info("RetentionService: в архив перенесено игр: " + games + ", троек: " + triplets
+                    + ", освобождено страниц: " + pages
+                    + " за " + (System.nanoTime() - started) / 1_000_000 + " мс");
+        } catch (Exception e) {
+            // Не критично: незаконченная пачка откатилась, продолжим при следующем запуске
+            AppLogger.error("RetentionService: архивирование прервано", e);
+        }
+    }
+
+    private void pause() throws InterruptedException {
+        Thread.sleep(PAUSE_BETWEEN_BATCHES_MS);
+    }
+}
@@ -0,0 +1,369 @@
+package com.example.move_arm.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.example.move_arm.model.ClickBuffer;
+import com.example.move_arm.model.GeneratorType;
+import com.example.move_arm.model.HoldAttempt;
+import com.example.move_arm.model.TrajectoryDifficulty;
+import com.example.move_arm.model.TripletRecord;
+import com.example.move_arm.util.AppLogger;
+
+/**
+ * Журнал текущей игры в ~/.movearm/journal: append-only файл, отображенный в память (MappedByteBuffer).
+ * Каждое попадание пишется фиксированной бинарной записью, поэтому при падении или kill процесса
+ * сыгранная часть сессии не теряется — при следующем запуске незавершенные журналы
+ * дописываются в SQLite (GameService.recoverUnfinishedSessions).
+ *
+ * Запись в отображенный файл — это запись в страничный кеш ОС, без системного вызова на каждое попадание.
+ * Данные переживают падение приложения; от отключения питания журнал не защищает (force() не вызывается).
+ *
+ * Пишется только из FX-потока; discard() может вызываться из потока записи в БД после сохранения.
+ */
+public final class SessionJournal {
+
+    public enum Kind { HOVER, HOLD, NEURAL }
+
+    private static final Path JOURNAL_DIR = Path.of(System.getProperty("user.home"), ".movearm", "journal");
+    private static final String SUFFIX = ".journal";
+
+    private static final int MAGIC = 0x4D414A31; // "MAJ1"
+    private static final int VERSION = 1;
+
+    private static final int STATE_ACTIVE = 0;
+    private static final int STATE_DONE = 1;
+
+    // Заголовок
+    private static final int HEADER_SIZE = 64;
+    private static final int OFF_MAGIC = 0;
+    private static final int OFF_VERSION = 4;
+    private static final int OFF_KIND = 8;
+    private static final int OFF_USER = 12;
+    private static final int OFF_GAME_TYPE = 16;
+    private static final int OFF_RADIUS = 20;
+    private static final int OFF_GENERATOR = 24;
+    private static final int OFF_SEED = 28;
+    private static final int OFF_DIFFICULTY = 32;
+    private static final int OFF_START_MS = 36;
+    private static final int OFF_COUNT = 44;
+    private static final int OFF_STATE = 48;
+
+    // Записи: первый байт — тип, дальше поля. Самая длинная (тройка) — 125 байт.
+    private static final int RECORD_SIZE = 128;
+    private static final byte REC_CLICK = 1;
+    private static final byte REC_HOLD = 2;
+    private static final byte REC_TRIPLET = 3;
+
+    private static final int INITIAL_RECORDS = 1024;
+
+    private static final SessionJournal DISABLED = new SessionJournal(null, null, null);
+
+    private final Path path;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int count;
+    // Позиция записи внутри текущей записи журнала (абсолютные put, без slice на каждое попадание)
+    private int pos;
+    private boolean closed;
+    // Журнал не удалось расширить: новые записи не пишутся, но discard по-прежнему завершает и удаляет файл
+    private boolean appendsDisabled;
+
+    private SessionJournal(Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.closed = buffer == null;
+    }
+
+    /**
+     * Создает журнал новой сессии. Если файл создать не удалось — возвращает журнал-заглушку:
+     * игра продолжается как раньше, только без защиты от падения.
+     */
+    public static SessionJournal open(Kind kind, int userId, int gameTypeId, int radius,
+                                      GeneratorType generatorType, int seed, TrajectoryDifficulty difficulty) {
+        try {
+            Files.createDirectories(JOURNAL_DIR);
+            Path path = JOURNAL_DIR.resolve(UUID.randomUUID() + SUFFIX);
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) RECORD_SIZE * INITIAL_RECORDS);
+
+            buffer.putInt(OFF_MAGIC, MAGIC);
+            buffer.putInt(OFF_VERSION, VERSION);
+            buffer.putInt(OFF_KIND, kind.ordinal());
+            buffer.putInt(OFF_USER, userId);
+            buffer.putInt(OFF_GAME_TYPE, gameTypeId);
+            buffer.putInt(OFF_RADIUS, radius);
+            buffer.putInt(OFF_GENERATOR, (generatorType == null ? GeneratorType.ADAPTIVE : generatorType).ordinal());
+            buffer.putInt(OFF_SEED, seed);
+            buffer.putInt(OFF_DIFFICULTY, (difficulty == null ? TrajectoryDifficulty.MEDIUM : difficulty).ordinal());
+            buffer.putLong(OFF_START_MS, System.currentTimeMillis());
+            buffer.putInt(OFF_COUNT, 0);
+            buffer.putInt(OFF_STATE, STATE_ACTIVE);
+
+            return new SessionJournal(path, channel, buffer);
+        } catch (IOException e) {
+            AppLogger.error("SessionJournal: не удалось создать журнал сессии", e);
+            return DISABLED;
+        }
+    }
+
+    public void appendClick(long clickTimeNs, double cursorX, double cursorY,
+                            double centerX, double centerY, int radius) {
+        if (!beginRecord(REC_CLICK)) return;
+        writeLong(clickTimeNs);
+        writeDouble(cursorX);
+        writeDouble(cursorY);
+        writeDouble(centerX);
+        writeDouble(centerY);
+        writeInt(radius);
+        commitRecord();
+    }
+
+    public void appendHoldAttempt(HoldAttempt a) {
+        if (!beginRecord(REC_HOLD)) return;
+        writeInt(a.getAttemptIndex());
+        writeLong(a.getStartTimeNs());
+        writeLong(a.getEndTimeNs());
+        writeLong(a.getActualHoldMs());
+        writeByte((byte) (a.isSuccess() ? 1 : 0));
+        writeDouble(a.getTargetCenterX());
+        writeDouble(a.getTargetCenterY());
+        commitRecord();
+    }
+
+    /**
+     * userId и timestamp тройки не пишутся: при восстановлении они берутся из заголовка.
+     */
+    public void appendTriplet(TripletRecord t) {
+        if (!beginRecord(REC_TRIPLET)) return;
+        writeInt(t.tripletIndex);
+        writeLong(t.spawnNs);
+        writeInt(t.t1Cell);
+        writeInt(t.t2Cell);
+        writeInt(t.t3Cell);
+        writeInt(t.hitTargetIndex);
+        writeLong(t.hitTtkNs);
+        writeInt(t.radius);
+        writeDouble(t.centroidRow);
+        writeDouble(t.centroidCol);
+        writeDouble(t.t1Angle);
+        writeDouble(t.t2Angle);
+        writeDouble(t.t3Angle);
+        writeDouble(t.hitToMiss1Dist);
+        writeDouble(t.hitToMiss2Dist);
+        writeDouble(t.miss1ToMiss2Dist);
+        writeDouble(t.spread);
+        writeInt(t.screenWidth);
+        writeInt(t.screenHeight);
+        writeInt(t.previousHitCell);
+        commitRecord();
+    }
+
+    /**
+     * Сессия сохранена в БД или брошена игроком — журнал больше не нужен.
+     * Сначала помечаем его завершенным: на Windows отображенный файл может не удалиться сразу,
+     * и тогда его удалит следующий запуск, не восстанавливая.
+     *
+     * Отображение переживает закрытие канала: в Java нет публичного unmap, страницы освобождаются,
+     * когда сборщик мусора соберет MappedByteBuffer. На Linux/macOS файл удаляется сразу
+     * (отображение держит уже отвязанный inode), на Windows удаление до этого момента не проходит.
+     */
+    public synchronized void discard() {
+        if (closed) return;
+        closed = true;
+        buffer.putInt(OFF_STATE, STATE_DONE);
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        buffer = null;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            AppLogger.warn("SessionJournal: журнал будет удален при следующем запуске: " + path.getFileName());
+        }
+    }
+
+    private boolean beginRecord(byte type) {
+        if (closed || appendsDisabled) return false;
+        long offset = HEADER_SIZE + (long) RECORD_SIZE * count;
+        if (offset + RECORD_SIZE > buffer.capacity()) {
+            if (!grow()) return false;
+        }
+        pos = (int) offset;
+        writeByte(type);
+        return true;
+    }
+
+    private void writeByte(byte value) {
+        buffer.put(pos, value);
+        pos += 1;
+    }
+
+    private void writeInt(int value) {
+        buffer.putInt(pos, value);
+        pos += 4;
+    }
+
+    private void writeLong(long value) {
+        buffer.putLong(pos, value);
+        pos += 8;
+    }
+
+    private void writeDouble(double value) {
+        buffer.putDouble(pos, value);
+        pos += 8;
+    }
+
+    private void commitRecord() {
+        // Счетчик обновляется после самой записи: недописанная запись при падении просто не учитывается
+        count++;
+        buffer.putInt(OFF_COUNT, count);
+    }
+
+    /**
+     * Удваивает файл и отображает его заново целиком. Прежнее отображение больше не используется
+     * и освобождается сборщиком мусора; из-за удвоения за игру их набирается лишь несколько
+     * (1024 записи → 2048 → 4096 ...), а данные в них те же страницы файла.
+     * При ошибке остается прежнее отображение: новые записи отключаются, но discard
+     * по-прежнему помечает журнал завершенным и удаляет файл.
+     */
+    private boolean grow() {
+        try {
+            long newSize = HEADER_SIZE + (long) RECORD_SIZE * count * 2;
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+            return true;
+        } catch (IOException e) {
+            AppLogger.error("SessionJournal: не удалось расширить журнал, дальнейшие попадания не журналируются", e);
+            appendsDisabled = true;
+            return false;
+        }
+    }
+
+    // ===================== Восстановление =====================
+
+    /**
+     * Содержимое незавершенного журнала.
+     */
+    public record Replay(Path path, Kind kind, int userId, int gameTypeId, int radius,
+                         GeneratorType generatorType, int seed, TrajectoryDifficulty difficulty,
+                         long startEpochMs,
+                         ClickBuffer clicks, List<HoldAttempt> holdAttempts, List<TripletRecord> triplets) {
+
+        public boolean isEmpty() {
+            return clicks.isEmpty() && holdAttempts.isEmpty() && triplets.isEmpty();
+        }
+
+        public void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                AppLogger.warn("SessionJournal: не удалось удалить журнал " + path.getFileName());
+            }
+        }
+    }
+
+    /**
+     * Читает все незавершенные журналы. Завершенные и поврежденные удаляются сразу.
+     * Вызывать до начала новой игры.
+     */
+    public static List<Replay> readPending() {
+        List<Replay> out = new ArrayList<>();
+        if (!Files.isDirectory(JOURNAL_DIR)) return out;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(JOURNAL_DIR, "*" + SUFFIX)) {
+            for (Path path : files) {
+                Replay replay = null;
+                try {
+                    replay = read(path);
+                } catch (Exception e) {
+                    AppLogger.error("SessionJournal: журнал поврежден, пропускаем " + path.getFileName(), e);
+                }
+                if (replay == null) {
+                    Files.deleteIfExists(path);
+                } else {
+                    out.add(replay);
+                }
+            }
+        } catch (IOException e) {
+            AppLogger.error("SessionJournal: не удалось прочитать каталог журналов", e);
+        }
+        return out;
+    }
+
+    private static Replay read(Path path) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buf.capacity() < HEADER_SIZE || buf.getInt(OFF_MAGIC) != MAGIC || buf.getInt(OFF_VERSION) != VERSION) {
+            return null;
+        }
+        if (buf.getInt(OFF_STATE) == STATE_DONE) {
+            return null;
+        }
+
+        Kind kind = Kind.values()[buf.getInt(OFF_KIND)];
+        int userId = buf.getInt(OFF_USER);
+        long startMs = buf.getLong(OFF_START_MS);
+        int count = buf.getInt(OFF_COUNT);
+        int maxCount = (buf.capacity() - HEADER_SIZE) / RECORD_SIZE;
+        count = Math.min(count, maxCount);
+
+        ClickBuffer clicks = new ClickBuffer();
+        List<HoldAttempt> holds = new ArrayList<>();
+        List<TripletRecord> triplets = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            ByteBuffer rec = buf.slice(HEADER_SIZE + RECORD_SIZE * i, RECORD_SIZE);
+            byte type = rec.get();
+            switch (type) {
+                case REC_CLICK -> clicks.add(rec.getLong(),
+                        rec.getDouble(), rec.getDouble(), rec.getDouble(), rec.getDouble(), rec.getInt());
+                case REC_HOLD -> holds.add(new HoldAttempt(rec.getInt(), rec.getLong(), rec.getLong(), rec.getLong(),
+                        rec.get() == 1, rec.getDouble(), rec.getDouble()));
+                case REC_TRIPLET -> {
+                    TripletRecord t = new TripletRecord();
+                    t.userId = userId;
+                    t.timestamp = startMs / 1000;
+                    t.tripletIndex = rec.getInt();
+                    t.spawnNs = rec.getLong();
+                    t.t1Cell = rec.getInt();
+                    t.t2Cell = rec.getInt();
+                    t.t3Cell = rec.getInt();
+                    t.hitTargetIndex = rec.getInt();
+                    t.hitTtkNs = rec.getLong();
+                    t.radius = rec.getInt();
+                    t.centroidRow = rec.getDouble();
+                    t.centroidCol = rec.getDouble();
+                    t.t1Angle = rec.getDouble();
+                    t.t2Angle = rec.getDouble();
+                    t.t3Angle = rec.getDouble();
+                    t.hitToMiss1Dist = rec.getDouble();
+                    t.hitToMiss2Dist = rec.getDouble();
+                    t.miss1ToMiss2Dist = rec.getDouble();
+                    t.spread = rec.getDouble();
+                    t.screenWidth = rec.getInt();
+                    t.screenHeight = rec.getInt();
+                    t.previousHitCell = rec.getInt();
+                    triplets.add(t);
+                }
+                default -> throw new IOException("неизвестный тип записи " + type);
+            }
+        }
+
+        return new Replay(path, kind, userId, buf.getInt(OFF_GAME_TYPE), buf.getInt(OFF_RADIUS),
+                GeneratorType.values()[buf.getInt(OFF_GENERATOR)], buf.getInt(OFF_SEED),
+                TrajectoryDifficulty.values()[buf.getInt(OFF_DIFFICULTY)], startMs,
+                clicks, holds, triplets);
+    }
+}
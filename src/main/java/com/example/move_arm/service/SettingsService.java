@@ -1,29 +1,59 @@
 package com.example.move_arm.service;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 import com.example.move_arm.database.GlobalSettingsDao;
 import com.example.move_arm.database.HoldSettingsDao;
 import com.example.move_arm.database.HoverSettingsDao;
 import com.example.move_arm.database.NeuralSettingsDao;
+import com.example.move_arm.database.SettingsWriter;
 import com.example.move_arm.model.AnimationType;
 import com.example.move_arm.model.settings.GlobalSettings;
 import com.example.move_arm.model.settings.HoldGameSettings;
 import com.example.move_arm.model.settings.HoverGameSettings;
 import com.example.move_arm.model.settings.NeuralGameSettings;
-
+import com.example.move_arm.util.AppLogger;
+
+/**
+ * Настройки текущего пользователя. Экраны читают и меняют объекты в памяти;
+ * saveAll() только снимает копии изменившихся объектов, а в БД они уходят
+ * одной транзакцией через SAVE_DELAY_MS — несколько сохранений подряд сливаются в одну запись.
+ * Все записи в БД идут только из потока settings-writer, поэтому порядок записей не меняется.
+ */
 public class SettingsService {
 
     private static final SettingsService INSTANCE = new SettingsService();
 
+    private static final long SAVE_DELAY_MS = 500;
+
     private final GlobalSettingsDao globalDao = new GlobalSettingsDao();
     private final HoverSettingsDao hoverDao = new HoverSettingsDao();
     private final HoldSettingsDao holdDao = new HoldSettingsDao();
     private final NeuralSettingsDao neuralDao = new NeuralSettingsDao();
 
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "settings-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
     private GlobalSettings globalSettings;
     private HoverGameSettings hoverSettings;
     private HoldGameSettings holdSettings;
     private NeuralGameSettings neuralSettings;
 
+    // Снимки, ожидающие записи; под монитором this
+    private long pendingUserId = -1;
+    private GlobalSettings pendingGlobal;
+    private HoverGameSettings pendingHover;
+    private HoldGameSettings pendingHold;
+    private NeuralGameSettings pendingNeural;
+    private ScheduledFuture<?> scheduledFlush;
+
     private long getCurrentUserId() {
         return UserService.getInstance().getCurrentUser().getId();
     }
@@ -33,6 +63,8 @@ public class SettingsService {
     }
 
     public void reload() {
+        // Несохраненное относится к прежнему пользователю — дописываем до смены
+        flush();
         loadAll();
     }
 
@@ -41,31 +73,25 @@ public class SettingsService {
     }
 
     private void loadAll() {
-        long userId = getCurrentUserId();
-        ensureDefaultsSaved(userId);
+        globalSettings = globalDao.load(getCurrentUserId());
+        hoverSettings = hoverDao.load(getCurrentUserId());
+        holdSettings = holdDao.load(getCurrentUserId());
+        neuralSettings = neuralDao.load(getCurrentUserId());
 
-        globalSettings = globalDao.load(userId);
-        hoverSettings = hoverDao.load(userId);
-        holdSettings = holdDao.load(userId);
-        neuralSettings = neuralDao.load(userId);
+        // Для отсутствующих строк load вернул "грязные" дефолты — они запишутся вместе
+        saveAll();
     }
 
-    public void ensureDefaultsSaved(long userId) {
-        if (!globalDao.exists(userId)) {
-            globalDao.save(userId, new GlobalSettings());
-        }
-
-        if (!hoverDao.exists(userId)) {
-            hoverDao.save(userId, new HoverGameSettings());
-        }
-
-        if (!holdDao.exists(userId)) {
-            holdDao.save(userId, new HoldGameSettings());
-        }
-
-        if (!neuralDao.exists(userId)) {
-            neuralDao.save(userId, new NeuralGameSettings());
-        }
+    /**
+     * Записывает настройки по умолчанию для только что созданного пользователя.
+     */
+    public void saveDefaults(long userId) {
+        runOnWriter(() -> new SettingsWriter(userId)
+                .global(new GlobalSettings())
+                .hover(new HoverGameSettings())
+                .hold(new HoldGameSettings())
+                .neural(new NeuralGameSettings())
+                .commit());
     }
 
     // ===== GET =====
@@ -92,10 +118,127 @@ public class SettingsService {
 
     // ===== SAVE =====
 
+    /**
+     * Ставит изменившиеся настройки в отложенную запись. Вызывается из FX-потока:
+     * копии снимаются здесь же, поэтому поток записи не читает объекты, которые меняет UI.
+     */
     public void saveAll() {
-        globalDao.save(getCurrentUserId(), globalSettings);
-        hoverDao.save(getCurrentUserId(), hoverSettings);
-        holdDao.save(getCurrentUserId(), holdSettings);
-        neuralDao.save(getCurrentUserId(), neuralSettings);
+        long userId = getCurrentUserId();
+        boolean userChanged;
+        synchronized (this) {
+            userChanged = pendingUserId != userId;
+        }
+        if (userChanged) {
+            // Дожидаемся записи прежнего пользователя, в том числе уже идущей и возвращенной после ошибки
+            flush();
+        }
+
+        synchronized (this) {
+            if (hasPending() && pendingUserId != userId) {
+                // Повторная запись прежнего пользователя тоже не прошла: с настройками нового ее не смешиваем
+                AppLogger.error("SettingsService: настройки пользователя " + pendingUserId + " потеряны");
+                clearPending();
+            }
+            pendingUserId = userId;
+
+            if (globalSettings.isDirty()) {
+                pendingGlobal = globalSettings.copy();
+                globalSettings.markClean();
+            }
+            if (hoverSettings.isDirty()) {
+                pendingHover = hoverSettings.copy();
+                hoverSettings.markClean();
+            }
+            if (holdSettings.isDirty()) {
+                pendingHold = holdSettings.copy();
+                holdSettings.markClean();
+            }
+            if (neuralSettings.isDirty()) {
+                pendingNeural = neuralSettings.copy();
+                neuralSettings.markClean();
+            }
+
+            if (hasPending() && scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::writePending, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Записывает ожидающие настройки сразу и ждет окончания записи.
+     * Вызывается при смене пользователя и при выходе.
+     */
+    public void flush() {
+        runOnWriter(this::writePending);
+    }
+
+    /**
+     * Одна запись ожидающих снимков; выполняется только в потоке settings-writer.
+     * Если транзакция не прошла, снимки возвращаются в очередь (кроме тех, что за это время
+     * заменили более новые) и запишутся при следующем saveAll или flush.
+     */
+    private void writePending() {
+        long userId;
+        GlobalSettings global;
+        HoverGameSettings hover;
+        HoldGameSettings hold;
+        NeuralGameSettings neural;
+        synchronized (this) {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            if (!hasPending()) return;
+
+            userId = pendingUserId;
+            global = pendingGlobal;
+            hover = pendingHover;
+            hold = pendingHold;
+            neural = pendingNeural;
+            clearPending();
+        }
+
+        try {
+            new SettingsWriter(userId)
+                    .global(global)
+                    .hover(hover)
+                    .hold(hold)
+                    .neural(neural)
+                    .commit();
+        } catch (RuntimeException e) {
+            AppLogger.error("SettingsService: настройки не сохранены, запись будет повторена", e);
+            synchronized (this) {
+                // Смена пользователя ждет этой записи (flush), поэтому очередь все еще его
+                if (pendingGlobal == null) pendingGlobal = global;
+                if (pendingHover == null) pendingHover = hover;
+                if (pendingHold == null) pendingHold = hold;
+                if (pendingNeural == null) pendingNeural = neural;
+            }
+        }
+    }
+
+    /**
+     * Выполняет запись в потоке settings-writer и ждет ее окончания.
+     */
+    private void runOnWriter(Runnable task) {
+        try {
+            scheduler.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            AppLogger.warn("SettingsService: ожидание записи настроек прервано");
+        } catch (ExecutionException e) {
+            AppLogger.error("SettingsService: настройки не сохранены", e.getCause());
+        }
+    }
+
+    private void clearPending() {
+        pendingGlobal = null;
+        pendingHover = null;
+        pendingHold = null;
+        pendingNeural = null;
+    }
+
+    private boolean hasPending() {
+        return pendingGlobal != null || pendingHover != null || pendingHold != null || pendingNeural != null;
     }
 }
@@ -0,0 +1,179 @@
+package com.example.move_arm.service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+
+import com.example.move_arm.database.TargetTripletDao;
+import com.example.move_arm.util.AppLogger;
+
+/**
+ * Выгрузка target_triplets в обучающий датасет для CatBoost.
+ * Строки идут из БД потоком (TargetTripletDao.streamForExport) и сразу пишутся в файл,
+ * поэтому память не зависит от объема таблицы.
+ *
+ * Форматы:
+ * <ul>
+ *   <li>CSV — заголовок из имен колонок, разделитель запятая, NULL — пустое поле.</li>
+ *   <li>BINARY — колоночный формат блоками по BLOCK_ROWS строк, little-endian:
+ * <pre>
+ * int32  magic 'MATB', int32 версия, int32 число колонок
+ * для каждой колонки: int16 длина имени, имя в UTF-8, byte тип ('L' — int64, 'D' — float64)
+ * блоки: int32 число строк n (&gt; 0), затем для каждой колонки n значений подряд
+ * int32  0 — конец файла
+ * </pre>
+ *   NULL пишется как 0 для int64 и NaN для float64. Блок колонки читается одним вызовом
+ *   (например, numpy.frombuffer с dtype '&lt;i8' / '&lt;f8').</li>
+ * </ul>
+ */
+public class TripletExportService {
+
+    public enum Format { CSV, BINARY }
+
+    static final int BINARY_MAGIC = 0x4D415442; // "MATB"
+    static final int BINARY_VERSION = 1;
+    private static final int BLOCK_ROWS = 8192;
+
+    private final TargetTripletDao tripletDao = new TargetTripletDao();
+
+    /**
+     * @return количество выгруженных строк
+     */
+    public long export(Path target, Format format, Integer userId, Long fromTs, Long toTs) throws IOException {
+        long started = System.nanoTime();
+        long rows;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target), 1 << 16)) {
+            rows = switch (format) {
+                case CSV -> exportCsv(out, userId, fromTs, toTs);
+                case BINARY -> exportBinary(out, userId, fromTs, toTs);
+            };
+        }
+        AppLogger.info("TripletExportService: выгружено " + rows + " строк в " + target
+                + " (" + format + ") за " + (System.nanoTime() - started) / 1_000_000 + " мс");
+        return rows;
+    }
+
+    private long exportCsv(OutputStream out, Integer userId, Long fromTs, Long toTs) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        boolean[][] isReal = new boolean[1][];
+
+        long rows = tripletDao.streamForExport(userId, fromTs, toTs,
+                rs -> {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    isReal[0] = realColumns(meta);
+                    for (int i = 1; i <= isReal[0].length; i++) {
+                        if (i > 1) w.write(',');
+                        w.write(meta.getColumnName(i));
+                    }
+                    w.write('\n');
+                },
+                rs -> {
+                    for (int i = 1; i <= isReal[0].length; i++) {
+                        if (i > 1) w.write(',');
+                        if (isReal[0][i - 1]) {
+                            // Double.toString — полная точность и точка независимо от локали
+                            double v = rs.getDouble(i);
+                            if (!rs.wasNull()) w.write(Double.toString(v));
+                        } else {
+                            long v = rs.getLong(i);
+                            if (!rs.wasNull()) w.write(Long.toString(v));
+                        }
+                    }
+                    w.write('\n');
+                });
+        w.flush();
+        return rows;
+    }
+
+    private long exportBinary(OutputStream out, Integer userId, Long fromTs, Long toTs) throws IOException {
+        BinaryBlockWriter writer = new BinaryBlockWriter(out);
+        long rows = tripletDao.streamForExport(userId, fromTs, toTs, writer::writeHeader, writer::addRow);
+        writer.finish();
+        return rows;
+    }
+
+    /**
+     * Тип колонки берется из объявления в схеме: REAL — float64, остальное (INTEGER) — int64.
+     */
+    private static boolean[] realColumns(ResultSetMetaData meta) throws Exception {
+        boolean[] isReal = new boolean[meta.getColumnCount()];
+        for (int i = 0; i < isReal.length; i++) {
+            String type = meta.getColumnTypeName(i + 1);
+            isReal[i] = type != null && type.toUpperCase().contains("REAL");
+        }
+        return isReal;
+    }
+
+    /**
+     * Копит до BLOCK_ROWS строк по колонкам и сбрасывает блок целиком.
+     */
+    private static final class BinaryBlockWriter {
+        private final OutputStream out;
+        private boolean[] isReal;
+        private ByteBuffer[] columns;
+        private int rowsInBlock;
+
+        BinaryBlockWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        void writeHeader(ResultSet rs) throws Exception {
+            ResultSetMetaData meta = rs.getMetaData();
+            int count = meta.getColumnCount();
+            isReal = realColumns(meta);
+            columns = new ByteBuffer[count];
+
+            ByteBuffer header = ByteBuffer.allocate(12 + count * 256).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(BINARY_MAGIC).putInt(BINARY_VERSION).putInt(count);
+            for (int i = 0; i < count; i++) {
+                byte[] name = meta.getColumnName(i + 1).getBytes(StandardCharsets.UTF_8);
+                header.putShort((short) name.length).put(name).put((byte) (isReal[i] ? 'D' : 'L'));
+                columns[i] = ByteBuffer.allocate(BLOCK_ROWS * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            out.write(header.array(), 0, header.position());
+        }
+
+        void addRow(ResultSet rs) throws Exception {
+            for (int i = 0; i < columns.length; i++) {
+                if (isReal[i]) {
+                    double v = rs.getDouble(i + 1);
+                    columns[i].putDouble(rs.wasNull() ? Double.NaN : v);
+                } else {
+                    columns[i].putLong(rs.getLong(i + 1));
+                }
+            }
+            if (++rowsInBlock == BLOCK_ROWS) {
+                flushBlock();
+            }
+        }
+
+        void finish() throws IOException {
+            if (columns == null) return;
+            if (rowsInBlock > 0) flushBlock();
+            writeInt(0);
+        }
+
+        private void flushBlock() throws IOException {
+            writeInt(rowsInBlock);
+            for (ByteBuffer column : columns) {
+                out.write(column.array(), 0, column.position());
+                column.clear();
+            }
+            rowsInBlock = 0;
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.write(ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.move_arm.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ограниченный по размеру LRU-кеш предсказаний CatBoost для NeuralTripletGenerator.
+ * Ключ — тройка ячеек, предыдущее попадание и квантованные фичи истории.
+ * Геометрические фичи полностью определяются номерами ячеек, поэтому в ключ не входят.
+ * Потокобезопасен: к нему обращаются и FX-поток, и поток спекуляции.
+ */
+public class TtkPredictionCache {
+
+    // Шаги квантования: внутри шага предсказание модели считаем одинаковым
+    static final double TTK_STEP_MS = 10.0;
+    private static final double VELOCITY_STEP = 0.0005;
+    private static final double ANGLE_STEP_RAD = 0.05;
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, Double> entries;
+    private long hits;
+    private long misses;
+
+    public record Key(int active1, int active2, int candidate, int lastHitCell,
+                      int angle, int rollingMean, int rollingStd, int ttkDelta, int prevVelocity) {}
+
+    public TtkPredictionCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+                return size() > TtkPredictionCache.this.maxEntries;
+            }
+        };
+    }
+
+    public static Key key(int active1, int active2, int candidate, int lastHitCell, double lastAngle,
+                          float rollingMean, float rollingStd, float ttkDelta, float prevVelocity) {
+        return new Key(active1, active2, candidate, lastHitCell,
+                (int) Math.round(lastAngle / ANGLE_STEP_RAD),
+                (int) Math.round(rollingMean / TTK_STEP_MS),
+                (int) Math.round(rollingStd / TTK_STEP_MS),
+                (int) Math.round(ttkDelta / TTK_STEP_MS),
+                (int) Math.round(prevVelocity / VELOCITY_STEP));
+    }
+
+    /**
+     * @return закешированное значение или null при промахе
+     */
+    public synchronized Double get(Key key) {
+        Double value = entries.get(key);
+        if (value != null) hits++;
+        else misses++;
+        return value;
+    }
+
+    public synchronized void put(Key key, double value) {
+        entries.put(key, value);
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+
+    public synchronized String getStats() {
+        long total = hits + misses;
+        double rate = total == 0 ? 0.0 : hits * 100.0 / total;
+        return String.format("кеш предсказаний: %d попаданий, %d промахов (%.1f%%), записей %d",
+                hits, misses, rate, entries.size());
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+}
@@ -8,17 +8,16 @@ import com.example.move_arm.HoldTarget;
 import com.example.move_arm.model.HoldAttempt;
 import com.example.move_arm.model.User;
 import com.example.move_arm.model.settings.HoldGameSettings;
+import com.example.move_arm.service.GameClock;
 import com.example.move_arm.service.GameService;
+import com.example.move_arm.service.SessionJournal;
 import com.example.move_arm.service.SettingsService;
 import com.example.move_arm.ui.SceneManager;
 import com.example.move_arm.ui.view.HoldGameView;
 import com.example.move_arm.util.AppLogger;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.scene.media.AudioClip;
 import javafx.scene.paint.Color;
-import javafx.util.Duration;
 
 public class HoldGamePresenter {
 
@@ -29,13 +28,14 @@ public class HoldGamePresenter {
     private final Random random = new Random();
 
     private HoldGameSettings settings;
-    private Timeline timer;
+    // Время игры: конец раунда, таймер в HUD и метки попыток
+    private final GameClock clock;
     private AudioClip hoverSound;
 
     private final List<HoldAttempt> allAttempts = new ArrayList<>();
+    private SessionJournal journal;
     private int score = 0;
     private int activeTargets = 0;
-    private int remainingTime = 0;
     private int globalAttemptCounter = 0;
     private boolean gameActive = false;
 
@@ -44,6 +44,7 @@ public class HoldGamePresenter {
         this.sceneManager = sceneManager;
         this.gameService = GameService.getInstance();
         this.settingsService = SettingsService.getInstance();
+        this.clock = new GameClock(1000, remainingMs -> view.setTime(GameClock.toSeconds(remainingMs)), this::endGame);
 
         loadSound();
 
@@ -55,10 +56,11 @@ public class HoldGamePresenter {
     public void startNewGame() {
         settings = settingsService.getHoldSettings();
         resetGameState();
+        journal = gameService.openSessionJournal(SessionJournal.Kind.HOLD, settings.getRadius(), null, 0, null);
 
         view.start();
         view.setScore(0);
-        view.setTime(remainingTime);
+        view.setTime(settings.getDurationSeconds());
 
         User user = gameService.getCurrentUser();
         view.setUserName(user != null ? user.getUsername() : "guest");
@@ -80,12 +82,8 @@ public class HoldGamePresenter {
         activeTargets = 0;
         globalAttemptCounter = 0;
         allAttempts.clear();
-        remainingTime = settings.getDurationSeconds();
-
-        if (timer != null) {
-            timer.stop();
-            timer = null;
-        }
+        discardJournal();
+        clock.stop();
 
         view.clearField();
     }
@@ -95,8 +93,9 @@ public class HoldGamePresenter {
             return;
         }
 
-        spawnInitialTargets();
+        // Часы раньше целей: время попыток отсчитывается от их старта
         startTimer();
+        spawnInitialTargets();
     }
 
     private void spawnInitialTargets() {
@@ -124,7 +123,7 @@ public class HoldGamePresenter {
         Color color = Color.rgb(random.nextInt(256), random.nextInt(256), random.nextInt(256), 1.0);
         double holdDurationSeconds = Math.max(settings.getHoldTimeMs(), 1) / 1000.0;
 
-        final long[] entryTimeNs = {0L};
+        final long[] entryTimeNs = {-1L};
         final boolean[] processed = {false};
         final HoldTarget[] targetRef = new HoldTarget[1];
 
@@ -134,9 +133,9 @@ public class HoldGamePresenter {
             }
 
             processed[0] = true;
-            long now = System.nanoTime();
+            long now = clock.elapsedNs();
 
-            allAttempts.add(new HoldAttempt(
+            recordAttempt(new HoldAttempt(
                     ++globalAttemptCounter,
                     entryTimeNs[0],
                     now,
@@ -162,18 +161,18 @@ public class HoldGamePresenter {
             }
         };
 
-        Runnable onEntered = () -> entryTimeNs[0] = System.nanoTime();
+        Runnable onEntered = () -> entryTimeNs[0] = clock.elapsedNs();
 
         Runnable onExited = () -> {
-            if (!gameActive || processed[0] || entryTimeNs[0] <= 0 || targetRef[0] == null) {
+            if (!gameActive || processed[0] || entryTimeNs[0] < 0 || targetRef[0] == null) {
                 return;
             }
 
             if (view.containsTarget(targetRef[0])) {
-                long now = System.nanoTime();
+                long now = clock.elapsedNs();
                 long actualMs = (now - entryTimeNs[0]) / 1_000_000;
 
-                allAttempts.add(new HoldAttempt(
+                recordAttempt(new HoldAttempt(
                         ++globalAttemptCounter,
                         entryTimeNs[0],
                         now,
@@ -183,7 +182,7 @@ public class HoldGamePresenter {
                         centerY
                 ));
 
-                entryTimeNs[0] = 0L;
+                entryTimeNs[0] = -1L;
             }
         };
 
@@ -201,33 +200,38 @@ public class HoldGamePresenter {
         activeTargets++;
     }
 
-    private void startTimer() {
-        if (timer != null) {
-            timer.stop();
+    private void recordAttempt(HoldAttempt attempt) {
+        allAttempts.add(attempt);
+        journal.appendHoldAttempt(attempt);
+    }
+
+    private void discardJournal() {
+        if (journal != null) {
+            journal.discard();
+            journal = null;
         }
+    }
 
-        timer = new Timeline(new KeyFrame(Duration.seconds(1), event -> {
-            remainingTime--;
-            view.setTime(remainingTime);
-            if (remainingTime <= 0) {
-                endGame();
-            }
-        }));
-        timer.setCycleCount(settings.getDurationSeconds());
-        timer.play();
+    private void startTimer() {
+        clock.start(settings.getDurationSeconds() * 1000L);
+        view.getCursorSampler().start(clock);
     }
 
     private void endGame() {
         gameActive = false;
-        if (timer != null) {
-            timer.stop();
-        }
+        clock.stop();
 
         view.clearField();
 
+        SessionJournal finished = journal;
+        journal = null;
         try {
-            int savedId = gameService.addHoldGameResults(settings.getRadius(), new ArrayList<>(allAttempts));
-            AppLogger.info("Hold game result saved, id=" + savedId);
+            gameService.addHoldGameResults(settings.getRadius(), new ArrayList<>(allAttempts),
+                            view.getCursorSampler().stop())
+                    .thenAccept(savedId -> {
+                        AppLogger.info("Hold game result saved, id=" + savedId);
+                        finished.discard();
+                    });
         } catch (Exception e) {
             AppLogger.error("Failed to save hold game result", e);
         }
@@ -237,9 +241,9 @@ public class HoldGamePresenter {
 
     private void goToMenu() {
         gameActive = false;
-        if (timer != null) {
-            timer.stop();
-        }
+        clock.stop();
+        view.getCursorSampler().cancel();
+        discardJournal();
         sceneManager.showMenu();
     }
 
@@ -4,21 +4,20 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
-import com.example.move_arm.model.ClickData;
+import com.example.move_arm.model.ClickBuffer;
 import com.example.move_arm.model.settings.HoverGameSettings;
+import com.example.move_arm.service.GameClock;
 import com.example.move_arm.service.GameService;
 import com.example.move_arm.service.GeneratorFactory;
 import com.example.move_arm.service.PointGenerator;
+import com.example.move_arm.service.SessionJournal;
 import com.example.move_arm.service.SettingsService;
 import com.example.move_arm.ui.SceneManager;
 import com.example.move_arm.ui.view.GameView;
 import com.example.move_arm.ui.view.TargetHitEvent;
 import com.example.move_arm.util.AppLogger;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.scene.paint.Color;
-import javafx.util.Duration;
 
 public class HoverGamePresenter {
 
@@ -29,12 +28,13 @@ public class HoverGamePresenter {
     private PointGenerator trajectoryGenerator;
 
     private HoverGameSettings settings;
-    private final List<ClickData> clickData = new ArrayList<>();
-    private Timeline timer;
-    private long gameStartTimeNs = 0;
+    private final ClickBuffer clickData = new ClickBuffer();
+    // Журнал на диске — чтобы сыгранное не пропало при падении до сохранения
+    private SessionJournal journal;
+    // Время игры: конец раунда, таймер в HUD и метки кликов
+    private final GameClock clock;
     private int score = 0;
     private int activeCircles = 0;
-    private int remainingTime;
     private boolean gameActive = false;
 
     // Presenter как единственный источник правды для активных целей
@@ -49,6 +49,7 @@ public class HoverGamePresenter {
         this.sceneManager = sceneManager;
         this.gameService = GameService.getInstance();
         this.settingsService = SettingsService.getInstance();
+        this.clock = new GameClock(1000, remainingMs -> view.setTime(GameClock.toSeconds(remainingMs)), this::endGame);
 
         view.setOnTargetHit(this::onTargetHit);
         view.setOnToMenu(this::goToMenu);
@@ -63,6 +64,8 @@ public class HoverGamePresenter {
         trajectoryGenerator = GeneratorFactory.createGenerator(settings);
 
         resetGameState();
+        journal = gameService.openSessionJournal(SessionJournal.Kind.HOVER,
+                settings.getRadius(), settings.getGeneratorType(), settings.getSeed(), settings.getDifficulty());
 
         view.start();
         view.setScore(0);
@@ -70,7 +73,6 @@ public class HoverGamePresenter {
         view.setUserName(gameService.getCurrentUser().getUsername());
 
         gameService.clear();
-        gameStartTimeNs = System.nanoTime();
     }
 
     private void resetGameState() {
@@ -79,12 +81,9 @@ public class HoverGamePresenter {
         activeCircles = 0;
         activeTargets.clear();
         lastHitTarget = null;
-        remainingTime = settings.getDurationSeconds();
         clickData.clear();
-        if (timer != null) {
-            timer.stop();
-            timer = null;
-        }
+        discardJournal();
+        clock.stop();
         view.clearField();
     }
 
@@ -137,12 +136,16 @@ public class HoverGamePresenter {
     private void onTargetHit(TargetHitEvent event) {
         if (!gameActive) return;
 
-        long relNs = System.nanoTime() - gameStartTimeNs;
+        long relNs = clock.elapsedNs();
 
-        clickData.add(new ClickData(relNs,
+        clickData.add(relNs,
+                event.cursorX(), event.cursorY(),
+                event.targetX(), event.targetY(),
+                event.radius());
+        journal.appendClick(relNs,
                 event.cursorX(), event.cursorY(),
                 event.targetX(), event.targetY(),
-                event.radius()));
+                event.radius());
 
         // Обновляем последнюю сбитую цель
         lastHitTarget = new double[]{
@@ -166,30 +169,25 @@ public class HoverGamePresenter {
     }
 
     private void startTimer() {
-        if (timer != null) timer.stop();
-
-        timer = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-            remainingTime--;
-            view.setTime(remainingTime);
-            if (remainingTime <= 0) endGame();
-        }));
-
-        timer.setCycleCount(settings.getDurationSeconds());
-        timer.play();
+        clock.start(settings.getDurationSeconds() * 1000L);
+        view.getCursorSampler().start(clock);
     }
 
     private void endGame() {
         gameActive = false;
-        if (timer != null) timer.stop();
+        clock.stop();
 
+        SessionJournal finished = journal;
+        journal = null;
         try {
             gameService.addGameClicks(
                     settings.getRadius(),
                     settings.getGeneratorType(),
                     settings.getSeed(),
                     settings.getDifficulty(),
-                    new ArrayList<>(clickData)
-            );
+                    clickData.copy(),
+                    view.getCursorSampler().stop()
+            ).thenRun(finished::discard);
         } catch (Exception e) {
             AppLogger.error("Ошибка сохранения результата", e);
         }
@@ -199,10 +197,19 @@ public class HoverGamePresenter {
 
     private void goToMenu() {
         gameActive = false;
-        if (timer != null) timer.stop();
+        clock.stop();
+        view.getCursorSampler().cancel();
+        discardJournal();
         sceneManager.showMenu();
     }
 
+    private void discardJournal() {
+        if (journal != null) {
+            journal.discard();
+            journal = null;
+        }
+    }
+
     private void restartGame() {
         startNewGame();
     }
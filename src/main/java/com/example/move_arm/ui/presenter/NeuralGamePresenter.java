@@ -4,11 +4,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
-import com.example.move_arm.model.ClickData;
+import com.example.move_arm.model.ClickBuffer;
 import com.example.move_arm.model.TripletRecord;
 import com.example.move_arm.model.settings.NeuralGameSettings;
+import com.example.move_arm.service.GameClock;
 import com.example.move_arm.service.GameService;
 import com.example.move_arm.service.NeuralTripletGenerator;
+import com.example.move_arm.service.SessionJournal;
 import com.example.move_arm.service.SettingsService;
 import com.example.move_arm.ui.SceneManager;
 import com.example.move_arm.ui.view.NeuralGameView;
@@ -19,10 +21,7 @@ import com.example.move_arm.util.GridUtils;
 import com.example.move_arm.util.TripletGeometry;
 import com.example.move_arm.util.TripletGeometry.GeometryData;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.scene.paint.Color;
-import javafx.util.Duration;
 
 public class NeuralGamePresenter {
 
@@ -35,11 +34,10 @@ public class NeuralGamePresenter {
     private int radius;
 
     private NeuralGameSettings settings;
-    private Timeline timer;
+    // Время игры: конец раунда, таймер в HUD и метки кликов
+    private final GameClock clock;
 
-    private long gameStartTimeNs;
     private int score;
-    private int remainingTime;
     private boolean gameActive;
 
     private int lastHitCell = -1;
@@ -49,7 +47,10 @@ public class NeuralGamePresenter {
     private int tripletCounter = 0;
 
     // Буфер данных для пакетной записи в БД (neural clicks как hover-clicks)
-    private final List<ClickData> clickData = new ArrayList<>();
+    private final ClickBuffer clickData = new ClickBuffer();
+
+    // Журнал на диске: тройки и клики переживают падение до сохранения
+    private SessionJournal journal;
 
     private final Random random = new Random();
 
@@ -59,6 +60,7 @@ public class NeuralGamePresenter {
         this.gameService = GameService.getInstance();
         this.settingsService = SettingsService.getInstance();
         this.generator = new NeuralTripletGenerator();
+        this.clock = new GameClock(1000, remainingMs -> view.setTime(GameClock.toSeconds(remainingMs)), this::endGame);
 
         view.setOnNeuralTargetHit(this::onNeuralTargetHit);
         view.setOnToMenu(this::goToMenu);
@@ -72,6 +74,7 @@ public class NeuralGamePresenter {
         settings = settingsService.getNeuralSettings();
         radius = settings.getRadius();
         resetGameState();
+        journal = gameService.openSessionJournal(SessionJournal.Kind.NEURAL, radius, null, 0, null);
 
         view.start();
 
@@ -79,8 +82,6 @@ public class NeuralGamePresenter {
         view.setTime(settings.getDurationSeconds());
         view.setUserName(gameService.getCurrentUser().getUsername());
 
-        gameStartTimeNs = System.nanoTime();
-
         AppLogger.info("width=" + view.getWidth() + ", height=" + view.getHeight() + ", radius=" + radius);
 
         spawnInitialTriplet();
@@ -90,17 +91,14 @@ public class NeuralGamePresenter {
     private void resetGameState() {
         gameActive = true;
         score = 0;
-        remainingTime = settings.getDurationSeconds();
         lastHitCell = -1;
         gameBuffer.clear();
         clickData.clear();
         tripletCounter = 0;
+        discardJournal();
         generator.reset();
 
-        if (timer != null) {
-            timer.stop();
-            timer = null;
-        }
+        clock.stop();
 
         view.clearField();
         AppLogger.info("NeuralGamePresenter: состояние сброшено");
@@ -128,6 +126,9 @@ public class NeuralGamePresenter {
         int newCell = generator.generateThirdCell(activeCell1, activeCell2,
                 view.getWidth(), view.getHeight());
         spawnCell(newCell);
+
+        // Пока игрок целится — заранее считаем распределения для любого из трех попаданий
+        generator.speculate(activeCell1, activeCell2, newCell);
     }
 
     private void onNeuralTargetHit(NeuralHitEvent event) {
@@ -143,7 +144,7 @@ public class NeuralGamePresenter {
             return;
         }
 
-        long gameTimeMs = (System.nanoTime() - gameStartTimeNs);
+        long gameTimeNs = clock.elapsedNs();
 
         score++;
         view.setScore(score);
@@ -197,22 +198,24 @@ public class NeuralGamePresenter {
         rec.previousHitCell = previousHitCell;
 
         gameBuffer.add(rec);
+        journal.appendTriplet(rec);
         AppLogger.info("NeuralGamePresenter: Тройка добавлена в буфер. Всего: " + gameBuffer.size());
 
-        // Собирать клики как в Hover: ClickData (time/cursor/center/radius)
+        // Собирать клики как в Hover: time/cursor/center/radius
         // В NeuralHitEvent есть только cellIndex; поэтому используем координаты ячеек.
         // cursor/center в hover — это позиция курсора и центр круга.
         // Для neural делаем: cursor = центр "попавшей" клетки, center = центр той же клетки.
         double[] xy = GridUtils.cellToXy(clickedCell, view.getWidth(), view.getHeight());
 
-        clickData.add(new ClickData(
-                gameTimeMs,
+        clickData.add(
+                gameTimeNs,
                 event.cursorX(),
                 event.cursorY(),
                 event.targetX(),
                 event.targetY(),
                 radius
-        ));
+        );
+        journal.appendClick(gameTimeNs, event.cursorX(), event.cursorY(), event.targetX(), event.targetY(), radius);
 
         lastHitCell = clickedCell;
 
@@ -224,23 +227,16 @@ public class NeuralGamePresenter {
     }
 
     private void startTimer() {
-        if (timer != null) timer.stop();
-        timer = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-            remainingTime--;
-            view.setTime(remainingTime);
-            if (remainingTime <= 0) endGame();
-        }));
-        timer.setCycleCount(settings.getDurationSeconds());
-        timer.play();
+        clock.start(settings.getDurationSeconds() * 1000L);
+        view.getCursorSampler().start(clock);
     }
 
     private void endGame() {
         gameActive = false;
-        if (timer != null) {
-            timer.stop();
-            timer = null;
-        }
+        generator.cancelSpeculation();
+        clock.stop();
 
+        AppLogger.info("NeuralGamePresenter: " + generator.getPredictionCacheStats());
         saveGameData();
         gameService.setCurrentGameTypeToNeural();
 
@@ -257,39 +253,46 @@ public class NeuralGamePresenter {
             rec.timestamp = timestamp;
         }
 
-        gameService.saveTripletsBatch(gameBuffer);
-        AppLogger.info("NeuralGamePresenter: Сохранено в БД: " + gameBuffer.size() + " троек");
-
-        // Сохранение neural clicks как в hover:
+        // Клики (как в hover) и тройки пишутся одной транзакцией вместе с game_results.
         // В проекте сейчас нет seed/difficulty/generatorType для neural (NeuralGameSettings пустой),
-        // поэтому используем значения по умолчанию, как это делает ClickGameService через ADAPTIVE/seed/difficulty.
-        // Если для neural в будущем появятся параметры — сюда нужно будет подставить их.
-        gameService.addGameClicks(
-                radius,
-                0, // seed недоступен для neural в текущей модели
-                com.example.move_arm.model.TrajectoryDifficulty.MEDIUM,
-                new ArrayList<>(clickData)
-        );
+        // поэтому GameService подставляет значения по умолчанию.
+        // Копии: gameBuffer очищается при рестарте, а запись идет в фоновом потоке.
+        // Траектория курсора — тоже копия, буфер сэмплера переиспользуется следующей игрой.
+        int tripletCount = gameBuffer.size();
+        int clickCount = clickData.size();
+        SessionJournal finished = journal;
+        journal = null;
+        gameService.addNeuralGameResults(radius, clickData.copy(), new ArrayList<>(gameBuffer),
+                        view.getCursorSampler().stop())
+                .thenAccept(savedId -> {
+                    AppLogger.info("NeuralGamePresenter: Сохранено в БД (id=" + savedId + "): "
+                            + tripletCount + " троек, " + clickCount + " neural кликов");
+                    finished.discard();
+                });
+    }
 
-        AppLogger.info("NeuralGamePresenter: Сохранено в БД: " + clickData.size() + " neural кликов (как hover)");
+    private void discardJournal() {
+        if (journal != null) {
+            journal.discard();
+            journal = null;
+        }
     }
 
     private void restartGame() {
         AppLogger.info("=== РЕСТАРТ NEURAL ИГРЫ ===");
 
         gameActive = false;
-
-        if (timer != null) {
-            timer.stop();
-            timer = null;
-        }
+        clock.stop();
 
         startNewGame();
     }
 
     private void goToMenu() {
         gameActive = false;
-        if (timer != null) timer.stop();
+        generator.cancelSpeculation();
+        clock.stop();
+        view.getCursorSampler().cancel();
+        discardJournal();
         sceneManager.showMenu();
     }
 
@@ -0,0 +1,62 @@
+package com.example.move_arm.ui.view;
+
+import com.example.move_arm.model.CursorTrajectory;
+import com.example.move_arm.service.GameClock;
+
+import javafx.event.EventHandler;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+
+/**
+ * Записывает каждое событие движения мыши над игровым полем в CursorTrajectory.
+ *
+ * Фильтр MOUSE_MOVED/MOUSE_DRAGGED ставится один раз; пока запись не идет или часы игры
+ * на паузе, он сразу выходит. Во время игры на событие приходится чтение часов и три записи
+ * в примитивные массивы кольцевого буфера — без выделений, так что мышь с опросом 1000 Гц
+ * не нагружает FX-поток.
+ * Емкость буфера — movearm.trajectory.capacity точек (по умолчанию около 4 минут при 1000 Гц).
+ */
+public final class CursorSampler {
+
+    static final String CAPACITY_PROPERTY = "movearm.trajectory.capacity";
+    private static final int DEFAULT_CAPACITY = 1 << 18;
+
+    private final CursorTrajectory trajectory =
+            new CursorTrajectory(Math.max(1024, Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY)));
+
+    private GameClock clock;
+
+    public CursorSampler(Pane pane) {
+        EventHandler<MouseEvent> filter = e -> {
+            if (clock != null && clock.isRunning()) {
+                trajectory.record(clock.elapsedNs(), e.getX(), e.getY());
+            }
+        };
+        pane.addEventFilter(MouseEvent.MOUSE_MOVED, filter);
+        pane.addEventFilter(MouseEvent.MOUSE_DRAGGED, filter);
+    }
+
+    /**
+     * Начинает новую запись. Время точек — clock.elapsedNs(), та же шкала, что у кликов игры.
+     */
+    public void start(GameClock clock) {
+        trajectory.clear();
+        this.clock = clock;
+    }
+
+    /**
+     * Останавливает запись и возвращает копию траектории; буфер остается для следующей игры.
+     */
+    public CursorTrajectory stop() {
+        clock = null;
+        return trajectory.copy();
+    }
+
+    /**
+     * Останавливает запись без копирования (выход в меню, рестарт).
+     */
+    public void cancel() {
+        clock = null;
+        trajectory.clear();
+    }
+}
@@ -27,4 +27,7 @@ public interface GameView {
     double getWidth();
     double getHeight();
     List<double[]> getActiveTargetPositions();
+
+    // Запись траектории курсора над полем
+    CursorSampler getCursorSampler();
 }
\ No newline at end of file
@@ -0,0 +1,341 @@
+package com.example.move_arm.ui.view;
+
+import java.util.Arrays;
+
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+
+/**
+ * Попадания курсора в круглые цели по геометрии, без onMouseEntered на каждом круге.
+ *
+ * На игровое поле ставится один фильтр MOUSE_MOVED/MOUSE_DRAGGED. Цели лежат в равномерной
+ * сетке (ячейки CELL_SIZE px), и при каждом движении проверяются только цели из ячеек,
+ * которые задевает отрезок между предыдущей и текущей позицией курсора: точное уравнение
+ * круга плюс пересечение отрезка с кругом. Поэтому быстрый рывок, перескочивший цель между
+ * двумя событиями мыши, тоже засчитывается, а скорость проверки не зависит от числа узлов
+ * в сцене (сами цели можно делать mouseTransparent).
+ *
+ * Вызывать только из FX-потока. Обработчики могут добавлять и удалять цели прямо из колбэка.
+ */
+public final class HitDetector<T> {
+
+    public interface Listener<T> {
+        /**
+         * Курсор вошел в цель; (x, y) — позиция курсора из события мыши, а если рывок
+         * пронес курсор насквозь — точка входа, сдвинутая строго внутрь круга.
+         */
+        void entered(T target, double x, double y);
+
+        /**
+         * Курсор вышел из цели.
+         */
+        default void exited(T target, double x, double y) {}
+    }
+
+    private static final double CELL_SIZE = 64;
+    // Доля радиуса, на которую точка входа рывка сдвигается внутрь: на самой окружности
+    // из-за округления около половины точек оказывается чуть снаружи и считается промахом
+    private static final double ENTRY_INSET = 1e-9;
+    // 64 x 64 ячейки покрывают 4096 px; координаты за краем попадают в крайние ячейки
+    private static final int GRID = 64;
+
+    private final Listener<T> listener;
+
+    // ===== Цели: слоты в параллельных массивах =====
+    private Object[] targets = new Object[16];
+    private double[] cx = new double[16];
+    private double[] cy = new double[16];
+    private double[] radius = new double[16];
+    private boolean[] inside = new boolean[16];
+    private int[] stamp = new int[16];
+    private int slotCount;
+
+    // ===== Сетка: в ячейке — номера слотов =====
+    private final int[][] cells = new int[GRID * GRID][];
+    private final int[] cellCounts = new int[GRID * GRID];
+
+    // ===== Переиспользуемые буферы одного движения =====
+    private int[] candidates = new int[16];
+    private Object[] candidateTargets = new Object[16];
+    private double[] enterT = new double[16];
+    private int queryStamp;
+
+    private boolean hasPrev;
+    private double prevX;
+    private double prevY;
+
+    public HitDetector(Pane pane, Listener<T> listener) {
+        this.listener = listener;
+        pane.addEventFilter(MouseEvent.MOUSE_MOVED, e -> moveTo(e.getX(), e.getY()));
+        pane.addEventFilter(MouseEvent.MOUSE_DRAGGED, e -> moveTo(e.getX(), e.getY()));
+        pane.addEventHandler(MouseEvent.MOUSE_EXITED, e -> leave(e.getX(), e.getY()));
+    }
+
+    public void add(T target, double centerX, double centerY, double r) {
+        int slot = freeSlot();
+        targets[slot] = target;
+        cx[slot] = centerX;
+        cy[slot] = centerY;
+        radius[slot] = r;
+        inside[slot] = false;
+        stamp[slot] = 0;
+        forEachCell(centerX - r, centerY - r, centerX + r, centerY + r, slot, true);
+    }
+
+    public void remove(T target) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (targets[slot] == target) {
+                removeSlot(slot);
+                return;
+            }
+        }
+    }
+
+    public boolean contains(T target) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (targets[slot] == target) return true;
+        }
+        return false;
+    }
+
+    public void clear() {
+        Arrays.fill(targets, 0, slotCount, null);
+        Arrays.fill(cellCounts, 0);
+        slotCount = 0;
+    }
+
+    /**
+     * Обработка перемещения курсора в точку (x, y) координат поля.
+     */
+    void moveTo(double x, double y) {
+        double x0 = hasPrev ? prevX : x;
+        double y0 = hasPrev ? prevY : y;
+        prevX = x;
+        prevY = y;
+        hasPrev = true;
+
+        int n = collectCandidates(Math.min(x0, x), Math.min(y0, y), Math.max(x0, x), Math.max(y0, y));
+        if (n == 0) return;
+
+        double dx = x - x0;
+        double dy = y - y0;
+        double a = dx * dx + dy * dy;
+
+        // Для каждой цели: параметр t точки входа на отрезке (NaN — входа нет)
+        for (int k = 0; k < n; k++) {
+            int slot = candidates[k];
+            candidateTargets[k] = targets[slot];
+            enterT[k] = inside[slot] ? Double.NaN : firstIntersection(slot, x0, y0, dx, dy, a);
+        }
+        sortByEnterT(n);
+
+        for (int k = 0; k < n; k++) {
+            int slot = candidates[k];
+            @SuppressWarnings("unchecked")
+            T target = (T) candidateTargets[k];
+            // Колбэк предыдущей цели мог удалить эту или занять ее слот новой
+            if (slot >= slotCount || targets[slot] != target) continue;
+
+            boolean nowInside = distanceSq(slot, x, y) <= radius[slot] * radius[slot];
+            double t = enterT[k];
+
+            if (inside[slot]) {
+                if (!nowInside) {
+                    inside[slot] = false;
+                    listener.exited(target, x, y);
+                }
+            } else if (!Double.isNaN(t)) {
+                // t нужен только для порядка входов; точкой попадания служит сама позиция курсора
+                inside[slot] = true;
+                if (nowInside) {
+                    listener.entered(target, x, y);
+                } else {
+                    enterInside(slot, target, x0 + dx * t, y0 + dy * t);
+                }
+                // Рывок насквозь: вошли и вышли за одно движение
+                if (!nowInside && slot < slotCount && targets[slot] == target && inside[slot]) {
+                    inside[slot] = false;
+                    listener.exited(target, x, y);
+                }
+            }
+        }
+        Arrays.fill(candidateTargets, 0, n, null);
+    }
+
+    /**
+     * Вход рывком насквозь: точка пересечения с окружностью, подтянутая к центру строго внутрь круга.
+     */
+    private void enterInside(int slot, T target, double ex, double ey) {
+        double ox = ex - cx[slot];
+        double oy = ey - cy[slot];
+        double dist = Math.sqrt(ox * ox + oy * oy);
+        double maxDist = radius[slot] * (1.0 - ENTRY_INSET);
+        if (dist > maxDist) {
+            double k = maxDist / dist;
+            ex = cx[slot] + ox * k;
+            ey = cy[slot] + oy * k;
+        }
+        listener.entered(target, ex, ey);
+    }
+
+    /**
+     * Курсор покинул поле: все цели, где он был, получают exited.
+     */
+    void leave(double x, double y) {
+        hasPrev = false;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (targets[slot] != null && inside[slot]) {
+                inside[slot] = false;
+                @SuppressWarnings("unchecked")
+                T target = (T) targets[slot];
+                listener.exited(target, x, y);
+            }
+        }
+    }
+
+    /**
+     * Наименьший t из [0, 1], при котором точка (x0 + dx*t, y0 + dy*t) лежит на круге, или NaN.
+     */
+    private double firstIntersection(int slot, double x0, double y0, double dx, double dy, double a) {
+        double fx = x0 - cx[slot];
+        double fy = y0 - cy[slot];
+        double r2 = radius[slot] * radius[slot];
+        double c = fx * fx + fy * fy - r2;
+        if (c <= 0) return 0.0; // начало отрезка уже внутри
+        if (a == 0) return Double.NaN;
+
+        double b = 2 * (fx * dx + fy * dy);
+        double disc = b * b - 4 * a * c;
+        if (disc < 0) return Double.NaN;
+        double t = (-b - Math.sqrt(disc)) / (2 * a);
+        return t >= 0 && t <= 1 ? t : Double.NaN;
+    }
+
+    private double distanceSq(int slot, double x, double y) {
+        double ddx = x - cx[slot];
+        double ddy = y - cy[slot];
+        return ddx * ddx + ddy * ddy;
+    }
+
+    private int collectCandidates(double minX, double minY, double maxX, double maxY) {
+        if (++queryStamp == 0) {
+            Arrays.fill(stamp, 0);
+            queryStamp = 1;
+        }
+        int n = 0;
+        int c0 = cellOf(minX), c1 = cellOf(maxX);
+        int r0 = cellOf(minY), r1 = cellOf(maxY);
+        for (int row = r0; row <= r1; row++) {
+            for (int col = c0; col <= c1; col++) {
+                int cell = row * GRID + col;
+                int[] list = cells[cell];
+                for (int i = 0; i < cellCounts[cell]; i++) {
+                    int slot = list[i];
+                    if (stamp[slot] == queryStamp) continue;
+                    stamp[slot] = queryStamp;
+                    if (n == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, n * 2);
+                        candidateTargets = Arrays.copyOf(candidateTargets, n * 2);
+                        enterT = Arrays.copyOf(enterT, n * 2);
+                    }
+                    candidates[n++] = slot;
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Вставками по возрастанию t; цели без входа (NaN) — в начало, их выходы обрабатываются первыми.
+     */
+    private void sortByEnterT(int n) {
+        for (int i = 1; i < n; i++) {
+            double t = enterT[i];
+            int slot = candidates[i];
+            Object target = candidateTargets[i];
+            int j = i - 1;
+            while (j >= 0 && before(t, enterT[j])) {
+                enterT[j + 1] = enterT[j];
+                candidates[j + 1] = candidates[j];
+                candidateTargets[j + 1] = candidateTargets[j];
+                j--;
+            }
+            enterT[j + 1] = t;
+            candidates[j + 1] = slot;
+            candidateTargets[j + 1] = target;
+        }
+    }
+
+    private static boolean before(double t, double other) {
+        if (Double.isNaN(t)) return !Double.isNaN(other);
+        return !Double.isNaN(other) && t < other;
+    }
+
+    private int freeSlot() {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (targets[slot] == null) return slot;
+        }
+        if (slotCount == targets.length) {
+            int capacity = slotCount * 2;
+            targets = Arrays.copyOf(targets, capacity);
+            cx = Arrays.copyOf(cx, capacity);
+            cy = Arrays.copyOf(cy, capacity);
+            radius = Arrays.copyOf(radius, capacity);
+            inside = Arrays.copyOf(inside, capacity);
+            stamp = Arrays.copyOf(stamp, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void removeSlot(int slot) {
+        double r = radius[slot];
+        forEachCell(cx[slot] - r, cy[slot] - r, cx[slot] + r, cy[slot] + r, slot, false);
+        targets[slot] = null;
+        inside[slot] = false;
+        while (slotCount > 0 && targets[slotCount - 1] == null) {
+            slotCount--;
+        }
+    }
+
+    private void forEachCell(double minX, double minY, double maxX, double maxY, int slot, boolean insert) {
+        int c0 = cellOf(minX), c1 = cellOf(maxX);
+        int r0 = cellOf(minY), r1 = cellOf(maxY);
+        for (int row = r0; row <= r1; row++) {
+            for (int col = c0; col <= c1; col++) {
+                int cell = row * GRID + col;
+                if (insert) {
+                    insertIntoCell(cell, slot);
+                } else {
+                    removeFromCell(cell, slot);
+                }
+            }
+        }
+    }
+
+    private void insertIntoCell(int cell, int slot) {
+        int[] list = cells[cell];
+        if (list == null) {
+            list = cells[cell] = new int[4];
+        } else if (cellCounts[cell] == list.length) {
+            list = cells[cell] = Arrays.copyOf(list, list.length * 2);
+        }
+        list[cellCounts[cell]++] = slot;
+    }
+
+    private void removeFromCell(int cell, int slot) {
+        int[] list = cells[cell];
+        int count = cellCounts[cell];
+        for (int i = 0; i < count; i++) {
+            if (list[i] == slot) {
+                list[i] = list[count - 1];
+                cellCounts[cell] = count - 1;
+                return;
+            }
+        }
+    }
+
+    private static int cellOf(double coordinate) {
+        int cell = (int) Math.floor(coordinate / CELL_SIZE);
+        return Math.max(0, Math.min(GRID - 1, cell));
+    }
+}
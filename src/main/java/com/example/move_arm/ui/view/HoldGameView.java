@@ -1,5 +1,8 @@
 package com.example.move_arm.ui.view;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import com.example.move_arm.HoldTarget;
 import com.example.move_arm.service.AnimationService;
 import com.example.move_arm.util.AppLogger;
@@ -26,6 +29,11 @@ public class HoldGameView {
     private Runnable onViewReadyHandler;
     private boolean viewReadyNotified = false;
 
+    // Наведение на цели считается геометрически по движению мыши над полем
+    private HitDetector<HoldTarget> hitDetector;
+    private CursorSampler cursorSampler;
+    private final Map<HoldTarget, Runnable[]> pointerHandlers = new IdentityHashMap<>();
+
     @FXML
     public void initialize() {
         scoreLabel = new Label("Очки: 0");
@@ -41,6 +49,22 @@ public class HoldGameView {
         topPanel.setSpacing(18);
         topPanel.getChildren().addAll(scoreLabel, timeLabel, userLabel);
 
+        hitDetector = new HitDetector<>(gameRoot, new HitDetector.Listener<>() {
+            @Override
+            public void entered(HoldTarget target, double x, double y) {
+                target.pointerEntered();
+                runHandler(target, 0);
+            }
+
+            @Override
+            public void exited(HoldTarget target, double x, double y) {
+                target.pointerExited();
+                runHandler(target, 1);
+            }
+        });
+
+        cursorSampler = new CursorSampler(gameRoot);
+
         setupViewReadyListener();
     }
 
@@ -72,6 +96,8 @@ public class HoldGameView {
 
     public void clearField() {
         gameRoot.getChildren().clear();
+        hitDetector.clear();
+        pointerHandlers.clear();
     }
 
     public HoldTarget addHoldTarget(
@@ -87,33 +113,34 @@ public class HoldGameView {
         HoldTarget target = new HoldTarget(radius, color, holdDurationSeconds, onComplete);
         target.setLayoutX(x);
         target.setLayoutY(y);
-        target.setOnMouseEntered(event -> {
-            if (onEntered != null) {
-                onEntered.run();
-            }
-        });
-        target.setOnMouseExited(event -> {
-            if (onExited != null) {
-                onExited.run();
-            }
-        });
+        pointerHandlers.put(target, new Runnable[]{onEntered, onExited});
+        hitDetector.add(target, target.getCenterX(), target.getCenterY(), radius);
         gameRoot.getChildren().add(target);
         return target;
     }
 
+    private void runHandler(HoldTarget target, int index) {
+        Runnable[] handlers = pointerHandlers.get(target);
+        if (handlers != null && handlers[index] != null) {
+            handlers[index].run();
+        }
+    }
+
     public boolean containsTarget(HoldTarget target) {
         return gameRoot.getChildren().contains(target);
     }
 
     public void removeTarget(HoldTarget target) {
+        hitDetector.remove(target);
+        pointerHandlers.remove(target);
         gameRoot.getChildren().remove(target);
     }
 
     public void playDestroyAnimation(double centerX, double centerY, int radius, Color color) {
+        // Круг только описывает место и цвет: частицы рисуются на Canvas поля, в сцену он не добавляется
         Circle explosionDummy = new Circle(radius, color);
         explosionDummy.setCenterX(centerX);
         explosionDummy.setCenterY(centerY);
-        gameRoot.getChildren().add(explosionDummy);
 
         try {
             AnimationService.playDestructionAnimation(gameRoot, explosionDummy, null);
@@ -155,6 +182,10 @@ public class HoldGameView {
         return gameRoot.getHeight();
     }
 
+    public CursorSampler getCursorSampler() {
+        return cursorSampler;
+    }
+
     @FXML
     private void handleToMenu() {
         if (onToMenuHandler != null) {
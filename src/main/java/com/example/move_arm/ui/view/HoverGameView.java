@@ -31,6 +31,9 @@ public class HoverGameView implements GameView {
     private Runnable onViewReadyHandler;
 
     private final List<Circle> targets = new ArrayList<>();
+    // Попадания считаются геометрически по движению мыши над полем, круги mouseTransparent
+    private HitDetector<Circle> hitDetector;
+    private CursorSampler cursorSampler;
 
     @FXML
     public void initialize() {
@@ -48,6 +51,9 @@ public class HoverGameView implements GameView {
         topPanel.setSpacing(18);
         topPanel.getChildren().addAll(scoreLabel, timeLabel, userLabel);
 
+        hitDetector = new HitDetector<>(gameRoot, this::onCircleHit);
+        cursorSampler = new CursorSampler(gameRoot);
+
         // Слушаем готовность сцены и размеров
         setupViewReadyListener();
     }
@@ -82,6 +88,7 @@ public class HoverGameView implements GameView {
     @Override
     public void clearField() {
         targets.clear();
+        hitDetector.clear();
         gameRoot.getChildren().clear();
     }
 
@@ -93,37 +100,40 @@ public class HoverGameView implements GameView {
         circle.setFill(color);
         circle.setStroke(Color.WHITE);
         circle.setStrokeWidth(2);
-
-        // Обработка попадания
-        circle.setOnMouseEntered(event -> {
-            try {
-            AnimationService.playDestructionAnimation(gameRoot, circle, null);
-            } catch (Exception ignored) {}
-
-            targets.remove(circle);
-            gameRoot.getChildren().remove(circle);
-            if (onTargetHitHandler != null) {
-                TargetHitEvent hitEvent = new TargetHitEvent(
-                    event.getX(), event.getY(),
-                    x, y,
-                    radius,
-                    System.nanoTime() // относительное время будет считать Presenter
-                );
-                onTargetHitHandler.accept(hitEvent);
-            }
-
-            
-            // Анимация разрушения можно вызвать здесь или через Presenter
-        });
+        circle.setMouseTransparent(true);
 
         targets.add(circle);
+        hitDetector.add(circle, x, y, radius);
         gameRoot.getChildren().add(circle);
     }
 
+    // Обработка попадания: (cursorX, cursorY) — позиция курсора внутри круга (см. HitDetector.Listener)
+    private void onCircleHit(Circle circle, double cursorX, double cursorY) {
+        try {
+        AnimationService.playDestructionAnimation(gameRoot, circle, null);
+        } catch (Exception ignored) {}
+
+        targets.remove(circle);
+        hitDetector.remove(circle);
+        gameRoot.getChildren().remove(circle);
+        if (onTargetHitHandler != null) {
+            TargetHitEvent hitEvent = new TargetHitEvent(
+                cursorX, cursorY,
+                circle.getCenterX(), circle.getCenterY(),
+                (int) circle.getRadius(),
+                System.nanoTime() // относительное время будет считать Presenter
+            );
+            onTargetHitHandler.accept(hitEvent);
+        }
+
+        // Анимация разрушения можно вызвать здесь или через Presenter
+    }
+
     @Override
     public void removeTarget(Object targetId) {
         if (targetId instanceof Circle circle) {
             targets.remove(circle);
+            hitDetector.remove(circle);
             gameRoot.getChildren().remove(circle);
         }
     }
@@ -182,6 +192,11 @@ public class HoverGameView implements GameView {
     public double getHeight() {
         return gameRoot.getHeight();
     }
+    @Override
+    public CursorSampler getCursorSampler() {
+        return cursorSampler;
+    }
+
     @Override
     public List<double[]> getActiveTargetPositions() {
         List<double[]> positions = new ArrayList<>();
@@ -37,6 +37,9 @@ public class NeuralGameViewImpl implements NeuralGameView {
     private final Map<Integer, TargetCellData> activeTargets = new HashMap<>();
     private int targetCounter = 0;
     private long gameStartTimeNs = 0;
+    // Попадания считаются геометрически по движению мыши над полем, круги mouseTransparent
+    private HitDetector<TargetCellData> hitDetector;
+    private CursorSampler cursorSampler;
     
     // DTO для внутреннего хранения
     private static class TargetCellData {
@@ -64,6 +67,9 @@ public class NeuralGameViewImpl implements NeuralGameView {
         topPanel.setAlignment(Pos.CENTER_LEFT);
         topPanel.setSpacing(18);
         topPanel.getChildren().addAll(scoreLabel, timeLabel, userLabel);
+
+        hitDetector = new HitDetector<>(gameRoot, this::onTargetHit);
+        cursorSampler = new CursorSampler(gameRoot);
         
         setupViewReadyListener();
     }
@@ -94,6 +100,7 @@ public class NeuralGameViewImpl implements NeuralGameView {
         circle.setFill(color);
         circle.setStroke(Color.WHITE);
         circle.setStrokeWidth(2);
+        circle.setMouseTransparent(true);
         
         TargetCellData data = new TargetCellData();
         data.circle = circle;
@@ -105,34 +112,37 @@ public class NeuralGameViewImpl implements NeuralGameView {
         data.radius = radius;
         
         activeTargets.put(cellIndex, data);
-        
-        circle.setOnMouseEntered(event -> {
-            long hitTimeNs = System.nanoTime();
-            long lifetimeNs = hitTimeNs - data.spawnTimeNs;
-            
-            try {
-                AnimationService.playDestructionAnimation(gameRoot, circle, null);
-            } catch (Exception ignored) {}
-            
-            gameRoot.getChildren().remove(circle);
-            activeTargets.remove(cellIndex);
-            
-            if (onNeuralHitHandler != null) {
-                NeuralHitEvent hitEvent = new NeuralHitEvent(
-                    event.getX(), event.getY(),
-                    x, y, radius,
-                    hitTimeNs - gameStartTimeNs,
-                    data.spawnTimeNs,
-                    lifetimeNs,
-                    data.targetIndex,
-                    cellIndex
-                );
-                onNeuralHitHandler.accept(hitEvent);
-            }
-        });
+        hitDetector.add(data, x, y, radius);
         
         gameRoot.getChildren().add(circle);
     }
+
+    // Попадание: (cursorX, cursorY) — позиция курсора внутри круга (см. HitDetector.Listener)
+    private void onTargetHit(TargetCellData data, double cursorX, double cursorY) {
+        long hitTimeNs = System.nanoTime();
+        long lifetimeNs = hitTimeNs - data.spawnTimeNs;
+        
+        try {
+            AnimationService.playDestructionAnimation(gameRoot, data.circle, null);
+        } catch (Exception ignored) {}
+        
+        gameRoot.getChildren().remove(data.circle);
+        hitDetector.remove(data);
+        activeTargets.remove(data.cellIndex, data);
+        
+        if (onNeuralHitHandler != null) {
+            NeuralHitEvent hitEvent = new NeuralHitEvent(
+                cursorX, cursorY,
+                data.x, data.y, data.radius,
+                hitTimeNs - gameStartTimeNs,
+                data.spawnTimeNs,
+                lifetimeNs,
+                data.targetIndex,
+                data.cellIndex
+            );
+            onNeuralHitHandler.accept(hitEvent);
+        }
+    }
     
     @Override
     public List<TargetCell> getActiveTargetsWithCells() {
@@ -152,6 +162,7 @@ public class NeuralGameViewImpl implements NeuralGameView {
     public void recordTargetTimeout(int cellIndex, long timeoutNs) {
         TargetCellData data = activeTargets.remove(cellIndex);
         if (data != null) {
+            hitDetector.remove(data);
             gameRoot.getChildren().remove(data.circle);
             // Можно логировать: цель исчезла без попадания
         }
@@ -170,6 +181,7 @@ public class NeuralGameViewImpl implements NeuralGameView {
     @Override
     public void clearField() {
         gameRoot.getChildren().clear();
+        hitDetector.clear();
         activeTargets.clear();
         targetCounter = 0;
     }
@@ -186,7 +198,11 @@ public class NeuralGameViewImpl implements NeuralGameView {
         if (targetId instanceof Circle circle) {
             gameRoot.getChildren().remove(circle);
             // Удаляем из activeTargets по поиску
-            activeTargets.values().removeIf(data -> data.circle == circle);
+            activeTargets.values().removeIf(data -> {
+                if (data.circle != circle) return false;
+                hitDetector.remove(data);
+                return true;
+            });
         }
     }
     
@@ -236,6 +252,11 @@ public class NeuralGameViewImpl implements NeuralGameView {
         return gameRoot.getHeight();
     }
     
+    @Override
+    public CursorSampler getCursorSampler() {
+        return cursorSampler;
+    }
+
     @Override
     public List<double[]> getActiveTargetPositions() {
         List<double[]> positions = new ArrayList<>();
@@ -0,0 +1,118 @@
+package com.example.move_arm.util;
+
+/**
+ * Предрасчитанная геометрия грида COLS × ROWS в плоских примитивных массивах.
+ * Строится один раз и заменяет hypot/atan2 и new int[] в горячем пути нейро-генератора.
+ *
+ * Центр масс тройки всегда кратен 1/3 ячейки, поэтому углы "ячейка → центр масс"
+ * и расстояние "центр масс → центр экрана" индексируются целыми суммами строк/столбцов.
+ */
+public final class GridGeometryTable {
+
+    private static final GridGeometryTable INSTANCE = new GridGeometryTable(GridUtils.COLS, GridUtils.ROWS);
+
+    private final int cols;
+    private final int rows;
+    private final int cells;
+
+    private final int[] cellRow;
+    private final int[] cellCol;
+
+    // [a * cells + b]
+    private final double[] pairDistance;
+    private final double[] pairAngle;
+
+    // Суммы координат тройки: 0..3*(rows-1) и 0..3*(cols-1)
+    private final int maxSumRow;
+    private final int maxSumCol;
+    private final double[] centroidAngle;
+    private final int centroidAngleWidth;
+    private final double[] centerDistance;
+
+    public static GridGeometryTable get() {
+        return INSTANCE;
+    }
+
+    private GridGeometryTable(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        this.cells = cols * rows;
+
+        cellRow = new int[cells];
+        cellCol = new int[cells];
+        for (int c = 0; c < cells; c++) {
+            cellRow[c] = c / cols;
+            cellCol[c] = c % cols;
+        }
+
+        pairDistance = new double[cells * cells];
+        pairAngle = new double[cells * cells];
+        for (int a = 0; a < cells; a++) {
+            for (int b = 0; b < cells; b++) {
+                int dRow = cellRow[b] - cellRow[a];
+                int dCol = cellCol[b] - cellCol[a];
+                pairDistance[a * cells + b] = Math.hypot(dRow, dCol);
+                pairAngle[a * cells + b] = Math.atan2(dRow, dCol);
+            }
+        }
+
+        maxSumRow = 3 * (rows - 1);
+        maxSumCol = 3 * (cols - 1);
+
+        // atan2(3*row - sumRow, 3*col - sumCol) == atan2(row - centroidRow, col - centroidCol)
+        centroidAngleWidth = 2 * maxSumCol + 1;
+        centroidAngle = new double[(2 * maxSumRow + 1) * centroidAngleWidth];
+        for (int dRow3 = -maxSumRow; dRow3 <= maxSumRow; dRow3++) {
+            for (int dCol3 = -maxSumCol; dCol3 <= maxSumCol; dCol3++) {
+                centroidAngle[(dRow3 + maxSumRow) * centroidAngleWidth + (dCol3 + maxSumCol)] = Math.atan2(dRow3, dCol3);
+            }
+        }
+
+        double screenCenterRow = (rows - 1) / 2.0;
+        double screenCenterCol = (cols - 1) / 2.0;
+        centerDistance = new double[(maxSumRow + 1) * (maxSumCol + 1)];
+        for (int sumRow = 0; sumRow <= maxSumRow; sumRow++) {
+            for (int sumCol = 0; sumCol <= maxSumCol; sumCol++) {
+                centerDistance[sumRow * (maxSumCol + 1) + sumCol] =
+                        Math.hypot(sumRow / 3.0 - screenCenterRow, sumCol / 3.0 - screenCenterCol);
+            }
+        }
+    }
+
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+    public int getCells() { return cells; }
+
+    public int row(int cell) { return cellRow[cell]; }
+    public int col(int cell) { return cellCol[cell]; }
+
+    /**
+     * Евклидово расстояние между центрами ячеек (в ячейках).
+     */
+    public double distance(int cellA, int cellB) {
+        return pairDistance[cellA * cells + cellB];
+    }
+
+    /**
+     * atan2(dRow, dCol) направления от ячейки A к ячейке B.
+     */
+    public double angle(int cellA, int cellB) {
+        return pairAngle[cellA * cells + cellB];
+    }
+
+    /**
+     * Угол от центра масс тройки (sumRow/3, sumCol/3) до ячейки.
+     */
+    public double angleFromCentroid(int cell, int sumRow, int sumCol) {
+        int dRow3 = 3 * cellRow[cell] - sumRow;
+        int dCol3 = 3 * cellCol[cell] - sumCol;
+        return centroidAngle[(dRow3 + maxSumRow) * centroidAngleWidth + (dCol3 + maxSumCol)];
+    }
+
+    /**
+     * Расстояние от центра масс тройки до геометрического центра сетки.
+     */
+    public double centroidDistanceFromCenter(int sumRow, int sumCol) {
+        return centerDistance[sumRow * (maxSumCol + 1) + sumCol];
+    }
+}
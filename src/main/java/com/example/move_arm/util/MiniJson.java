@@ -0,0 +1,125 @@
+package com.example.move_arm.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Минимальный JSON-парсер без внешних зависимостей.
+ * Объекты → Map, массивы → List, числа → Double, строки → String.
+ * Нужен для чтения JSON-экспорта модели CatBoost.
+ */
+public class MiniJson {
+
+    private final String src;
+    private int pos;
+
+    private MiniJson(String src) {
+        this.src = src;
+    }
+
+    public static Object parse(String json) {
+        MiniJson parser = new MiniJson(json);
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos != json.length()) {
+            throw parser.error("Лишние символы после JSON");
+        }
+        return value;
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (pos >= src.length()) throw error("Неожиданный конец JSON");
+        char c = src.charAt(pos);
+        switch (c) {
+            case '{': return readObject();
+            case '[': return readArray();
+            case '"': return readString();
+            case 't': expect("true"); return Boolean.TRUE;
+            case 'f': expect("false"); return Boolean.FALSE;
+            case 'n': expect("null"); return null;
+            default: return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        pos++; // {
+        skipWhitespace();
+        if (peek() == '}') { pos++; return out; }
+        while (true) {
+            skipWhitespace();
+            String key = readString();
+            skipWhitespace();
+            if (src.charAt(pos++) != ':') throw error("Ожидалось ':'");
+            out.put(key, readValue());
+            skipWhitespace();
+            char c = src.charAt(pos++);
+            if (c == '}') return out;
+            if (c != ',') throw error("Ожидалось ',' или '}'");
+        }
+    }
+
+    private List<Object> readArray() {
+        List<Object> out = new ArrayList<>();
+        pos++; // [
+        skipWhitespace();
+        if (peek() == ']') { pos++; return out; }
+        while (true) {
+            out.add(readValue());
+            skipWhitespace();
+            char c = src.charAt(pos++);
+            if (c == ']') return out;
+            if (c != ',') throw error("Ожидалось ',' или ']'");
+        }
+    }
+
+    private String readString() {
+        if (src.charAt(pos++) != '"') throw error("Ожидалась строка");
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            char c = src.charAt(pos++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') { sb.append(c); continue; }
+            char e = src.charAt(pos++);
+            switch (e) {
+                case 'n': sb.append('\n'); break;
+                case 't': sb.append('\t'); break;
+                case 'r': sb.append('\r'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    sb.append((char) Integer.parseInt(src.substring(pos, pos + 4), 16));
+                    pos += 4;
+                    break;
+                default: sb.append(e);
+            }
+        }
+    }
+
+    private Double readNumber() {
+        int start = pos;
+        while (pos < src.length() && "+-0123456789.eE".indexOf(src.charAt(pos)) >= 0) pos++;
+        if (start == pos) throw error("Неожиданный символ '" + src.charAt(pos) + "'");
+        return Double.parseDouble(src.substring(start, pos));
+    }
+
+    private void expect(String literal) {
+        if (!src.startsWith(literal, pos)) throw error("Ожидалось " + literal);
+        pos += literal.length();
+    }
+
+    private char peek() {
+        return pos < src.length() ? src.charAt(pos) : '\0';
+    }
+
+    private void skipWhitespace() {
+        while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) pos++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("MiniJson: " + message + " (позиция " + pos + ")");
+    }
+}